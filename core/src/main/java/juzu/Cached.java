@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache the response of a view or resource controller method. The response is cached when the method is invoked
+ * by an http <code>GET</code> request and returns a body with the <code>200</code> status, the response is keyed by
+ * the request parameters and the user locale. The cached responses are served without invoking the method
+ * and carry an <code>ETag</code> header, so a client revalidating a response gets a <code>304</code> status.
+ *
+ * <code><pre>
+ *    public void MyController {
+ *
+ *       &#064;{@link View}
+ *       &#064;{@link Cached}(ttl = 10, unit = TimeUnit.MINUTES)
+ *       public Response.Content myView(String id) {
+ *          ...
+ *       }
+ *    }
+ * </pre></code>
+ *
+ * <p>The method response should only depend on the request parameters and the locale, in particular it should
+ * not depend on the session or flash scopes.</p>
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+
+  /**
+   * The time to live of a cached response.
+   *
+   * @return the time to live
+   */
+  long ttl() default 60;
+
+  /**
+   * The time to live unit.
+   *
+   * @return the time to live unit
+   */
+  TimeUnit unit() default TimeUnit.SECONDS;
+
+  /**
+   * The maximum number of responses cached for the method, the least recently used responses are evicted first.
+   *
+   * @return the maximum number of cached responses
+   */
+  int size() default 100;
+
+}
@@ -16,11 +16,18 @@
 
 package juzu;
 
+import juzu.impl.common.Tools;
+import juzu.io.EventStreamable;
+import juzu.io.JSONWriter;
 import juzu.io.Streamable;
 import juzu.io.Streams;
 import juzu.request.Dispatch;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.AbstractMap;
 import java.util.Arrays;
@@ -592,6 +599,77 @@ public abstract class Response {
     return content(200, content);
   }
 
+  /**
+   * Create a response for downloading a file, the mime type is guessed from the file name. The response
+   * supports conditional requests and byte range requests.
+   *
+   * @param file the file
+   * @return the response
+   * @throws NullPointerException if the file is null
+   */
+  public static Body ok(File file) throws NullPointerException {
+    Body body = ok().body(new Streamable.Channel(file));
+    String mimeType = URLConnection.guessContentTypeFromName(file.getName());
+    return body.withMimeType(mimeType != null ? mimeType : "application/octet-stream");
+  }
+
+  /**
+   * Create a response for downloading the content of a file channel, the channel is closed once it is sent.
+   * The response supports byte range requests.
+   *
+   * @param channel the channel
+   * @return the response
+   * @throws NullPointerException if the channel is null
+   */
+  public static Body ok(FileChannel channel) throws NullPointerException {
+    return ok().body(new Streamable.Channel(channel)).withMimeType("application/octet-stream");
+  }
+
+  /**
+   * Create a JSON response, the document is written incrementally by the streamable and sent with the
+   * <code>application/json</code> mime type and the <code>UTF-8</code> charset.
+   *
+   * @param json the json streamable
+   * @return the response
+   * @throws NullPointerException if the streamable is null
+   */
+  public static Body json(Streamable.JSON json) throws NullPointerException {
+    if (json == null) {
+      throw new NullPointerException("No null json accepted");
+    }
+    return ok().body(json).withMimeType("application/json").withCharset(Tools.UTF_8);
+  }
+
+  /**
+   * Create a JSON response for the value, maps, iterables and arrays are iterated when the response is sent.
+   *
+   * @param value the value
+   * @return the response
+   * @see juzu.io.JSONWriter#value(Object)
+   */
+  public static Body json(final Object value) {
+    return json(new Streamable.JSON() {
+      @Override
+      protected void write(JSONWriter writer) throws IOException {
+        writer.value(value);
+      }
+    });
+  }
+
+  /**
+   * Create a server-sent events response, the connection is kept open until the streamable is closed.
+   *
+   * @param events the events
+   * @return the response
+   * @throws NullPointerException if the events is null
+   */
+  public static Body events(EventStreamable events) throws NullPointerException {
+    if (events == null) {
+      throw new NullPointerException("No null events accepted");
+    }
+    return ok().body(events).withMimeType("text/event-stream").withCharset(Tools.UTF_8).withHeader("Cache-Control", "no-cache");
+  }
+
   public static Content notFound(byte[] content) {
     return content(404, content);
   }
@@ -37,6 +37,7 @@ import juzu.impl.plugin.module.Module;
 import juzu.impl.plugin.module.ModuleContext;
 import juzu.impl.request.Method;
 import juzu.impl.resource.ResourceResolver;
+import juzu.io.AsyncStreamable;
 import juzu.request.Phase;
 
 import javax.portlet.ActionRequest;
@@ -174,6 +175,9 @@ public class JuzuPortlet implements Portlet, ResourceServingPortlet, EventPortle
     this.bridge = bridge;
     this.context = config.getPortletContext();
     this.module = module;
+
+    //
+    AsyncStreamable.lease();
   }
 
   /**
@@ -353,5 +357,6 @@ public class JuzuPortlet implements Portlet, ResourceServingPortlet, EventPortle
 
   public void destroy() {
     Tools.safeClose(bridge);
+    AsyncStreamable.release();
   }
 }
@@ -16,6 +16,7 @@
 
 package juzu.impl.bridge;
 
+import juzu.impl.bridge.spi.web.SessionStore;
 import juzu.impl.common.Name;
 import juzu.impl.inject.spi.Injector;
 import juzu.impl.inject.spi.InjectorProvider;
@@ -40,8 +41,11 @@ public class BridgeConfig {
   /** . */
   public static final String SOURCE_PATH = "juzu.src_path";
 
+  /** The session store specification, see {@link SessionStore#get(String)}. */
+  public static final String SESSION_STORE = "juzu.session_store";
+
   /** . */
-  public static final Set<String> NAMES = Collections.unmodifiableSet(Tools.set(RUN_MODE, INJECT, APP_NAME));
+  public static final Set<String> NAMES = Collections.unmodifiableSet(Tools.set(RUN_MODE, INJECT, APP_NAME, SESSION_STORE));
 
   /** . */
   public final Name name;
@@ -49,6 +53,9 @@ public class BridgeConfig {
   /** . */
   public final Injector injectImpl;
 
+  /** The session store or null when the session state is kept by the container. */
+  public final SessionStore sessionStore;
+
   public static Name getApplicationName(Map<String, String> config) {
     String applicationName = config.get("juzu.app_name");
     return applicationName != null ? Name.parse(applicationName) : null;
@@ -74,8 +81,17 @@ public class BridgeConfig {
     return implementation;
   }
 
+  public static SessionStore getSessionStore(Map<String, String> config) {
+    String spec = config.get(SESSION_STORE);
+    if (spec == null) {
+      spec = System.getProperty(SESSION_STORE);
+    }
+    return spec != null ? SessionStore.get(spec) : null;
+  }
+
   public BridgeConfig(Map<String, String> config) throws Exception {
     this.name = getApplicationName(config);
     this.injectImpl = getInjectImplementation(config).get();
+    this.sessionStore = getSessionStore(config);
   }
 }
@@ -21,6 +21,7 @@ import juzu.impl.asset.AssetServer;
 import juzu.impl.bridge.Bridge;
 import juzu.impl.bridge.BridgeConfig;
 import juzu.impl.bridge.spi.web.Handler;
+import juzu.impl.bridge.spi.web.SessionStore;
 import juzu.impl.common.Formatting;
 import juzu.impl.common.Tools;
 import juzu.impl.common.Logger;
@@ -78,6 +79,10 @@ public class ServletBridge extends HttpServlet {
     return bridge;
   }
 
+  SessionStore getSessionStore() {
+    return config.sessionStore;
+  }
+
   @Override
   public void init() throws ServletException {
 
@@ -116,7 +121,7 @@ public class ServletBridge extends HttpServlet {
         public String get(Object key) {
           if (BridgeConfig.APP_NAME.equals(key)) {
             return getApplicationName(servletConfig);
-          } else if (BridgeConfig.INJECT.equals(key)) {
+          } else if (BridgeConfig.INJECT.equals(key) || BridgeConfig.SESSION_STORE.equals(key)) {
             // Cascade:
             // 1/ portlet init param
             // 2/ serlvet context init param
@@ -18,6 +18,8 @@ package juzu.impl.bridge.spi.servlet;
 
 import juzu.Method;
 import juzu.asset.AssetLocation;
+import juzu.impl.bridge.spi.web.FormDecoder;
+import juzu.impl.bridge.spi.web.SessionStore;
 import juzu.impl.bridge.spi.web.WebBridge;
 import juzu.impl.common.Lexers;
 import juzu.impl.common.Logger;
@@ -38,7 +40,6 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
-import javax.servlet.http.HttpUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
@@ -77,12 +78,18 @@ public class ServletWebBridge extends WebBridge implements HttpContext, ClientCo
   /** . */
   private final ServletBridge servlet;
 
+  /** . */
+  private SessionScopedContext flashScope;
+
+  /** . */
+  private SessionScopedContext sessionScope;
+
   public ServletWebBridge(
       ServletBridge servlet,
       HttpServletRequest req,
       HttpServletResponse resp,
       String path,
-      Logger log) {
+      Logger log) throws IOException {
 
     //
     Map<String, RequestParameter> requestParameters = Collections.emptyMap();
@@ -98,24 +105,11 @@ public class ServletWebBridge extends WebBridge implements HttpContext, ClientCo
     }
 
     //
-    if ("POST".equals(req.getMethod()) && "application/x-www-form-urlencoded".equals(req.getContentType())) {
-      try {
-        for (Map.Entry<String, String[]> parameter : HttpUtils.parsePostData(req.getContentLength(), req.getInputStream()).entrySet()) {
-          if (requestParameters.isEmpty()) {
-            requestParameters = new HashMap<String, RequestParameter>();
-          }
-          RequestParameter requestParameter = requestParameters.get(parameter.getKey());
-          if (requestParameter != null) {
-            requestParameter = requestParameter.append(parameter.getValue());
-          } else {
-            requestParameter = RequestParameter.create(parameter);
-          }
-          requestParameter.appendTo(requestParameters);
-        }
-      }
-      catch (IOException e) {
-        e.printStackTrace();
-      }
+    String contentType = req.getContentType();
+    if ("POST".equals(req.getMethod()) && contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+      String encoding = req.getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : Tools.UTF_8;
+      requestParameters = new FormDecoder(charset).decode(req.getInputStream(), requestParameters);
     }
 
     //
@@ -210,18 +204,24 @@ public class ServletWebBridge extends WebBridge implements HttpContext, ClientCo
       super(charset, out);
     }
 
-    public void close() throws IOException {
-      closed = true;
-      if (context != null) {
-        System.out.println("COMPLETING ASYNC");
-        context.complete();
+    public synchronized void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        if (context != null) {
+          context.complete();
+        }
       }
     }
 
-    void end() {
+    /**
+     * Keep the response open when the stream is still in use after the response is sent, the stream can be
+     * closed by another thread meanwhile.
+     */
+    synchronized void end() {
       if (!closed) {
-        System.out.println("STARTING ASYNC");
         context = req.startAsync();
+        // The stream decides when the response completes
+        context.setTimeout(0);
       }
     }
   }
@@ -252,30 +252,49 @@ public class ServletWebBridge extends WebBridge implements HttpContext, ClientCo
   }
 
   public ScopedContext getFlashScope(boolean create) {
-    ScopedContext context = null;
-    HttpSession session = req.getSession(create);
-    if (session != null) {
-      context = (ScopedContext)session.getAttribute("juzu.flash_scope");
-      if (context == null && create) {
-        session.setAttribute("juzu.flash_scope", context = new ScopedContext(log));
+    SessionStore store = servlet.getSessionStore();
+    if (store != null) {
+      return getStoredScope(log, store, true, create);
+    }
+    if (flashScope == null) {
+      HttpSession session = req.getSession(create);
+      if (session != null) {
+        flashScope = new SessionScopedContext(log, session, "juzu.flash_scope.");
       }
     }
-    return context;
+    return flashScope;
   }
 
   public ScopedContext getSessionScope(boolean create) {
-    ScopedContext context = null;
-    HttpSession session = req.getSession(create);
-    if (session != null) {
-      context = (ScopedContext)session.getAttribute("juzu.session_scope");
-      if (context == null && create) {
-        session.setAttribute("juzu.session_scope", context = new ScopedContext(log));
+    SessionStore store = servlet.getSessionStore();
+    if (store != null) {
+      return getStoredScope(log, store, false, create);
+    }
+    if (sessionScope == null) {
+      HttpSession session = req.getSession(create);
+      if (session != null) {
+        sessionScope = new SessionScopedContext(log, session, "juzu.session_scope.");
       }
     }
-    return context;
+    return sessionScope;
+  }
+
+  @Override
+  protected void flushScopes() {
+    super.flushScopes();
+    if (flashScope != null) {
+      flashScope.flush();
+    }
+    if (sessionScope != null) {
+      sessionScope.flush();
+    }
   }
 
   public void purgeSession() {
+    SessionStore store = servlet.getSessionStore();
+    if (store != null) {
+      purgeStoredSession(log, store);
+    }
     HttpSession session = req.getSession(false);
     if (session != null) {
       for (String key : Tools.list(session.getAttributeNames())) {
@@ -288,6 +307,18 @@ public class ServletWebBridge extends WebBridge implements HttpContext, ClientCo
     resp.setHeader(name, value);
   }
 
+  @Override
+  public String getRequestHeader(String name) {
+    return req.getHeader(name);
+  }
+
+  @Override
+  protected void addCookie(Cookie cookie) {
+    cookie.setPath(req.getContextPath().length() > 0 ? req.getContextPath() : "/");
+    cookie.setHttpOnly(true);
+    resp.addCookie(cookie);
+  }
+
   public void sendRedirect(String location) throws IOException {
     resp.sendRedirect(location);
   }
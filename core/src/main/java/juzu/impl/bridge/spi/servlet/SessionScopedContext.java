@@ -0,0 +1,256 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.servlet;
+
+import juzu.impl.common.Logger;
+import juzu.impl.common.Tools;
+import juzu.impl.inject.Scoped;
+import juzu.impl.inject.ScopedContext;
+
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>A scoped context storing each entry under its own session attribute, the attribute name is the prefix followed
+ * by the entry key. Updating an entry only sets its attribute, so a replicated session only replicates the changed
+ * entries, and the concurrent requests of a session are handled by the session attribute map of the container.
+ * The serialized form of the entries read during the request is recorded and {@link #flush()} sets again the
+ * entries whose serialized form changed, so the changes made in place to a bean are replicated as well.</p>
+ *
+ * <p>Replication is supported for the Guice injector only: its entries are keyed by a Guice key whose string
+ * value is the same on every node and they are serializable when the bean is serializable. The CDI and Spring
+ * entries wrap container objects that cannot be serialized, they are not replicated and the bean is created
+ * again on another node.</p>
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+class SessionScopedContext extends ScopedContext {
+
+  /** . */
+  private final HttpSession session;
+
+  /** . */
+  private final String prefix;
+
+  /** The serialized form of the attributes read during the request. */
+  private final LinkedHashMap<String, byte[]> read;
+
+  SessionScopedContext(Logger log, HttpSession session, String prefix) {
+    super(log);
+
+    //
+    this.session = session;
+    this.prefix = prefix;
+    this.read = new LinkedHashMap<String, byte[]>();
+  }
+
+  @Override
+  public Scoped get(Object key) throws NullPointerException {
+    if (key == null) {
+      throw new NullPointerException("No null key accepted");
+    }
+    String name = prefix + key;
+    Object value = session.getAttribute(name);
+    if (value instanceof Entry && ((Entry)value).scoped != null) {
+      Scoped scoped = ((Entry)value).scoped;
+      boolean tracked;
+      synchronized (read) {
+        tracked = read.containsKey(name);
+      }
+      if (!tracked && scoped instanceof Serializable) {
+        byte[] bytes = serialize(scoped);
+        if (bytes != null) {
+          synchronized (read) {
+            if (!read.containsKey(name)) {
+              read.put(name, bytes);
+            }
+          }
+        }
+      }
+      return scoped;
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public void set(Object key, Scoped scoped) throws NullPointerException {
+    if (key == null) {
+      throw new NullPointerException("No null key accepted");
+    }
+    String name = prefix + key;
+    synchronized (read) {
+      read.remove(name);
+    }
+    bind(name, scoped);
+  }
+
+  private void bind(String name, Scoped scoped) {
+    Object value = session.getAttribute(name);
+    if (value instanceof Entry) {
+      // Replacing or removing an entry does not destroy its value
+      ((Entry)value).removed = true;
+    }
+    if (scoped == null) {
+      if (value != null) {
+        session.removeAttribute(name);
+      }
+    }
+    else {
+      session.setAttribute(name, new Entry(log, scoped));
+    }
+  }
+
+  /**
+   * Set again the attributes read during the request whose serialized form changed, so the session replication
+   * accounts for the changes made to the beans.
+   */
+  void flush() {
+    ArrayList<Map.Entry<String, byte[]>> entries;
+    synchronized (read) {
+      entries = new ArrayList<Map.Entry<String, byte[]>>(read.entrySet());
+      read.clear();
+    }
+    try {
+      for (Map.Entry<String, byte[]> entry : entries) {
+        String name = entry.getKey();
+        Object value = session.getAttribute(name);
+        if (value instanceof Entry && ((Entry)value).scoped != null) {
+          Scoped scoped = ((Entry)value).scoped;
+          if (!Arrays.equals(entry.getValue(), serialize(scoped))) {
+            bind(name, scoped);
+          }
+        }
+      }
+    }
+    catch (IllegalStateException ignore) {
+      // Session was invalidated
+    }
+  }
+
+  @Override
+  public int size() {
+    return names().size();
+  }
+
+  @Override
+  public Iterator<Scoped> iterator() {
+    ArrayList<Scoped> scopeds = new ArrayList<Scoped>();
+    for (String name : names()) {
+      Object value = session.getAttribute(name);
+      if (value instanceof Entry && ((Entry)value).scoped != null) {
+        scopeds.add(((Entry)value).scoped);
+      }
+    }
+    return scopeds.iterator();
+  }
+
+  @Override
+  public void close() {
+    for (String name : names()) {
+      session.removeAttribute(name);
+    }
+  }
+
+  /**
+   * Serialize a scoped value.
+   *
+   * @param scoped the scoped value
+   * @return the serialized form or null when the value cannot be serialized
+   */
+  private static byte[] serialize(Scoped scoped) {
+    try {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      ObjectOutputStream out = new ObjectOutputStream(buffer);
+      out.writeObject(scoped);
+      out.close();
+      return buffer.toByteArray();
+    }
+    catch (IOException e) {
+      return null;
+    }
+  }
+
+  private ArrayList<String> names() {
+    ArrayList<String> entries = new ArrayList<String>();
+    for (String name : Tools.iterable(session.getAttributeNames())) {
+      if (name.startsWith(prefix)) {
+        entries.add(name);
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * A session attribute holding a scoped value, the value is destroyed when the attribute is unbound unless
+   * the entry was explicitly removed from the context. A scoped value that is not serializable is serialized
+   * as an empty entry.
+   */
+  private static class Entry implements HttpSessionBindingListener, Serializable {
+
+    /** . */
+    private final transient Logger log;
+
+    /** . */
+    private transient Scoped scoped;
+
+    /** . */
+    private volatile boolean removed;
+
+    private Entry(Logger log, Scoped scoped) {
+      this.log = log;
+      this.scoped = scoped;
+    }
+
+    public void valueBound(HttpSessionBindingEvent event) {
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+      out.defaultWriteObject();
+      out.writeObject(scoped instanceof Serializable ? scoped : null);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      scoped = (Scoped)in.readObject();
+    }
+
+    public void valueUnbound(HttpSessionBindingEvent event) {
+      if (!removed && scoped != null) {
+        try {
+          scoped.destroy();
+        }
+        catch (Throwable t) {
+          if (log != null) {
+            log.log("Error when destroying object", t);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.asset.AssetLocation;
+import juzu.impl.common.JSON;
+import juzu.impl.common.Tools;
+import juzu.impl.common.TokenMgrError;
+import juzu.impl.inject.ScopedContext;
+import juzu.impl.plugin.controller.ControllerPlugin;
+import juzu.impl.request.Method;
+import juzu.io.BinaryOutputStream;
+import juzu.io.JSONWriter;
+import juzu.io.Stream;
+import juzu.request.ApplicationContext;
+import juzu.request.ClientContext;
+import juzu.request.HttpContext;
+import juzu.request.Phase;
+import juzu.request.RequestParameter;
+import juzu.request.UserContext;
+
+import javax.servlet.http.Cookie;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A batch of resource method invocations sent in a single request. The batch is the JSON array value of the
+ * {@link #PARAMETER} parameter, each element provides the <code>id</code> of a resource method and its
+ * <code>parameters</code>. The invocations are performed in sequence or in parallel when the {@link #PARALLEL}
+ * parameter is <code>true</code>, their responses are streamed in order as a JSON array of objects
+ * carrying the <code>status</code>, the <code>type</code>, the <code>headers</code> and the <code>body</code>
+ * decoded as text. A call that fails is reported with the <code>500</code> status, a call whose asynchronous
+ * response is not complete after the {@link #TIMEOUT} delay is reported with the <code>504</code> status, so the
+ * array is always completed.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+class Batch {
+
+  /** The batch parameter. */
+  static final String PARAMETER = "juzu.batch";
+
+  /** The parallel parameter. */
+  static final String PARALLEL = "juzu.batch.parallel";
+
+  /** The system property configuring the seconds a call waits for its asynchronous response, defaults to 30. */
+  static final String TIMEOUT = "juzu.batch.timeout";
+
+  /** The size of the pool performing the parallel invocations. */
+  private static final int POOL_SIZE = Integer.getInteger("juzu.batch.pool_size", Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+  /**
+   * Create a pool performing the parallel invocations, each handler owns its pool.
+   *
+   * @return the pool
+   */
+  static ExecutorService createExecutor() {
+    return Executors.newFixedThreadPool(POOL_SIZE, new BatchThreadFactory());
+  }
+
+  /** . */
+  private final Handler handler;
+
+  /** . */
+  private final WebBridge bridge;
+
+  Batch(Handler handler, WebBridge bridge) {
+    this.handler = handler;
+    this.bridge = bridge;
+  }
+
+  private Future<Call> submit(Call call) {
+    ExecutorService executor = handler.getBatchExecutor();
+    if (executor != null) {
+      try {
+        return executor.submit(call);
+      }
+      catch (RejectedExecutionException ignore) {
+        // The handler was closed meanwhile
+      }
+    }
+    // Performed when its result is sent
+    return new FutureTask<Call>(call);
+  }
+
+  void handle() throws Exception {
+
+    // Decode the calls
+    Object batch;
+    try {
+      batch = JSON.parse(bridge.getParameters().get(PARAMETER).getValue());
+    }
+    catch (AssertionError e) {
+      // That's how the parser fails
+      batch = null;
+    }
+    catch (TokenMgrError e) {
+      // That's how the lexer fails
+      batch = null;
+    }
+    if (!(batch instanceof List<?>)) {
+      bridge.setStatus(400);
+      bridge.end();
+      return;
+    }
+    int timeout = Integer.getInteger(TIMEOUT, 30);
+    List<Call> calls = new ArrayList<Call>();
+    for (Object element : (List<?>)batch) {
+      calls.add(new Call(element instanceof JSON ? (JSON)element : null, timeout));
+    }
+
+    // Perform the calls
+    RequestParameter parallel = bridge.getParameters().get(PARALLEL);
+    List<Future<Call>> results = new ArrayList<Future<Call>>(calls.size());
+    if (parallel != null && Boolean.parseBoolean(parallel.getValue()) && calls.size() > 1) {
+      for (Call call : calls) {
+        results.add(submit(call));
+      }
+    } else {
+      for (Call call : calls) {
+        // Performed when its result is sent
+        results.add(new FutureTask<Call>(call));
+      }
+    }
+
+    // Stream the results in order
+    bridge.setContentType("application/json", Tools.UTF_8);
+    Stream stream = bridge.getStream(Tools.UTF_8);
+    JSONWriter writer = new JSONWriter(stream);
+    boolean completed = false;
+    try {
+      writer.beginArray();
+      for (int i = 0;i < results.size();i++) {
+        Future<Call> result = results.get(i);
+        if (result instanceof FutureTask<?>) {
+          ((FutureTask<Call>)result).run();
+        }
+        Call call;
+        try {
+          call = result.get();
+        }
+        catch (ExecutionException e) {
+          // A failure the call could not report itself
+          call = calls.get(i).fail(e.getCause());
+        }
+        writer.beginObject();
+        writer.name("status").value(call.status);
+        if (call.mimeType != null) {
+          writer.name("type").value(call.mimeType);
+        }
+        writer.name("headers").value(call.headers);
+        writer.name("body").value(call.failed ? "" : new String(call.buffer.toByteArray(), call.charset));
+        writer.endObject();
+        writer.flush();
+      }
+      writer.endArray();
+      completed = true;
+    }
+    finally {
+      if (!completed) {
+        // The results cannot be sent, stop the calls still running
+        for (Future<Call> result : results) {
+          result.cancel(true);
+        }
+      }
+      Tools.safeClose(writer);
+      bridge.end(stream);
+      bridge.flushScopes();
+    }
+  }
+
+  /**
+   * A call captures the response of a resource method, it delegates the request state to the batch bridge
+   * and has its own request scope.
+   */
+  private class Call extends WebBridge implements Callable<Call> {
+
+    /** . */
+    private final Object id;
+
+    /** . */
+    private final Method<?> method;
+
+    /** . */
+    private final Map<String, RequestParameter> parameters;
+
+    /** . */
+    private final int timeout;
+
+    /** . */
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /** . */
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    /** . */
+    private final Map<String, String> headers = new LinkedHashMap<String, String>();
+
+    /** . */
+    private int status;
+
+    /** . */
+    private String mimeType;
+
+    /** . */
+    private Charset charset;
+
+    /** . */
+    private boolean streaming;
+
+    /** . */
+    private boolean failed;
+
+    /** . */
+    private ScopedContext requestScope;
+
+    Call(JSON call, int timeout) {
+      Object id = null;
+      Method<?> method = null;
+      Map<String, RequestParameter> parameters = Collections.emptyMap();
+      if (call != null) {
+        id = call.get("id");
+        if (id instanceof String) {
+          method = handler.bridge.application.getPlugin(ControllerPlugin.class).getDescriptor().getMethodById((String)id);
+          if (method != null && method.getPhase() != Phase.RESOURCE) {
+            method = null;
+          }
+        }
+        Object json = call.get("parameters");
+        if (json instanceof JSON) {
+          parameters = new HashMap<String, RequestParameter>();
+          for (String name : ((JSON)json).names()) {
+            Object value = ((JSON)json).get(name);
+            if (value instanceof List<?>) {
+              List<?> list = (List<?>)value;
+              String[] values = new String[list.size()];
+              for (int i = 0;i < values.length;i++) {
+                values[i] = String.valueOf(list.get(i));
+              }
+              RequestParameter.create(name, values).appendTo(parameters);
+            } else if (value != null) {
+              RequestParameter.create(name, value.toString()).appendTo(parameters);
+            }
+          }
+        }
+      }
+
+      //
+      this.id = id;
+      this.method = method;
+      this.parameters = parameters;
+      this.timeout = timeout;
+      this.status = 200;
+      this.charset = Tools.ISO_8859_1;
+    }
+
+    public Call call() {
+      try {
+        if (method == null) {
+          status = 404;
+        } else {
+          WebResourceBridge requestBridge = new WebResourceBridge(handler.bridge, handler, this, method, parameters);
+          requestBridge.invoke();
+          if (!requestBridge.send()) {
+            throw new UnsupportedOperationException("Not yet handled by " + requestBridge.getClass().getSimpleName() + ": " + requestBridge.response);
+          }
+        }
+        if (!streaming) {
+          done.countDown();
+        }
+
+        // Wait until an asynchronous response is complete
+        if (!done.await(timeout, TimeUnit.SECONDS)) {
+          handler.bridge.log.log("Batch call " + id + " did not complete within " + timeout + " seconds");
+          return fail(504);
+        }
+        return this;
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return fail(e);
+      }
+      catch (Exception e) {
+        return fail(e);
+      }
+    }
+
+    /**
+     * Report the call failure as a <code>500</code> response without body.
+     *
+     * @param cause the failure cause
+     * @return this call
+     */
+    Call fail(Throwable cause) {
+      handler.bridge.log.log("Batch call " + id + " failed", cause);
+      return fail(500);
+    }
+
+    /**
+     * Report the call failure as a response without body.
+     *
+     * @param status the response status
+     * @return this call
+     */
+    private Call fail(int status) {
+      failed = true;
+      this.status = status;
+      mimeType = null;
+      headers.clear();
+      return this;
+    }
+
+    @Override
+    public Map<String, RequestParameter> getParameters() {
+      return parameters;
+    }
+
+    @Override
+    public String getRequestURI() {
+      return bridge.getRequestURI();
+    }
+
+    @Override
+    public String getPath() {
+      return bridge.getPath();
+    }
+
+    @Override
+    public String getRequestPath() {
+      return bridge.getRequestPath();
+    }
+
+    @Override
+    public void renderRequestURL(Appendable appendable) throws IOException {
+      bridge.renderRequestURL(appendable);
+    }
+
+    @Override
+    public void renderAssetURL(AssetLocation location, String uri, Appendable appendable) throws IOException {
+      bridge.renderAssetURL(location, uri, appendable);
+    }
+
+    @Override
+    public ScopedContext getRequestScope(boolean create) {
+      if (requestScope == null && create) {
+        requestScope = new ScopedContext(handler.bridge.log);
+      }
+      return requestScope;
+    }
+
+    @Override
+    public ScopedContext getFlashScope(boolean create) {
+      synchronized (bridge) {
+        return bridge.getFlashScope(create);
+      }
+    }
+
+    @Override
+    public ScopedContext getSessionScope(boolean create) {
+      synchronized (bridge) {
+        return bridge.getSessionScope(create);
+      }
+    }
+
+    @Override
+    public void purgeSession() {
+      synchronized (bridge) {
+        bridge.purgeSession();
+      }
+    }
+
+    @Override
+    protected void addCookie(Cookie cookie) {
+      synchronized (bridge) {
+        bridge.addCookie(cookie);
+      }
+    }
+
+    @Override
+    public String getRequestHeader(String name) {
+      return bridge.getRequestHeader(name);
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+      return bridge.getHttpContext();
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+      return bridge.getClientContext();
+    }
+
+    @Override
+    public UserContext getUserContext() {
+      return bridge.getUserContext();
+    }
+
+    @Override
+    public ApplicationContext getApplicationContext() {
+      return bridge.getApplicationContext();
+    }
+
+    @Override
+    public void setContentType(String mimeType, Charset charset) {
+      this.mimeType = mimeType;
+      this.charset = charset;
+    }
+
+    @Override
+    public void setStatus(int status) {
+      this.status = status;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+      headers.put(name, value);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+      status = 302;
+      headers.put("Location", location);
+    }
+
+    @Override
+    public Stream getStream(Charset charset) throws IOException {
+      streaming = true;
+      return new BinaryOutputStream(charset, buffer) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          }
+          finally {
+            done.countDown();
+          }
+        }
+      };
+    }
+  }
+
+  private static class BatchThreadFactory implements ThreadFactory {
+
+    /** . */
+    private final AtomicInteger count = new AtomicInteger();
+
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "juzu-batch-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.impl.bridge.spi.web;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * The HTTP support for the downloads served from a channel: byte ranges and conditional requests.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+class Downloads {
+
+  /** An unsatisfiable range. */
+  static final long[] UNSATISFIABLE = new long[0];
+
+  /**
+   * Parse a <code>Range</code> header, only a single byte range is supported.
+   *
+   * @param header the header value
+   * @param length the entity length
+   * @return the first and last positions of the range, {@link #UNSATISFIABLE} when the range cannot be satisfied
+   *         or null when the header should be ignored
+   */
+  static long[] parseRange(String header, long length) {
+    if (header == null || !header.startsWith("bytes=")) {
+      return null;
+    }
+    String spec = header.substring("bytes=".length()).trim();
+    if (spec.indexOf(',') != -1) {
+      return null;
+    }
+    int pos = spec.indexOf('-');
+    if (pos == -1) {
+      return null;
+    }
+    try {
+      String first = spec.substring(0, pos).trim();
+      String last = spec.substring(pos + 1).trim();
+      if (first.length() == 0) {
+        if (last.length() == 0) {
+          return null;
+        }
+        long suffix = Long.parseLong(last);
+        if (suffix <= 0 || length == 0) {
+          return UNSATISFIABLE;
+        }
+        return new long[]{Math.max(0, length - suffix), length - 1};
+      } else {
+        long from = Long.parseLong(first);
+        long to = last.length() == 0 ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+        if (from < 0 || to < from) {
+          return from >= length ? UNSATISFIABLE : null;
+        }
+        return new long[]{from, to};
+      }
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Create the entity tag of a file.
+   *
+   * @param length the file length
+   * @param lastModified the file last modification date
+   * @return the entity tag
+   */
+  static String etag(long length, long lastModified) {
+    return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+  }
+
+  /**
+   * Returns true when an entity tag matches a header value.
+   *
+   * @param etag the entity tag
+   * @param header the <code>If-None-Match</code> or <code>If-Range</code> header value
+   * @return true when it matches
+   */
+  static boolean matches(String etag, String header) {
+    if (header == null) {
+      return false;
+    }
+    for (String value : header.split(",")) {
+      value = value.trim();
+      if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true when a date header value is not older than a last modification date, the comparison is
+   * done with the second precision of HTTP dates.
+   *
+   * @param header the <code>If-Modified-Since</code> or <code>If-Range</code> header value
+   * @param lastModified the last modification date
+   * @return true when the date is not older
+   */
+  static boolean isNotModifiedSince(String header, long lastModified) {
+    long since = parseDate(header);
+    return since != -1 && lastModified / 1000 <= since / 1000;
+  }
+
+  static String formatDate(long date) {
+    return format().format(new Date(date));
+  }
+
+  static long parseDate(String date) {
+    if (date != null) {
+      try {
+        return format().parse(date.trim()).getTime();
+      }
+      catch (ParseException ignore) {
+      }
+    }
+    return -1;
+  }
+
+  private static SimpleDateFormat format() {
+    SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    return format;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.request.RequestParameter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A streaming decoder for <code>application/x-www-form-urlencoded</code> bodies, the parameters are decoded
+ * directly from the input stream with the specified charset. The decoder enforces a maximum number of parameters
+ * and a maximum body size, a negative limit means no limit. Malformed parameters are ignored.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class FormDecoder {
+
+  /** The default maximum number of parameters. */
+  public static final int DEFAULT_MAX_PARAMETERS = Integer.getInteger("juzu.form.max_parameters", 1000);
+
+  /** The default maximum body size in bytes. */
+  public static final long DEFAULT_MAX_SIZE = Long.getLong("juzu.form.max_size", 2 * 1024 * 1024);
+
+  /** . */
+  private final Charset charset;
+
+  /** . */
+  private final int maxParameters;
+
+  /** . */
+  private final long maxSize;
+
+  public FormDecoder(Charset charset) {
+    this(charset, DEFAULT_MAX_PARAMETERS, DEFAULT_MAX_SIZE);
+  }
+
+  public FormDecoder(Charset charset, int maxParameters, long maxSize) throws NullPointerException {
+    if (charset == null) {
+      throw new NullPointerException("No null charset accepted");
+    }
+    this.charset = charset;
+    this.maxParameters = maxParameters;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Decode the parameters of the input stream and append them to the specified parameters, when the
+   * specified map is empty a new map is used instead so it can be an immutable empty map.
+   *
+   * @param in the input stream
+   * @param parameters the existing parameters
+   * @return the parameters
+   * @throws IOException any io exception or when a limit is exceeded
+   */
+  public Map<String, RequestParameter> decode(InputStream in, Map<String, RequestParameter> parameters) throws IOException {
+    return new State(parameters).decode(in);
+  }
+
+  private class State {
+
+    /** . */
+    private Map<String, RequestParameter> parameters;
+
+    /** . */
+    private byte[] token = new byte[64];
+
+    /** . */
+    private int length = 0;
+
+    /** . */
+    private String name = null;
+
+    /** 0 : no escape, 1 : first hex digit, 2 : second hex digit. */
+    private int escape = 0;
+
+    /** . */
+    private int high;
+
+    /** . */
+    private boolean malformed = false;
+
+    /** . */
+    private int count = 0;
+
+    private State(Map<String, RequestParameter> parameters) {
+      this.parameters = parameters;
+    }
+
+    private Map<String, RequestParameter> decode(InputStream in) throws IOException {
+      byte[] buffer = new byte[4096];
+      long size = 0;
+      for (int len = in.read(buffer);len != -1;len = in.read(buffer)) {
+        size += len;
+        if (maxSize >= 0 && size > maxSize) {
+          throw new IOException("Form body exceeds the maximum size of " + maxSize + " bytes");
+        }
+        for (int i = 0;i < len;i++) {
+          append(buffer[i]);
+        }
+      }
+      end();
+      return parameters;
+    }
+
+    private void append(byte b) throws IOException {
+      if (escape > 0) {
+        int digit = Character.digit(b, 16);
+        if (digit == -1) {
+          malformed = true;
+          escape = 0;
+        } else if (escape == 1) {
+          high = digit;
+          escape = 2;
+          return;
+        } else {
+          write((high << 4) | digit);
+          escape = 0;
+          return;
+        }
+      }
+      switch (b) {
+        case '&':
+          end();
+          break;
+        case '=':
+          if (name == null) {
+            name = new String(token, 0, length, charset);
+            length = 0;
+          } else {
+            write(b);
+          }
+          break;
+        case '+':
+          write(' ');
+          break;
+        case '%':
+          escape = 1;
+          break;
+        default:
+          write(b);
+          break;
+      }
+    }
+
+    private void write(int b) {
+      if (length == token.length) {
+        byte[] tmp = new byte[token.length * 2];
+        System.arraycopy(token, 0, tmp, 0, length);
+        token = tmp;
+      }
+      token[length++] = (byte)b;
+    }
+
+    private void end() throws IOException {
+      if (escape > 0) {
+        malformed = true;
+      }
+      String value;
+      if (name == null) {
+        name = new String(token, 0, length, charset);
+        value = "";
+      } else {
+        value = new String(token, 0, length, charset);
+      }
+      if (!malformed && name.length() > 0) {
+        if (maxParameters >= 0 && ++count > maxParameters) {
+          throw new IOException("Form body exceeds the maximum of " + maxParameters + " parameters");
+        }
+        if (parameters.isEmpty()) {
+          parameters = new HashMap<String, RequestParameter>();
+        }
+        RequestParameter parameter = parameters.get(name);
+        if (parameter != null) {
+          parameter = parameter.append(new String[]{value});
+        } else {
+          parameter = RequestParameter.create(name, value);
+        }
+        parameter.appendTo(parameters);
+      }
+      name = null;
+      length = 0;
+      escape = 0;
+      malformed = false;
+    }
+  }
+}
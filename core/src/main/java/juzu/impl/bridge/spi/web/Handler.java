@@ -28,13 +28,16 @@ import juzu.impl.router.PathParam;
 import juzu.impl.router.Route;
 import juzu.impl.router.RouteMatch;
 import juzu.impl.router.Router;
+import juzu.io.AsyncStreamable;
 import juzu.request.Phase;
+import juzu.request.UserContext;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class Handler implements Closeable {
@@ -60,6 +63,15 @@ public class Handler implements Closeable {
   /** . */
   final HashMap<Route, Map<Phase, MethodHandle>> backwardRoutes;
 
+  /** . */
+  final ResponseCache cache;
+
+  /** The pool performing the parallel invocations of the batches, created when needed. */
+  private ExecutorService batchExecutor;
+
+  /** . */
+  private boolean closed;
+
   public Handler(Bridge bridge) throws Exception {
     this.bridge = bridge;
 
@@ -98,6 +110,22 @@ public class Handler implements Closeable {
     this.forwardRoutes = forwardRoutes;
     this.backwardRoutes = backwardRoutes;
     this.root = root;
+    this.cache = new ResponseCache();
+
+    //
+    AsyncStreamable.lease();
+  }
+
+  /**
+   * Returns the pool performing the parallel invocations of the batches handled by this handler.
+   *
+   * @return the pool or null when the handler is closed
+   */
+  synchronized ExecutorService getBatchExecutor() {
+    if (batchExecutor == null && !closed) {
+      batchExecutor = Batch.createExecutor();
+    }
+    return batchExecutor;
   }
 
   public Map<Phase, MethodHandle> getMethods(Route route) {
@@ -118,6 +146,12 @@ public class Handler implements Closeable {
 
   public void handle(WebBridge bridge) throws Throwable {
 
+    // A batch of resource method invocations
+    if (juzu.Method.POST == bridge.getHttpContext().getMethod() && bridge.getParameters().containsKey(Batch.PARAMETER)) {
+      new Batch(this, bridge).handle();
+      return;
+    }
+
     //
     String requestPath = bridge.getRequestPath();
 
@@ -194,10 +228,34 @@ public class Handler implements Closeable {
       WebRequestBridge requestBridge;
       if (requestMethod.getPhase() == Phase.ACTION) {
         requestBridge = new WebActionBridge(this.bridge, this, bridge, requestMethod, requestParameters);
-      } else if (requestMethod.getPhase() == Phase.VIEW) {
-        requestBridge = new WebRenderBridge(this.bridge, this, bridge, requestMethod, requestParameters);
-      } else if (requestMethod.getPhase() == Phase.RESOURCE) {
-        requestBridge = new WebResourceBridge(this.bridge, this, bridge, requestMethod, requestParameters);
+      } else if (requestMethod.getPhase() == Phase.VIEW || requestMethod.getPhase() == Phase.RESOURCE) {
+
+        // Serve a cached response when possible
+        ResponseCache.Region region = null;
+        String key = null;
+        if (juzu.Method.GET == bridge.getHttpContext().getMethod()) {
+          region = cache.getRegion(requestMethod);
+          if (region != null) {
+            UserContext userContext = bridge.getUserContext();
+            key = ResponseCache.key(requestMethod, requestParameters, userContext != null ? userContext.getLocale() : null);
+            ResponseCache.Entry cached = region.get(key);
+            if (cached != null) {
+              bridge.send(cached);
+              return;
+            }
+          }
+        }
+
+        //
+        WebMimeBridge mimeBridge;
+        if (requestMethod.getPhase() == Phase.VIEW) {
+          mimeBridge = new WebRenderBridge(this.bridge, this, bridge, requestMethod, requestParameters);
+        } else {
+          mimeBridge = new WebResourceBridge(this.bridge, this, bridge, requestMethod, requestParameters);
+        }
+        mimeBridge.cacheRegion = region;
+        mimeBridge.cacheKey = key;
+        requestBridge = mimeBridge;
       } else {
         throw new Exception("Cannot decode phase");
       }
@@ -215,5 +273,18 @@ public class Handler implements Closeable {
   }
 
   public void close() throws IOException {
+    ExecutorService executor;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      executor = batchExecutor;
+      batchExecutor = null;
+    }
+    if (executor != null) {
+      executor.shutdown();
+    }
+    AsyncStreamable.release();
   }
 }
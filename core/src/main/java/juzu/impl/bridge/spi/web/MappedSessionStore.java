@@ -0,0 +1,259 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.impl.common.Tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A session store keeping each state in a directory and each entry of a state in a file of this directory, so the
+ * state survives a restart of the virtual machine. An entry file is named after the digest of the entry name and
+ * contains the entry name followed by the entry bytes. An entry is written to a temporary file first and then
+ * renamed, so a concurrent load never observes a partially written entry. The last modification time of a state directory is its last access time, the expired and exceeding states
+ * are swept when states are created.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class MappedSessionStore extends SessionStore {
+
+  /** The number of created states between two sweeps of the expired states. */
+  private static final int SWEEP_INTERVAL = 256;
+
+  /** . */
+  private static final char[] ALPHABET = "0123456789abcdef".toCharArray();
+
+  /** . */
+  private static final Comparator<File> LAST_MODIFIED = new Comparator<File>() {
+    public int compare(File o1, File o2) {
+      long l1 = o1.lastModified();
+      long l2 = o2.lastModified();
+      return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+    }
+  };
+
+  /** . */
+  private final File dir;
+
+  /** The approximate number of states. */
+  private final AtomicInteger size = new AtomicInteger();
+
+  /** . */
+  private final AtomicInteger created = new AtomicInteger();
+
+  public MappedSessionStore(File dir) throws IllegalArgumentException {
+    this.dir = init(dir);
+  }
+
+  public MappedSessionStore(File dir, long ttl, int maxSize) throws IllegalArgumentException {
+    super(ttl, maxSize);
+
+    //
+    this.dir = init(dir);
+  }
+
+  private File init(File dir) throws IllegalArgumentException {
+    if (!dir.exists() && !dir.mkdirs()) {
+      throw new IllegalArgumentException("Could not create session store directory " + dir.getAbsolutePath());
+    }
+    if (!dir.isDirectory()) {
+      throw new IllegalArgumentException("Session store " + dir.getAbsolutePath() + " is not a directory");
+    }
+    size.set(list(dir).length);
+    return dir;
+  }
+
+  @Override
+  public boolean contains(String key) {
+    File state = new File(dir, key);
+    return state.isDirectory() && !isExpired(state.lastModified(), System.currentTimeMillis());
+  }
+
+  @Override
+  public Map<String, byte[]> load(String key) throws IOException {
+    File state = new File(dir, key);
+    long now = System.currentTimeMillis();
+    if (!state.isDirectory()) {
+      return null;
+    }
+    if (isExpired(state.lastModified(), now)) {
+      delete(state);
+      return null;
+    }
+    state.setLastModified(now);
+    HashMap<String, byte[]> entries = new HashMap<String, byte[]>();
+    for (File file : list(state)) {
+      String name = file.getName();
+      if (name.indexOf('.') == -1) {
+        read(file, entries);
+      }
+    }
+    return entries;
+  }
+
+  @Override
+  public void save(String key, String name, byte[] entry) throws IOException {
+    File state = new File(dir, key);
+    if (state.mkdir()) {
+      size.incrementAndGet();
+      if (size.get() > maxSize || created.incrementAndGet() % SWEEP_INTERVAL == 0) {
+        sweep(state);
+      }
+    }
+    File tmp = File.createTempFile("entry", ".tmp", state);
+    DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp));
+    try {
+      byte[] bytes = name.getBytes(Tools.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+      out.write(entry);
+    }
+    finally {
+      out.close();
+    }
+    File file = new File(state, encode(name));
+    if (!tmp.renameTo(file)) {
+      // Some platforms do not rename over an existing file
+      file.delete();
+      if (!tmp.renameTo(file)) {
+        tmp.delete();
+        throw new IOException("Could not save session entry " + key + " " + name);
+      }
+    }
+    state.setLastModified(System.currentTimeMillis());
+  }
+
+  @Override
+  public void remove(String key, String name) {
+    new File(new File(dir, key), encode(name)).delete();
+  }
+
+  @Override
+  public void remove(String key) {
+    delete(new File(dir, key));
+  }
+
+  /**
+   * Delete the expired states and then the least recently accessed states exceeding the maximum size.
+   *
+   * @param current the state being created that is never deleted
+   */
+  private synchronized void sweep(File current) {
+    long now = System.currentTimeMillis();
+    ArrayList<File> states = new ArrayList<File>();
+    for (File state : list(dir)) {
+      if (!state.equals(current)) {
+        if (isExpired(state.lastModified(), now)) {
+          delete(state);
+        } else {
+          states.add(state);
+        }
+      }
+    }
+    File[] sorted = states.toArray(new File[states.size()]);
+    Arrays.sort(sorted, LAST_MODIFIED);
+    int count = sorted.length + 1;
+    for (int i = 0;i < sorted.length && count > maxSize;i++) {
+      delete(sorted[i]);
+      count--;
+    }
+    size.set(count);
+  }
+
+  private void delete(File state) {
+    for (File file : list(state)) {
+      file.delete();
+    }
+    if (state.delete()) {
+      size.decrementAndGet();
+    }
+  }
+
+  private static File[] list(File dir) {
+    File[] files = dir.listFiles();
+    return files != null ? files : new File[0];
+  }
+
+  /**
+   * Read an entry file and put the entry in the entries map.
+   *
+   * @param file the entry file
+   * @param entries the entries
+   * @throws IOException any io exception
+   */
+  private static void read(File file, Map<String, byte[]> entries) throws IOException {
+    DataInputStream in;
+    try {
+      in = new DataInputStream(new FileInputStream(file));
+    }
+    catch (FileNotFoundException e) {
+      // The entry was removed
+      return;
+    }
+    try {
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      String name = new String(bytes, Tools.UTF_8);
+      entries.put(name, Tools.copy(in, new ByteArrayOutputStream()).toByteArray());
+    }
+    catch (EOFException e) {
+      // Not an entry file
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Encode an entry name as the hexadecimal SHA-1 digest of the name, so any name is a valid file name of a fixed
+   * length on any platform.
+   *
+   * @param name the entry name
+   * @return the file name
+   */
+  private static String encode(String name) {
+    byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1").digest(name.getBytes(Tools.UTF_8));
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(e);
+    }
+    char[] chars = new char[digest.length * 2];
+    for (int i = 0;i < digest.length;i++) {
+      chars[i * 2] = ALPHABET[(digest[i] >> 4) & 0xF];
+      chars[i * 2 + 1] = ALPHABET[digest[i] & 0xF];
+    }
+    return new String(chars);
+  }
+}
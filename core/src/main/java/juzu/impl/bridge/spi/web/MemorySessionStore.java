@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A session store keeping the state on the heap, mostly useful for testing. The states are kept in access order,
+ * so the expired states and the states exceeding the maximum size are evicted from the least recently accessed.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class MemorySessionStore extends SessionStore {
+
+  /** . */
+  private final LinkedHashMap<String, State> states = new LinkedHashMap<String, State>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, State> eldest) {
+      return size() > maxSize;
+    }
+  };
+
+  public MemorySessionStore() {
+  }
+
+  public MemorySessionStore(long ttl, int maxSize) throws IllegalArgumentException {
+    super(ttl, maxSize);
+  }
+
+  /**
+   * Wrap an entry before it is stored.
+   *
+   * @param entry the entry
+   * @return the stored value
+   */
+  protected Object wrap(byte[] entry) {
+    return entry.clone();
+  }
+
+  /**
+   * Unwrap a stored value.
+   *
+   * @param value the stored value
+   * @return the entry
+   */
+  protected byte[] unwrap(Object value) {
+    return ((byte[])value).clone();
+  }
+
+  @Override
+  public boolean contains(String key) {
+    synchronized (states) {
+      State state = states.get(key);
+      return state != null && !isExpired(state.lastAccess, System.currentTimeMillis());
+    }
+  }
+
+  @Override
+  public Map<String, byte[]> load(String key) {
+    State state = get(key, false);
+    if (state != null) {
+      HashMap<String, byte[]> entries = new HashMap<String, byte[]>();
+      for (Map.Entry<String, Object> entry : state.entries.entrySet()) {
+        entries.put(entry.getKey(), unwrap(entry.getValue()));
+      }
+      return entries;
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public void save(String key, String name, byte[] entry) {
+    get(key, true).entries.put(name, wrap(entry));
+  }
+
+  @Override
+  public void remove(String key, String name) {
+    State state = get(key, false);
+    if (state != null) {
+      state.entries.remove(name);
+    }
+  }
+
+  @Override
+  public void remove(String key) {
+    synchronized (states) {
+      states.remove(key);
+    }
+  }
+
+  /**
+   * Returns the number of states of this store.
+   *
+   * @return the number of states
+   */
+  public int size() {
+    synchronized (states) {
+      return states.size();
+    }
+  }
+
+  private State get(String key, boolean create) {
+    long now = System.currentTimeMillis();
+    synchronized (states) {
+      State state = states.get(key);
+      if (state != null && isExpired(state.lastAccess, now)) {
+        states.remove(key);
+        state = null;
+      }
+      if (state == null && create) {
+        // The least recently accessed states come first
+        for (Iterator<State> i = states.values().iterator();i.hasNext();) {
+          if (isExpired(i.next().lastAccess, now)) {
+            i.remove();
+          } else {
+            break;
+          }
+        }
+        state = new State();
+        states.put(key, state);
+      }
+      if (state != null) {
+        state.lastAccess = now;
+      }
+      return state;
+    }
+  }
+
+  private static class State {
+
+    /** . */
+    private final ConcurrentHashMap<String, Object> entries = new ConcurrentHashMap<String, Object>();
+
+    /** Guarded by the states lock. */
+    private long lastAccess;
+
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A session store keeping the state in direct buffers, the state does not weight on the garbage collector.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class OffHeapSessionStore extends MemorySessionStore {
+
+  public OffHeapSessionStore() {
+  }
+
+  public OffHeapSessionStore(long ttl, int maxSize) throws IllegalArgumentException {
+    super(ttl, maxSize);
+  }
+
+  @Override
+  protected Object wrap(byte[] entry) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(entry.length);
+    buffer.put(entry);
+    buffer.flip();
+    return buffer;
+  }
+
+  @Override
+  protected byte[] unwrap(Object value) {
+    // Buffers are never modified once stored, a duplicate provides an independent position
+    ByteBuffer buffer = ((ByteBuffer)value).duplicate();
+    byte[] entry = new byte[buffer.remaining()];
+    buffer.get(entry);
+    return entry;
+  }
+}
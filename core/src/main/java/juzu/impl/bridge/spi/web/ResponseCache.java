@@ -0,0 +1,350 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.Cached;
+import juzu.impl.request.Method;
+import juzu.io.BinaryOutputStream;
+import juzu.io.Stream;
+import juzu.request.RequestParameter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cache of the responses of the controller methods annotated by {@link Cached}, the cache has the same life
+ * time than the handler and is discarded when the application is refreshed.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+class ResponseCache {
+
+  /** . */
+  private static final Region NO_REGION = new Region(0, 0);
+
+  /** . */
+  private static final char[] ALPHABET = "0123456789abcdef".toCharArray();
+
+  /** . */
+  private final ConcurrentHashMap<Method<?>, Region> regions = new ConcurrentHashMap<Method<?>, Region>();
+
+  /**
+   * Returns the region of a method.
+   *
+   * @param method the method
+   * @return the region or null when the method is not cached
+   */
+  Region getRegion(Method<?> method) {
+    Region region = regions.get(method);
+    if (region == null) {
+      Cached cached = method.getMethod().getAnnotation(Cached.class);
+      region = cached != null ? new Region(cached.unit().toMillis(cached.ttl()), cached.size()) : NO_REGION;
+      Region phantom = regions.putIfAbsent(method, region);
+      if (phantom != null) {
+        region = phantom;
+      }
+    }
+    return region != NO_REGION ? region : null;
+  }
+
+  /**
+   * Create the key of a response.
+   *
+   * @param method the method
+   * @param parameters the request parameters
+   * @param locale the locale
+   * @return the key
+   */
+  static String key(Method<?> method, Map<String, RequestParameter> parameters, Locale locale) {
+    StringBuilder key = new StringBuilder(method.getHandle().toString());
+    for (RequestParameter parameter : new TreeMap<String, RequestParameter>(parameters).values()) {
+      key.append('\u0000').append(parameter.getName());
+      for (String value : parameter) {
+        key.append('\u0001').append(value);
+      }
+    }
+    if (locale != null) {
+      key.append('\u0000').append(locale);
+    }
+    return key.toString();
+  }
+
+  static class Region {
+
+    /** . */
+    private final long ttl;
+
+    /** . */
+    private final LinkedHashMap<String, Entry> entries;
+
+    Region(long ttl, final int size) {
+      this.ttl = ttl;
+      this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+          return size() > size;
+        }
+      };
+    }
+
+    synchronized Entry get(String key) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.expiration < System.currentTimeMillis()) {
+        entries.remove(key);
+        entry = null;
+      }
+      return entry;
+    }
+
+    synchronized void put(String key, Entry entry) {
+      entries.put(key, entry);
+    }
+
+    /**
+     * Record the response sent to a stream, the response is cached when the streamable was sent and the stream
+     * is closed without any failure.
+     *
+     * @param key the response key
+     * @param bridge the bridge sending the response
+     * @param stream the stream
+     * @param mimeType the response mime type
+     * @param charset the response charset
+     * @param headers the response headers
+     * @return the recording stream
+     */
+    Recording record(String key, WebBridge bridge, Stream stream, String mimeType, Charset charset, List<String[]> headers) {
+      return new Recording(this, key, bridge, stream, mimeType, charset, headers);
+    }
+  }
+
+  /**
+   * A stream recording the response sent to another stream. The response is buffered until the recording is
+   * closed, then its entity tag is set and the body is sent, so the first response carries the same entity tag
+   * than the cached responses. Streamables close their stream in a finally block, so the recording is cached only
+   * when the streamable was sent without failure, when the close of the stream fails, or when the streamable send
+   * fails, the recording is discarded.
+   */
+  static class Recording implements Stream {
+
+    /** . */
+    private final Region region;
+
+    /** . */
+    private final String key;
+
+    /** . */
+    private final WebBridge bridge;
+
+    /** . */
+    private final Stream stream;
+
+    /** . */
+    private final String mimeType;
+
+    /** . */
+    private final Charset charset;
+
+    /** . */
+    private final List<String[]> headers;
+
+    /** . */
+    private final ByteArrayOutputStream buffer;
+
+    /** . */
+    private final BinaryOutputStream copy;
+
+    /** . */
+    private Entry entry;
+
+    /** . */
+    private boolean sent;
+
+    /** . */
+    private boolean closed;
+
+    /** . */
+    private boolean failed;
+
+    private Recording(Region region, String key, WebBridge bridge, Stream stream, String mimeType, Charset charset, List<String[]> headers) {
+      this.region = region;
+      this.key = key;
+      this.bridge = bridge;
+      this.stream = stream;
+      this.mimeType = mimeType;
+      this.charset = charset;
+      this.headers = headers;
+      this.buffer = new ByteArrayOutputStream();
+      this.copy = new BinaryOutputStream(charset, buffer);
+    }
+
+    /**
+     * Signal the streamable was sent.
+     */
+    synchronized void sent() {
+      sent = true;
+      complete();
+    }
+
+    /**
+     * Signal a failure, the recording will not be cached.
+     */
+    synchronized void fail() {
+      failed = true;
+    }
+
+    private synchronized void closed(boolean succeeded) {
+      if (succeeded) {
+        complete();
+      } else {
+        failed = true;
+      }
+    }
+
+    private void complete() {
+      if (sent && entry != null && !failed) {
+        region.put(key, entry);
+      }
+    }
+
+    public Stream append(CharBuffer b) throws IOException {
+      copy.append(b);
+      return this;
+    }
+
+    public Stream append(CharSequence csq) throws IOException {
+      copy.append(csq);
+      return this;
+    }
+
+    public Stream append(CharSequence csq, int start, int end) throws IOException {
+      copy.append(csq, start, end);
+      return this;
+    }
+
+    public Stream append(ByteBuffer b) throws IOException {
+      copy.append(b);
+      return this;
+    }
+
+    public Stream append(char c) throws IOException {
+      copy.append(c);
+      return this;
+    }
+
+    public Stream append(byte[] data) throws IOException {
+      copy.append(data);
+      return this;
+    }
+
+    public Stream append(byte[] data, int off, int len) throws IOException {
+      copy.append(data, off, len);
+      return this;
+    }
+
+    public void flush() throws IOException {
+      // The response is sent when it is complete
+    }
+
+    public void close() throws IOException {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+      }
+      boolean succeeded = false;
+      try {
+        try {
+          copy.close();
+          Entry entry = new Entry(mimeType, charset, headers, buffer.toByteArray(), System.currentTimeMillis() + region.ttl);
+          bridge.setHeader("ETag", entry.etag);
+          stream.append(entry.body);
+          synchronized (this) {
+            this.entry = entry;
+          }
+        }
+        finally {
+          stream.close();
+        }
+        succeeded = true;
+      }
+      finally {
+        closed(succeeded);
+      }
+    }
+  }
+
+  static class Entry {
+
+    /** . */
+    final String mimeType;
+
+    /** . */
+    final Charset charset;
+
+    /** . */
+    final List<String[]> headers;
+
+    /** . */
+    final byte[] body;
+
+    /** . */
+    final String etag;
+
+    /** . */
+    final long expiration;
+
+    Entry(String mimeType, Charset charset, List<String[]> headers, byte[] body, long expiration) {
+      byte[] digest;
+      try {
+        digest = MessageDigest.getInstance("MD5").digest(body);
+      }
+      catch (NoSuchAlgorithmException e) {
+        throw new AssertionError(e);
+      }
+      char[] etag = new char[digest.length * 2 + 2];
+      etag[0] = etag[etag.length - 1] = '"';
+      for (int i = 0;i < digest.length;i++) {
+        etag[1 + i * 2] = ALPHABET[(digest[i] >> 4) & 0xF];
+        etag[2 + i * 2] = ALPHABET[digest[i] & 0xF];
+      }
+
+      //
+      this.mimeType = mimeType;
+      this.charset = charset;
+      this.headers = headers;
+      this.body = body;
+      this.etag = new String(etag);
+      this.expiration = expiration;
+    }
+
+    boolean matches(String ifNoneMatch) {
+      return ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag));
+    }
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.impl.inject.Scoped;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A store for the serialized state of the session and flash scopes kept outside of the servlet container
+ * session, the state is keyed by an opaque session id carried by the {@link #COOKIE_NAME} cookie. Stores are
+ * shared by the bridges of the same virtual machine, so several bridges configured with the same store
+ * specification use the same state.
+ *
+ * <p>A state is a set of named entries that are saved and removed individually, so concurrent requests modifying
+ * distinct entries of the same state do not overwrite each other. A state expires when it has not been accessed
+ * during the {@link #TTL} idle time and a store keeps at most {@link #MAX_SIZE} states, the least recently
+ * accessed states are evicted first.</p>
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public abstract class SessionStore {
+
+  /** The name of the cookie carrying the session id. */
+  public static final String COOKIE_NAME = "JUZUSESSIONID";
+
+  /** The system property configuring the idle time to live of a state in seconds, defaults to 30 minutes. */
+  public static final String TTL = "juzu.session_store.ttl";
+
+  /** The system property configuring the maximum number of states of a store, defaults to 10000. */
+  public static final String MAX_SIZE = "juzu.session_store.max_size";
+
+  /** . */
+  private static final ConcurrentHashMap<String, SessionStore> stores = new ConcurrentHashMap<String, SessionStore>();
+
+  /** . */
+  private static final SecureRandom random = new SecureRandom();
+
+  /** . */
+  private static final char[] ALPHABET = "0123456789abcdef".toCharArray();
+
+  /** The idle time to live of a state in milliseconds. */
+  protected final long ttl;
+
+  /** The maximum number of states. */
+  protected final int maxSize;
+
+  /** The values that cannot be serialized held on the heap by state key, in access order. */
+  private final LinkedHashMap<String, Map<String, Scoped>> held = new LinkedHashMap<String, Map<String, Scoped>>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Map<String, Scoped>> eldest) {
+      return size() > maxSize;
+    }
+  };
+
+  protected SessionStore() {
+    this(Integer.getInteger(TTL, 1800) * 1000L, Integer.getInteger(MAX_SIZE, 10000));
+  }
+
+  protected SessionStore(long ttl, int maxSize) throws IllegalArgumentException {
+    if (ttl <= 0) {
+      throw new IllegalArgumentException("Invalid session store ttl " + ttl);
+    }
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Invalid session store max size " + maxSize);
+    }
+    this.ttl = ttl;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the store for the specified specification, the specification is one of:
+   * <ul>
+   *   <li><code>memory</code>: the state is kept on the heap</li>
+   *   <li><code>offheap</code>: the state is kept in direct buffers outside of the heap</li>
+   *   <li><code>file:</code><i>dir</i>: the state is kept in the files of the <i>dir</i> directory</li>
+   * </ul>
+   *
+   * @param spec the store specification
+   * @return the store
+   * @throws NullPointerException if the specification is null
+   * @throws IllegalArgumentException if the specification is not valid
+   */
+  public static SessionStore get(String spec) throws NullPointerException, IllegalArgumentException {
+    if (spec == null) {
+      throw new NullPointerException("No null store specification accepted");
+    }
+    spec = spec.trim();
+    SessionStore store = stores.get(spec);
+    if (store == null) {
+      if ("memory".equals(spec)) {
+        store = new MemorySessionStore();
+      } else if ("offheap".equals(spec)) {
+        store = new OffHeapSessionStore();
+      } else if (spec.startsWith("file:") && spec.length() > 5) {
+        store = new MappedSessionStore(new File(spec.substring(5)));
+      } else {
+        throw new IllegalArgumentException("Unrecognized session store " + spec);
+      }
+      SessionStore previous = stores.putIfAbsent(spec, store);
+      if (previous != null) {
+        store = previous;
+      }
+    }
+    return store;
+  }
+
+  /**
+   * Create a new random session id.
+   *
+   * @return the session id
+   */
+  public static String createId() {
+    byte[] bytes = new byte[16];
+    random.nextBytes(bytes);
+    char[] id = new char[32];
+    for (int i = 0;i < bytes.length;i++) {
+      id[i * 2] = ALPHABET[(bytes[i] >> 4) & 0xF];
+      id[i * 2 + 1] = ALPHABET[bytes[i] & 0xF];
+    }
+    return new String(id);
+  }
+
+  /**
+   * Returns true if the id is a valid session id, the id of a request cookie must be validated before
+   * it is used as a store key.
+   *
+   * @param id the id
+   * @return true if the id is valid
+   */
+  public static boolean isValidId(String id) {
+    if (id == null || id.length() != 32) {
+      return false;
+    }
+    for (int i = 0;i < id.length();i++) {
+      char c = id.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if a state last accessed at the specified time is expired.
+   *
+   * @param lastAccess the last access time
+   * @param now the current time
+   * @return true if the state is expired
+   */
+  protected final boolean isExpired(long lastAccess, long now) {
+    return now - lastAccess > ttl;
+  }
+
+  /**
+   * Returns a value that cannot be serialized held on the heap for an entry of a state.
+   *
+   * @param key the state key
+   * @param name the entry name
+   * @return the held value or null
+   */
+  final Scoped getHeld(String key, String name) {
+    synchronized (held) {
+      Map<String, Scoped> values = held.get(key);
+      return values != null ? values.get(name) : null;
+    }
+  }
+
+  /**
+   * Hold on the heap a value that cannot be serialized for an entry of a state, a null value releases the entry.
+   *
+   * @param key the state key
+   * @param name the entry name
+   * @param value the value
+   */
+  final void hold(String key, String name, Scoped value) {
+    synchronized (held) {
+      Map<String, Scoped> values = held.get(key);
+      if (value != null) {
+        if (values == null) {
+          held.put(key, values = new HashMap<String, Scoped>());
+        }
+        values.put(name, value);
+      } else if (values != null) {
+        values.remove(name);
+        if (values.isEmpty()) {
+          held.remove(key);
+        }
+      }
+    }
+  }
+
+  /**
+   * Release the values held on the heap for a state.
+   *
+   * @param key the state key
+   */
+  final void release(String key) {
+    synchronized (held) {
+      held.remove(key);
+    }
+  }
+
+  /**
+   * Returns true if the store holds a state that is not expired, the last access time of the state is not updated.
+   *
+   * @param key the state key
+   * @return true if the state exists
+   */
+  public abstract boolean contains(String key);
+
+  /**
+   * Load the entries of a state and update its last access time.
+   *
+   * @param key the state key
+   * @return the entries or null if the state does not exist or is expired
+   * @throws IOException any io exception
+   */
+  public abstract Map<String, byte[]> load(String key) throws IOException;
+
+  /**
+   * Save an entry of a state, replacing any existing entry with the same name, the state is created when it
+   * does not exist.
+   *
+   * @param key the state key
+   * @param name the entry name
+   * @param entry the entry
+   * @throws IOException any io exception
+   */
+  public abstract void save(String key, String name, byte[] entry) throws IOException;
+
+  /**
+   * Remove an entry of a state.
+   *
+   * @param key the state key
+   * @param name the entry name
+   * @throws IOException any io exception
+   */
+  public abstract void remove(String key, String name) throws IOException;
+
+  /**
+   * Remove a state.
+   *
+   * @param key the state key
+   * @throws IOException any io exception
+   */
+  public abstract void remove(String key) throws IOException;
+
+}
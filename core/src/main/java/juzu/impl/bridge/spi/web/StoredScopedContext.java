@@ -0,0 +1,249 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.impl.common.Logger;
+import juzu.impl.inject.Scoped;
+import juzu.impl.inject.ScopedContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A scoped context whose entries are kept in a {@link SessionStore}. The state is loaded when the context is
+ * created and each entry is deserialized the first time it is accessed. The {@link #flush()} method saves back
+ * to the store only the entries set during the request and the accessed entries whose serialized form changed,
+ * each entry is saved individually so concurrent requests modifying distinct entries of the same state do not
+ * overwrite each other.
+ *
+ * <p>A value that cannot be serialized, for instance a CDI or Spring bean, is held on the heap by the store and
+ * an empty entry is saved in its place. Such a value is not shared with the other virtual machines using the same
+ * store and does not survive a restart.</p>
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class StoredScopedContext extends ScopedContext {
+
+  /** The entry saved for a value held on the heap, a serialized value is never empty. */
+  private static final byte[] HELD = new byte[0];
+
+  /** . */
+  private final SessionStore store;
+
+  /** . */
+  private final String key;
+
+  /** The serialized entries not yet accessed. */
+  private final HashMap<String, byte[]> serialized;
+
+  /** The serialized form of the accessed entries, guarded by the serialized lock. */
+  private final HashMap<String, byte[]> loaded;
+
+  /** The names of the entries set since the last flush, guarded by the serialized lock. */
+  private final HashSet<String> dirty;
+
+  public StoredScopedContext(Logger log, SessionStore store, String key) {
+    super(log);
+
+    //
+    Map<String, byte[]> state = null;
+    try {
+      state = store.load(key);
+    }
+    catch (IOException e) {
+      log.log("Could not load session state " + key, e);
+    }
+
+    //
+    this.store = store;
+    this.key = key;
+    this.serialized = state != null ? new HashMap<String, byte[]>(state) : new HashMap<String, byte[]>();
+    this.loaded = new HashMap<String, byte[]>();
+    this.dirty = new HashSet<String>();
+  }
+
+  @Override
+  public Scoped get(Object key) throws NullPointerException {
+    Scoped scoped = super.get(key);
+    if (scoped == null) {
+      String name = key.toString();
+      byte[] bytes;
+      synchronized (serialized) {
+        bytes = serialized.remove(name);
+      }
+      if (bytes != null) {
+        if (bytes.length == 0) {
+          scoped = store.getHeld(this.key, name);
+          if (scoped != null) {
+            super.set(key, scoped);
+          }
+        } else {
+          try {
+            scoped = (Scoped)deserialize(bytes);
+            super.set(key, scoped);
+          }
+          catch (Exception e) {
+            log.log("Could not load session entry " + key + ", it will be removed", e);
+          }
+        }
+        synchronized (serialized) {
+          if (scoped != null) {
+            if (bytes.length > 0) {
+              loaded.put(name, bytes);
+            }
+          } else {
+            // The entry is removed at the next flush
+            dirty.add(name);
+          }
+        }
+      }
+    }
+    return scoped;
+  }
+
+  @Override
+  public void set(Object key, Scoped scoped) throws NullPointerException {
+    super.set(key, scoped);
+    String name = key.toString();
+    synchronized (serialized) {
+      serialized.remove(name);
+      loaded.remove(name);
+      dirty.add(name);
+    }
+  }
+
+  @Override
+  public int size() {
+    synchronized (serialized) {
+      return super.size() + serialized.size();
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (serialized) {
+      serialized.clear();
+      loaded.clear();
+      dirty.clear();
+    }
+    super.close();
+    store.release(key);
+    try {
+      store.remove(key);
+    }
+    catch (IOException e) {
+      log.log("Could not remove session state " + key, e);
+    }
+  }
+
+  /**
+   * Save in the store the entries set since the last flush and the accessed entries whose serialized form
+   * changed, the entries that were removed are removed from the store.
+   */
+  public void flush() {
+    HashSet<String> names;
+    HashMap<String, byte[]> previous;
+    synchronized (serialized) {
+      if (dirty.isEmpty() && loaded.isEmpty()) {
+        return;
+      }
+      names = new HashSet<String>(dirty);
+      previous = new HashMap<String, byte[]>(loaded);
+      dirty.clear();
+    }
+    for (Iterator<Map.Entry<Object, Scoped>> i = entries();i.hasNext();) {
+      Map.Entry<Object, Scoped> entry = i.next();
+      String name = entry.getKey().toString();
+      boolean set = names.remove(name);
+      byte[] bytes = previous.get(name);
+      if (set || bytes != null) {
+        byte[] value;
+        try {
+          value = serialize(entry.getValue());
+        }
+        catch (NotSerializableException e) {
+          value = HELD;
+        }
+        catch (IOException e) {
+          log.log("Could not save session entry " + name, e);
+          continue;
+        }
+        if (set || !Arrays.equals(bytes, value)) {
+          store.hold(key, name, value == HELD ? entry.getValue() : null);
+          try {
+            store.save(key, name, value);
+          }
+          catch (IOException e) {
+            log.log("Could not save session entry " + name, e);
+          }
+          synchronized (serialized) {
+            if (value != HELD) {
+              loaded.put(name, value);
+            } else {
+              loaded.remove(name);
+            }
+          }
+        }
+      }
+    }
+    for (String name : names) {
+      store.hold(key, name, null);
+      try {
+        store.remove(key, name);
+      }
+      catch (IOException e) {
+        log.log("Could not remove session entry " + name, e);
+      }
+    }
+  }
+
+  private static byte[] serialize(Object o) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(buffer);
+    out.writeObject(o);
+    out.close();
+    return buffer.toByteArray();
+  }
+
+  private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+      @Override
+      protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader != null) {
+          try {
+            return Class.forName(desc.getName(), false, loader);
+          }
+          catch (ClassNotFoundException ignore) {
+          }
+        }
+        return super.resolveClass(desc);
+      }
+    };
+    return in.readObject();
+  }
+}
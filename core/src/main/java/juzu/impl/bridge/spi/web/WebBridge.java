@@ -22,24 +22,39 @@ import juzu.Response;
 import juzu.asset.AssetLocation;
 import juzu.impl.bridge.ViewStreamable;
 import juzu.impl.common.Formatting;
+import juzu.impl.common.Logger;
 import juzu.impl.common.Tools;
 import juzu.impl.inject.ScopedContext;
 import juzu.request.ApplicationContext;
 import juzu.request.RequestParameter;
 import juzu.io.Stream;
+import juzu.io.Streamable;
 import juzu.request.ClientContext;
 import juzu.request.HttpContext;
 import juzu.request.UserContext;
 
+import javax.servlet.http.Cookie;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public abstract class WebBridge {
 
+  /** . */
+  private String storedId;
+
+  /** . */
+  private StoredScopedContext storedFlashScope;
+
+  /** . */
+  private StoredScopedContext storedSessionScope;
+
   public final void send(Response.Error error, boolean verbose) throws IOException {
     if (verbose) {
       StringWriter buffer = new StringWriter();
@@ -62,6 +77,24 @@ public abstract class WebBridge {
   }
 
   public final void send(Response.Status response) throws IOException {
+    send(response, null, null);
+  }
+
+  /**
+   * Send a response and record it in a cache region when the region is not null.
+   *
+   * @param response the response
+   * @param region the cache region
+   * @param key the response key in the region
+   * @throws IOException any io exception
+   */
+  final void send(Response.Status response, ResponseCache.Region region, String key) throws IOException {
+
+    // Channel bodies are served as downloads and are never cached
+    if (response instanceof Response.Body && ((Response.Body)response).getStreamable() instanceof Streamable.Channel) {
+      send((Response.Body)response, (Streamable.Channel)((Response.Body)response).getStreamable());
+      return;
+    }
 
     //
     PropertyMap properties = response.getProperties();
@@ -86,15 +119,20 @@ public abstract class WebBridge {
       setContentType(body.getMimeType(), charset);
 
       // Send headers
+      List<String[]> sent = region != null ? new ArrayList<String[]>() : null;
       Iterable<Map.Entry<String, String[]>> headers = properties.getValues(PropertyType.HEADER);
       if (headers != null) {
         for (Map.Entry<String, String[]> entry : headers) {
           setHeader(entry.getKey(), entry.getValue()[0]);
+          if (sent != null) {
+            sent.add(new String[]{entry.getKey(), entry.getValue()[0]});
+          }
         }
       }
 
       //
       Stream stream = getStream(charset);
+      ResponseCache.Recording recording = region != null ? region.record(key, this, stream, body.getMimeType(), charset, sent) : null;
 
       // Send response
       ViewStreamable vs = new ViewStreamable(body) {
@@ -103,10 +141,19 @@ public abstract class WebBridge {
           WebBridge.this.renderAssetURL(location, uri, appendable);
         }
       };
+      boolean succeeded = false;
       try {
-        vs.send(stream);
+        vs.send(recording != null ? recording : stream);
+        succeeded = true;
       }
       finally {
+        if (recording != null) {
+          if (succeeded) {
+            recording.sent();
+          } else {
+            recording.fail();
+          }
+        }
         end(stream);
       }
     } else {
@@ -126,6 +173,149 @@ public abstract class WebBridge {
     }
   }
 
+  /**
+   * Send a channel body, the response honours the conditional requests and a single byte range request
+   * when the body status is 200.
+   *
+   * @param body the body
+   * @param channel the channel
+   * @throws IOException any io exception
+   */
+  private void send(Response.Body body, Streamable.Channel channel) throws IOException {
+
+    // A missing file is known before the headers are sent
+    File file = channel.getFile();
+    if (file != null && !file.isFile()) {
+      try {
+        setStatus(404);
+      }
+      finally {
+        Tools.safeClose(channel);
+        end();
+      }
+      return;
+    }
+
+    //
+    long length = channel.getLength();
+    long lastModified = channel.getLastModified();
+    String etag = lastModified > 0 ? Downloads.etag(length, lastModified) : null;
+
+    //
+    Charset charset = body.getCharset();
+    String mimeType = body.getMimeType();
+    if (charset != null) {
+      setContentType(mimeType, charset);
+    } else if (mimeType != null) {
+      setHeader("Content-Type", mimeType);
+    }
+    Iterable<Map.Entry<String, String[]>> headers = body.getProperties().getValues(PropertyType.HEADER);
+    if (headers != null) {
+      for (Map.Entry<String, String[]> entry : headers) {
+        setHeader(entry.getKey(), entry.getValue()[0]);
+      }
+    }
+    setHeader("Accept-Ranges", "bytes");
+    if (etag != null) {
+      setHeader("ETag", etag);
+      setHeader("Last-Modified", Downloads.formatDate(lastModified));
+    }
+
+    //
+    int status = body.getCode();
+    long position = 0;
+    long count = length;
+    if (status == 200 && etag != null) {
+      String ifNoneMatch = getRequestHeader("If-None-Match");
+      boolean notModified = ifNoneMatch != null ?
+          Downloads.matches(etag, ifNoneMatch) :
+          Downloads.isNotModifiedSince(getRequestHeader("If-Modified-Since"), lastModified);
+      if (notModified) {
+        try {
+          setStatus(304);
+        }
+        finally {
+          Tools.safeClose(channel);
+          end();
+        }
+        return;
+      }
+    }
+    if (status == 200) {
+      long[] range = Downloads.parseRange(getRequestHeader("Range"), length);
+      String ifRange = getRequestHeader("If-Range");
+      if (range != null && ifRange != null) {
+        boolean valid = etag != null && (ifRange.startsWith("\"") ?
+            Downloads.matches(etag, ifRange) :
+            Downloads.isNotModifiedSince(ifRange, lastModified));
+        if (!valid) {
+          range = null;
+        }
+      }
+      if (range == Downloads.UNSATISFIABLE) {
+        try {
+          setStatus(416);
+          setHeader("Content-Range", "bytes */" + length);
+        }
+        finally {
+          Tools.safeClose(channel);
+          end();
+        }
+        return;
+      } else if (range != null) {
+        status = 206;
+        position = range[0];
+        count = range[1] - range[0] + 1;
+        setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + length);
+      }
+    }
+
+    //
+    setStatus(status);
+    setHeader("Content-Length", Long.toString(count));
+    Stream stream = getStream(charset != null ? charset : Tools.ISO_8859_1);
+    try {
+      channel.send(stream, position, count);
+    }
+    finally {
+      end(stream);
+    }
+  }
+
+  /**
+   * Send a cached response, the response is not modified when the request <code>If-None-Match</code> header
+   * matches the response entity tag.
+   *
+   * @param cached the cached response
+   * @throws IOException any io exception
+   */
+  final void send(ResponseCache.Entry cached) throws IOException {
+    if (cached.matches(getRequestHeader("If-None-Match"))) {
+      try {
+        setStatus(304);
+        setHeader("ETag", cached.etag);
+      }
+      finally {
+        end();
+      }
+    } else {
+      setStatus(200);
+      setContentType(cached.mimeType, cached.charset);
+      for (String[] header : cached.headers) {
+        setHeader(header[0], header[1]);
+      }
+      setHeader("ETag", cached.etag);
+      Stream stream = getStream(cached.charset);
+      try {
+        stream.append(cached.body);
+      }
+      finally {
+        Tools.safeClose(stream);
+        end(stream);
+      }
+    }
+  }
+
   protected void end(Stream stream) {
     // Do nothing by default
   }
@@ -134,6 +324,83 @@ public abstract class WebBridge {
     // Do nothing by default
   }
 
+  /**
+   * Returns the flash or session scope kept by a session store, the session id is carried by the
+   * {@link SessionStore#COOKIE_NAME} cookie that is added to the response when the scope is created.
+   *
+   * @param log the logger
+   * @param store the session store
+   * @param flash true for the flash scope, false for the session scope
+   * @param create true if the scope should be created
+   * @return the scope or null
+   */
+  protected final StoredScopedContext getStoredScope(Logger log, SessionStore store, boolean flash, boolean create) {
+    StoredScopedContext context = flash ? storedFlashScope : storedSessionScope;
+    if (context == null) {
+      if (storedId == null) {
+        Cookie[] cookies = getHttpContext().getCookies();
+        if (cookies != null) {
+          for (Cookie cookie : cookies) {
+            if (SessionStore.COOKIE_NAME.equals(cookie.getName()) && SessionStore.isValidId(cookie.getValue())) {
+              // Only an id the store issued a state for is reused, so a planted id cannot fix the session
+              String id = cookie.getValue();
+              if (store.contains(id + ".session") || store.contains(id + ".flash")) {
+                storedId = id;
+                break;
+              }
+            }
+          }
+        }
+        if (storedId == null && create) {
+          storedId = SessionStore.createId();
+          Cookie cookie = new Cookie(SessionStore.COOKIE_NAME, storedId);
+          cookie.setPath("/");
+          cookie.setHttpOnly(true);
+          addCookie(cookie);
+        }
+      }
+      if (storedId != null) {
+        context = new StoredScopedContext(log, store, storedId + (flash ? ".flash" : ".session"));
+        if (flash) {
+          storedFlashScope = context;
+        } else {
+          storedSessionScope = context;
+        }
+      }
+    }
+    return context;
+  }
+
+  /**
+   * Purge the session state kept by a session store.
+   *
+   * @param log the logger
+   * @param store the session store
+   */
+  protected final void purgeStoredSession(Logger log, SessionStore store) {
+    StoredScopedContext flash = getStoredScope(log, store, true, false);
+    if (flash != null) {
+      flash.close();
+    }
+    StoredScopedContext session = getStoredScope(log, store, false, false);
+    if (session != null) {
+      session.close();
+    }
+  }
+
+  /**
+   * Save the flash and session scopes at the end of the request, the scopes kept by a session store are saved
+   * to the store. Subclasses keeping these scopes elsewhere should override this method and invoke it.
+   */
+  protected void flushScopes() {
+    if (storedFlashScope != null) {
+      storedFlashScope.flush();
+    }
+    if (storedSessionScope != null) {
+      storedSessionScope.flush();
+    }
+  }
+
   public abstract Map<String, RequestParameter> getParameters();
 
   public abstract String getRequestURI();
@@ -158,6 +425,10 @@ public abstract class WebBridge {
 
   public abstract void purgeSession();
 
+  protected abstract void addCookie(Cookie cookie);
+
+  public abstract String getRequestHeader(String name);
+
   //
 
   public abstract HttpContext getHttpContext();
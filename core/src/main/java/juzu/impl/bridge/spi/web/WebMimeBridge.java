@@ -31,6 +31,12 @@ import java.util.Map;
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public abstract class WebMimeBridge extends WebRequestBridge implements MimeBridge {
 
+  /** The cache region recording the response or null. */
+  ResponseCache.Region cacheRegion;
+
+  /** . */
+  String cacheKey;
+
   WebMimeBridge(
       Bridge bridge,
       Handler handler,
@@ -67,7 +73,11 @@ public abstract class WebMimeBridge extends WebRequestBridge implements MimeBrid
       }
 
       //
-      http.send(status);
+      if (cacheRegion != null && status instanceof Response.Body && status.getCode() == 200) {
+        http.send(status, cacheRegion, cacheKey);
+      } else {
+        http.send(status);
+      }
 
       //
       return true;
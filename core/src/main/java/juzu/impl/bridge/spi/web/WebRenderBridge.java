@@ -38,12 +38,12 @@ public class WebRenderBridge extends WebMimeBridge implements RenderBridge {
 
   @Override
   public void end() {
-    super.end();
-
-    //
     ScopedContext context = http.getFlashScope(false);
     if (context != null) {
       context.close();
     }
+
+    //
+    super.end();
   }
 }
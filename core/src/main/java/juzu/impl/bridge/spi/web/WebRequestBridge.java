@@ -113,6 +113,16 @@ public abstract class WebRequestBridge implements RequestBridge, WindowContext {
     return arguments;
   }
 
+  /**
+   * Render the base URL of the urls created by this bridge.
+   *
+   * @param appendable the appendable
+   * @throws IOException any io exception
+   */
+  public void renderRequestURL(Appendable appendable) throws IOException {
+    http.renderRequestURL(appendable);
+  }
+
   public <T> T getProperty(PropertyType<T> propertyType) {
     if (PropertyType.PATH.equals(propertyType)) {
       return propertyType.cast(http.getRequestURI());
@@ -303,6 +313,9 @@ public abstract class WebRequestBridge implements RequestBridge, WindowContext {
     if (context != null) {
       context.close();
     }
+
+    //
+    http.flushScopes();
   }
 
   public void close() {
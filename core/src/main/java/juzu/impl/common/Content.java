@@ -19,6 +19,8 @@ package juzu.impl.common;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class Content {
@@ -29,6 +31,9 @@ public class Content {
   /** . */
   private Charset encoding;
 
+  /** . */
+  private String digest;
+
   public Content(byte[] data, Charset encoding) {
     if (data == null) {
       throw new NullPointerException("No null data accepted");
@@ -70,4 +75,27 @@ public class Content {
   public int getSize() {
     return data.length;
   }
+
+  /**
+   * Returns the hexadecimal MD5 digest of the content data, the digest is computed once.
+   *
+   * @return the content digest
+   */
+  public String getDigest() {
+    if (digest == null) {
+      try {
+        byte[] md5 = MessageDigest.getInstance("MD5").digest(data);
+        StringBuilder sb = new StringBuilder(md5.length * 2);
+        for (byte b : md5) {
+          int value = Tools.unsignedByteToInt(b);
+          sb.append(Character.forDigit(value >> 4, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        digest = sb.toString();
+      }
+      catch (NoSuchAlgorithmException e) {
+        throw new AssertionError(e);
+      }
+    }
+    return digest;
+  }
 }
@@ -42,6 +42,9 @@ public final class JSON implements Serializable {
   /** . */
   private static final String[] EMPTY_STRING_ARRAY = new String[0];
 
+  /** . */
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
   private static final Set<Class<?>> simpleTypes = new HashSet<Class<?>>(Arrays.asList(
     Integer.class,
     Long.class,
@@ -175,7 +178,15 @@ public final class JSON implements Serializable {
     return ret;
   }
 
-  private static Object unwrap(Object o) {
+  /**
+   * Unwrap an object to its JSON representation: maps become {@link JSON} objects, iterables and arrays
+   * become lists, objects providing a <code>toJSON</code> method are replaced by its result and other
+   * objects are converted to their string value.
+   *
+   * @param o the object to unwrap
+   * @return the unwrapped object
+   */
+  public static Object unwrap(Object o) {
     if (o == null || o instanceof JSON) {
       // Ok
     }
@@ -283,6 +294,20 @@ public final class JSON implements Serializable {
     return toString(o, appendable, 0, indent);
   }
 
+  /**
+   * Returns false for the NaN and infinite double and float values as they have no json representation.
+   *
+   * @param n the number
+   * @return true when the number is finite
+   */
+  public static boolean isFinite(Number n) {
+    if (n instanceof Double || n instanceof Float) {
+      double d = n.doubleValue();
+      return !Double.isNaN(d) && !Double.isInfinite(d);
+    }
+    return true;
+  }
+
   private static <A extends Appendable> A toString(Object o, A appendable, final int margin, final int indent) throws IOException {
     if (o == null) {
       appendable.append("null");
@@ -322,6 +347,10 @@ public final class JSON implements Serializable {
       }
       appendable.append("]");
     }
+    else if (o instanceof Number && !isFinite((Number)o)) {
+      // NaN and infinite numbers have no json representation
+      appendable.append("null");
+    }
     else if (o instanceof Boolean || o instanceof Number) {
       appendable.append(o.toString());
     }
@@ -349,8 +378,15 @@ public final class JSON implements Serializable {
           case '\t':
             appendable.append("\\t");
             break;
+          case '\\':
+            appendable.append("\\\\");
+            break;
           default:
-            appendable.append(c);
+            if (c < 0x20) {
+              appendable.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+              appendable.append(c);
+            }
         }
       }
       appendable.append('"');
@@ -20,7 +20,6 @@ import juzu.io.UndeclaredIOException;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.charset.CharacterCodingException;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class PercentCodec extends BigInteger {
@@ -111,25 +110,88 @@ public class PercentCodec extends BigInteger {
     }
   }
 
+  /** The safe chars from 0 to 63. */
+  private final long low;
+
+  /** The safe chars from 64 to 127. */
+  private final long high;
+
   private PercentCodec(BigInteger val) {
     super(val.toByteArray());
+
+    //
+    long low = 0, high = 0;
+    for (int c = 0;c < 64;c++) {
+      if (testBit(c)) {
+        low |= 1L << c;
+      }
+      if (testBit(c + 64)) {
+        high |= 1L << c;
+      }
+    }
+    this.low = low;
+    this.high = high;
   }
   
   public boolean accept(char c) {
-    return testBit(c);
+    if (c < 64) {
+      return (low & (1L << c)) != 0;
+    } else if (c < 128) {
+      return (high & (1L << (c - 64))) != 0;
+    } else {
+      return false;
+    }
   }
 
+  /**
+   * Encode a char sequence, the spans of safe chars are appended at once.
+   *
+   * @param s the sequence to encode
+   * @param appendable the destination
+   * @throws IOException any io exception
+   */
   public void encode(CharSequence s, Appendable appendable) throws IOException {
-    for (int len = s.length(), i = 0;i < len;i++) {
+    int len = s.length();
+    int from = 0;
+    int i = 0;
+    while (i < len) {
       char c = s.charAt(i);
-      encode(c, appendable);
+      if (accept(c)) {
+        i++;
+      } else {
+        if (from < i) {
+          appendable.append(s, from, i);
+        }
+        if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+          encodeCodePoint(Character.toCodePoint(c, s.charAt(i + 1)), appendable);
+          i += 2;
+        } else {
+          encodeCodePoint(c, appendable);
+          i++;
+        }
+        from = i;
+      }
+    }
+    if (from == 0) {
+      appendable.append(s);
+    } else if (from < len) {
+      appendable.append(s, from, len);
     }
   }
 
   public String encode(CharSequence s) {
+    int len = s.length();
+    int i = 0;
+    while (i < len && accept(s.charAt(i))) {
+      i++;
+    }
+    if (i == len) {
+      return s.toString();
+    }
     try {
-      StringBuilder sb = new StringBuilder(s.length());
-      encode(s, sb);
+      StringBuilder sb = new StringBuilder(len + 16);
+      sb.append(s, 0, i);
+      encode(s.subSequence(i, len), sb);
       return sb.toString();
     }
     catch (IOException e) {
@@ -138,42 +200,44 @@ public class PercentCodec extends BigInteger {
   }
 
   public void encode(char c, Appendable appendable) throws IOException {
-    if (c < 2 << 6) {
-      if (testBit(c)) {
-        appendable.append(c);
-      } else {
-        appendable.append('%');
-        appendable.append(ALPHABET[(c & 0xF0) >> 4]);
-        appendable.append(ALPHABET[c & 0xF]);
-      }
-    } else if (c < 2 << 10) {
-      int c0 = 0x80 | (c & 0x3F);
-      int c1 = 0xC0 | ((c & 0x7C0) >> 6);
-      appendable.append('%');
-      appendable.append(ALPHABET[(c1 & 0xF0) >> 4]);
-      appendable.append(ALPHABET[c1 & 0xF]);
-      appendable.append('%');
-      appendable.append(ALPHABET[(c0 & 0xF0) >> 4]);
-      appendable.append(ALPHABET[c0 & 0xF]);
-    } else if (c < 2 << 15) {
-      int c0 = 0x80 | (c & 0x3F);
-      int c1 = 0x80 | ((c & 0xFC0) >> 6);
-      int c2 = 0xE0 | ((c & 0xF000) >> 12);
-      appendable.append('%');
-      appendable.append(ALPHABET[(c2 & 0xF0) >> 4]);
-      appendable.append(ALPHABET[c2 & 0xF]);
-      appendable.append('%');
-      appendable.append(ALPHABET[(c1 & 0xF0) >> 4]);
-      appendable.append(ALPHABET[c1 & 0xF]);
-      appendable.append('%');
-      appendable.append(ALPHABET[(c0 & 0xF0) >> 4]);
-      appendable.append(ALPHABET[c0 & 0xF]);
+    if (accept(c)) {
+      appendable.append(c);
     } else {
-      // Java primitive type cannot handle more than 16 bits
-      throw new CharacterCodingException();
+      encodeCodePoint(c, appendable);
     }
   }
 
+  /**
+   * Percent encode the UTF-8 bytes of a code point.
+   *
+   * @param cp the code point
+   * @param appendable the destination
+   * @throws IOException any io exception
+   */
+  private void encodeCodePoint(int cp, Appendable appendable) throws IOException {
+    if (cp < 0x80) {
+      appendByte(cp, appendable);
+    } else if (cp < 0x800) {
+      appendByte(0xC0 | (cp >> 6), appendable);
+      appendByte(0x80 | (cp & 0x3F), appendable);
+    } else if (cp < 0x10000) {
+      appendByte(0xE0 | (cp >> 12), appendable);
+      appendByte(0x80 | ((cp >> 6) & 0x3F), appendable);
+      appendByte(0x80 | (cp & 0x3F), appendable);
+    } else {
+      appendByte(0xF0 | (cp >> 18), appendable);
+      appendByte(0x80 | ((cp >> 12) & 0x3F), appendable);
+      appendByte(0x80 | ((cp >> 6) & 0x3F), appendable);
+      appendByte(0x80 | (cp & 0x3F), appendable);
+    }
+  }
+
+  private static void appendByte(int b, Appendable appendable) throws IOException {
+    appendable.append('%');
+    appendable.append(ALPHABET[(b & 0xF0) >> 4]);
+    appendable.append(ALPHABET[b & 0xF]);
+  }
+
   public String safeDecode(CharSequence s) throws UndeclaredIOException {
     try {
       return decode(s);
@@ -184,9 +248,18 @@ public class PercentCodec extends BigInteger {
   }
 
   public String decode(CharSequence s) throws IllegalArgumentException, UndeclaredIOException {
+    int len = s.length();
+    int i = 0;
+    while (i < len && accept(s.charAt(i))) {
+      i++;
+    }
+    if (i == len) {
+      return s.toString();
+    }
     try {
-      StringBuilder sb = new StringBuilder(s.length());
-      decode(s, sb);
+      StringBuilder sb = new StringBuilder(len);
+      sb.append(s, 0, i);
+      decode(s, i, len - i, sb);
       return sb.toString();
     }
     catch (IOException e) {
@@ -200,9 +273,20 @@ public class PercentCodec extends BigInteger {
 
   public void decode(CharSequence s, int from, int len, Appendable to) throws IllegalArgumentException, IOException {
     while (len > 0) {
-      int delta = decodeChar(s, from, len, to);
-      len -= delta;
-      from += delta;
+      int pos = from;
+      int end = from + len;
+      while (pos < end && accept(s.charAt(pos))) {
+        pos++;
+      }
+      if (pos > from) {
+        to.append(s, from, pos);
+        len -= pos - from;
+        from = pos;
+      } else {
+        int delta = decodeChar(s, from, len, to);
+        len -= delta;
+        from += delta;
+      }
     }
   }
 
@@ -249,8 +333,24 @@ public class PercentCodec extends BigInteger {
                 char c3 = (char)((hex(s.charAt(from++)) << 4) + hex(s.charAt(from++)));
                 if ((c1 & 0xF0) == 0xE0) {
                   to.append((char)(((c1 & 0x0F) << 12) + ((c2 & 0x3F) << 6) + (c3 & 0x3F)));
+                } else if ((c1 & 0xF8) == 0xF0) {
+                  if (len < 3) {
+                    throw new IllegalArgumentException();
+                  } else {
+                    if (s.charAt(from++) != '%') {
+                      throw new IllegalArgumentException();
+                    }
+                    len -= 3;
+                    char c4 = (char)((hex(s.charAt(from++)) << 4) + hex(s.charAt(from++)));
+                    int cp = ((c1 & 0x07) << 18) + ((c2 & 0x3F) << 12) + ((c3 & 0x3F) << 6) + (c4 & 0x3F);
+                    if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                      throw new IllegalArgumentException();
+                    }
+                    char[] chars = Character.toChars(cp);
+                    to.append(chars[0]);
+                    to.append(chars[1]);
+                  }
                 } else {
-                  // Java primitive type cannot handle more than 16 bits
                   throw new IllegalArgumentException();
                 }
               }
@@ -165,6 +165,7 @@ public abstract class BaseProcessor extends AbstractProcessor {
 
   @Override
   public final boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    context.rootElements = roundEnv.getRootElements();
     try {
       doProcess(annotations, roundEnv);
     }
@@ -53,7 +53,8 @@ public abstract class ElementHandle<E extends Element> implements Serializable {
         PackageElement packageElt = (PackageElement)elt;
         return Package.create(packageElt);
       }
-      case METHOD: {
+      case METHOD:
+      case CONSTRUCTOR: {
         ExecutableElement packageElt = (ExecutableElement)elt;
         return Method.create(packageElt);
       }
@@ -62,6 +63,25 @@ public abstract class ElementHandle<E extends Element> implements Serializable {
     }
   }
 
+  /**
+   * Returns true when an element handle can be created for the specified element kind.
+   *
+   * @param kind the element kind
+   * @return true if the element kind is supported
+   */
+  public static boolean isSupported(ElementKind kind) {
+    switch (kind) {
+      case FIELD:
+      case CLASS:
+      case PACKAGE:
+      case METHOD:
+      case CONSTRUCTOR:
+        return true;
+      default:
+        return false;
+    }
+  }
+
   public final E get(ProcessingEnvironment env) {
     try {
       return doGet(env);
@@ -260,8 +280,11 @@ public abstract class ElementHandle<E extends Element> implements Serializable {
     protected ExecutableElement doGet(ProcessingEnvironment env) {
       TypeElement typeElt = env.getElementUtils().getTypeElement(fqn);
       if (typeElt != null) {
+        List<ExecutableElement> executableElements = "<init>".equals(name) ?
+            ElementFilter.constructorsIn(typeElt.getEnclosedElements()) :
+            ElementFilter.methodsIn(typeElt.getEnclosedElements());
         next:
-        for (ExecutableElement executableElement : ElementFilter.methodsIn(typeElt.getEnclosedElements())) {
+        for (ExecutableElement executableElement : executableElements) {
           if (executableElement.getSimpleName().toString().equals(name)) {
             List<? extends TypeMirror> parameterTypes = ((ExecutableType)executableElement.asType()).getParameterTypes();
             int len = parameterTypes.size();
@@ -49,6 +49,7 @@ import javax.tools.Diagnostic;
 import javax.tools.FileObject;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
 import javax.tools.StandardLocation;
 import java.io.File;
 import java.io.IOException;
@@ -65,6 +66,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
@@ -95,9 +97,15 @@ public class ProcessingContext implements Filer, Elements, Logger, Types {
   /** The classloader for loading service via ServiceLoader. */
   private final ClassLoader serviceCL;
 
+  /** The class path and class output of the compilation, lazily resolved in javac. */
+  private URL[] classPath;
+
   /** The resources accessed, we need to have this map because some resources may only open one time (cf eclipse filer). */
   private Map<Key, FileObject> resources;
 
+  /** The root elements of the current round. */
+  Set<? extends Element> rootElements;
+
   public ProcessingContext(ProcessingEnvironment env) {
     ProcessingTool tool;
     if (env.getMessager().getClass().getName().startsWith("org.eclipse.jdt")) {
@@ -109,6 +117,7 @@ public class ProcessingContext implements Filer, Elements, Logger, Types {
 
     // Use this classloader by default
     ClassLoader serviceCL = ProcessingContext.class.getClassLoader();
+    URL[] classPath = null;
 
     //
     ReadFileSystem<File> sourcePath = null;
@@ -157,6 +166,13 @@ public class ProcessingContext implements Filer, Elements, Logger, Types {
             }
           }
           serviceCL = new URLClassLoader(urls.toArray(new URL[urls.size()]), serviceCL);
+
+          //
+          String d = options.get("-d");
+          if (d != null && new File(d).isDirectory()) {
+            urls.add(new File(d).toURI().toURL());
+          }
+          classPath = urls.toArray(new URL[urls.size()]);
         }
       }
     }
@@ -173,7 +189,9 @@ public class ProcessingContext implements Filer, Elements, Logger, Types {
     this.sourcePath = sourcePath;
     this.tool = tool;
     this.serviceCL = serviceCL;
+    this.classPath = classPath;
     this.resources = null;
+    this.rootElements = Collections.emptySet();
   }
 
   // Various stuff ****************************************************************************************************
@@ -186,6 +204,51 @@ public class ProcessingContext implements Filer, Elements, Logger, Types {
     tool.report(env.getMessager(), kind, msg, e, a, v);
   }
 
+  /**
+   * Returns the root elements of the current processing round, i.e the elements compiled or generated by the
+   * previous round.
+   *
+   * @return the root elements
+   */
+  public Set<? extends Element> getRootElements() {
+    return rootElements;
+  }
+
+  /**
+   * Returns the class path of the compilation followed by its class output, an empty array is returned when
+   * the class path cannot be determined.
+   *
+   * @return the class path urls
+   */
+  public URL[] getClassPath() {
+    if (classPath == null) {
+      ArrayList<URL> urls = new ArrayList<URL>();
+      try {
+        // Javac keeps its file manager in the context of the processing environment
+        Object context = env.getClass().getMethod("getContext").invoke(env);
+        Object fileManager = context.getClass().getMethod("get", Class.class).invoke(context, JavaFileManager.class);
+        if (fileManager instanceof StandardJavaFileManager) {
+          StandardJavaFileManager manager = (StandardJavaFileManager)fileManager;
+          for (StandardLocation location : new StandardLocation[]{StandardLocation.CLASS_PATH, StandardLocation.CLASS_OUTPUT}) {
+            Iterable<? extends File> files = manager.getLocation(location);
+            if (files != null) {
+              for (File file : files) {
+                if (file.exists()) {
+                  urls.add(file.toURI().toURL());
+                }
+              }
+            }
+          }
+        }
+      }
+      catch (Exception e) {
+        log.log("Could not resolve the class path", e);
+      }
+      classPath = urls.toArray(new URL[urls.size()]);
+    }
+    return classPath.clone();
+  }
+
   public ProcessingEnvironment getEnv() {
     return env;
   }
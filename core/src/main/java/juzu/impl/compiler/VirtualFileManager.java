@@ -112,7 +112,7 @@ class VirtualFileManager extends ForwardingJavaFileManager<JavaFileManager> impl
   }
 
   public Iterable<? extends File> getLocation(Location location) {
-    if (location == StandardLocation.CLASS_PATH) {
+    if (location == StandardLocation.CLASS_PATH || location == StandardLocation.CLASS_OUTPUT) {
       FileManager manager = getFiles(location);
       if (manager != null) {
         try {
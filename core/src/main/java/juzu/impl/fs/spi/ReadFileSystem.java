@@ -26,11 +26,20 @@ import juzu.impl.fs.spi.jar.JarFileSystem;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -286,7 +295,86 @@ public abstract class ReadFileSystem<P> {
     copy(getRoot(), filter, dst, dst.getRoot());
   }
 
+  /**
+   * Copy this file system to the destination file system, the file contents are loaded by a pool of
+   * <code>parallelism</code> threads while the destination file system is only updated by the calling thread.
+   *
+   * @param filter the filter
+   * @param dst the destination
+   * @param parallelism the number of threads loading file contents
+   * @param <D> the destination path generic type
+   * @throws IOException any io exception
+   */
+  public <D> void copy(Filter<P> filter, final ReadWriteFileSystem<D> dst, int parallelism) throws IOException {
+    ArrayList<Copy<P, D>> copies = new ArrayList<Copy<P, D>>();
+    copy(getRoot(), filter, dst, dst.getRoot(), copies);
+    if (parallelism < 2 || copies.size() < 2) {
+      for (Copy<P, D> copy : copies) {
+        dst.setContent(copy.dst, dst.loadContent(this, copy.src, copy.dst));
+      }
+    } else {
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, copies.size()));
+      try {
+        ArrayList<Future<Content>> futures = new ArrayList<Future<Content>>(copies.size());
+        for (final Copy<P, D> copy : copies) {
+          futures.add(executor.submit(new Callable<Content>() {
+            public Content call() throws Exception {
+              return dst.loadContent(ReadFileSystem.this, copy.src, copy.dst);
+            }
+          }));
+        }
+        for (int i = 0;i < copies.size();i++) {
+          Content content;
+          try {
+            content = futures.get(i).get();
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while copying " + copies.get(i).src);
+          }
+          catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+              throw (IOException)cause;
+            } else if (cause instanceof RuntimeException) {
+              throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+              throw (Error)cause;
+            } else {
+              throw new UndeclaredThrowableException(cause);
+            }
+          }
+          dst.setContent(copies.get(i).dst, content);
+        }
+      }
+      finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
   public <D> void copy(P srcPath, Filter<P> filter, ReadWriteFileSystem<D> dst, D dstPath) throws IOException {
+    copy(srcPath, filter, dst, dstPath, null);
+  }
+
+  /**
+   * A deferred file copy.
+   */
+  private static class Copy<P, D> {
+
+    /** . */
+    private final P src;
+
+    /** . */
+    private final D dst;
+
+    private Copy(P src, D dst) {
+      this.src = src;
+      this.dst = dst;
+    }
+  }
+
+  private <D> void copy(P srcPath, Filter<P> filter, ReadWriteFileSystem<D> dst, D dstPath, List<Copy<P, D>> copies) throws IOException {
     int kind = kind(srcPath, dst, dstPath);
     String srcName = getName(srcPath);
 
@@ -294,7 +382,11 @@ public abstract class ReadFileSystem<P> {
     switch (kind) {
       case 0: {
         if (filter.acceptFile(srcPath, srcName)) {
-          dst.setContent(dstPath, getContent(srcPath).getObject());
+          if (copies != null) {
+            copies.add(new Copy<P, D>(srcPath, dstPath));
+          } else {
+            dst.setContent(dstPath, dst.loadContent(this, srcPath, dstPath));
+          }
         }
         break;
       }
@@ -329,7 +421,7 @@ public abstract class ReadFileSystem<P> {
             i.remove();
           }
           else {
-            copy(a, filter, dst, next);
+            copy(a, filter, dst, next, copies);
           }
         }
 
@@ -343,7 +435,7 @@ public abstract class ReadFileSystem<P> {
             boolean accept = dir ? filter.acceptDir(next, name) : filter.acceptFile(next, name);
             if (accept) {
               a = dst.makePath(dstPath, name);
-              copy(next, filter, dst, a);
+              copy(next, filter, dst, a, copies);
             }
           }
           else {
@@ -53,5 +53,20 @@ public abstract class ReadWriteFileSystem<P> extends ReadFileSystem<P> {
 
   public abstract boolean removePath(P path) throws IOException;
 
+  /**
+   * Load the content of a source file for copying it to a file of this file system. Implementations may return
+   * a content they already hold for the same source file instead of loading it again. This method can be invoked
+   * concurrently during a parallel copy.
+   *
+   * @param src the source file system
+   * @param srcPath the source file
+   * @param file the destination file
+   * @param <S> the source path generic type
+   * @return the content to copy
+   * @throws IOException any io exception
+   */
+  protected <S> Content loadContent(ReadFileSystem<S> src, S srcPath, P file) throws IOException {
+    return src.getContent(srcPath).getObject();
+  }
 
 }
@@ -25,13 +25,14 @@ import juzu.impl.common.Content;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.Charset;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.TreeMap;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -43,94 +44,88 @@ public class JarFileSystem extends ReadFileSystem<String> {
   private final URL baseURL;
 
   /** . */
-  private final TreeMap<String, ZipEntry> entries;
+  private final JarIndex index;
 
   public JarFileSystem(JarFile f) throws IOException {
-    TreeMap<String, ZipEntry> entries = new TreeMap<String, ZipEntry>();
-    for (Enumeration<? extends ZipEntry> en = f.entries();en.hasMoreElements();) {
-      ZipEntry entry = en.nextElement();
-      String name = entry.getName();
-      if (name.length() > 0 && name.charAt(name.length() - 1) != '/') {
-        entries.put(name, entry);
-        String current = name;
-        while (true) {
-          int index = current.lastIndexOf('/');
-          if (index == -1) {
-            break;
-          } else {
-            current = name.substring(0, index);
-            if (entries.containsKey(current)) {
-              break;
-            } else {
-              entries.put(current, null);
-            }
-          }
-        }
-      }
-    }
-    this.baseURL = new File(f.getName()).toURI().toURL();
-    this.entries = entries;
+    File file = new File(f.getName());
+    this.baseURL = file.toURI().toURL();
+    this.index = JarIndex.get(file);
   }
 
   public JarFileSystem(URL baseURL) throws IOException {
-    final ZipInputStream in = new ZipInputStream(baseURL.openStream());
-    try {
+    File file = getFile(baseURL);
+    if (file != null) {
       this.baseURL = baseURL;
-      this.entries = entries(new Enumeration<ZipEntry>() {
-        ZipEntry next;
-        public boolean hasMoreElements() {
-          try {
-            if (next == null) {
-              next = in.getNextEntry();
+      this.index = JarIndex.get(file);
+    } else {
+      final ZipInputStream in = new ZipInputStream(baseURL.openStream());
+      try {
+        this.baseURL = baseURL;
+        this.index = new JarIndex(new Enumeration<ZipEntry>() {
+          ZipEntry next;
+          public boolean hasMoreElements() {
+            try {
+              if (next == null) {
+                next = in.getNextEntry();
+              }
+              return next != null;
+            }
+            catch (IOException e) {
+              throw new UndeclaredIOException(e);
             }
-            return next != null;
-          }
-          catch (IOException e) {
-            throw new UndeclaredIOException(e);
           }
-        }
-        public ZipEntry nextElement() {
-          if (!hasMoreElements()) {
-            throw new NoSuchElementException();
+          public ZipEntry nextElement() {
+            if (!hasMoreElements()) {
+              throw new NoSuchElementException();
+            }
+            ZipEntry tmp = next;
+            next = null;
+            return tmp;
           }
-          ZipEntry tmp = next;
-          next = null;
-          return tmp;
-        }
-      });
-    }
-    catch (UndeclaredIOException e) {
-      throw e.getCause();
-    }
-    finally {
-      Tools.safeClose(in);
+        }, -1, -1);
+      }
+      catch (UndeclaredIOException e) {
+        throw e.getCause();
+      }
+      finally {
+        Tools.safeClose(in);
+      }
     }
   }
 
-  private TreeMap<String, ZipEntry> entries(Enumeration<ZipEntry> e) {
-    TreeMap<String, ZipEntry> entries = new TreeMap<String, ZipEntry>();
-    while (e.hasMoreElements()) {
-      ZipEntry entry = e.nextElement();
-      String name = entry.getName();
-      if (name.length() > 0 && name.charAt(name.length() - 1) != '/') {
-        entries.put(name, entry);
-        String current = name;
-        while (true) {
-          int index = current.lastIndexOf('/');
-          if (index == -1) {
-            break;
-          } else {
-            current = name.substring(0, index);
-            if (entries.containsKey(current)) {
-              break;
-            } else {
-              entries.put(current, null);
-            }
-          }
-        }
+  /**
+   * Resolve the local jar file of an url when it is possible.
+   *
+   * @param url the url
+   * @return the file or null
+   */
+  private static File getFile(URL url) {
+    if ("jar".equals(url.getProtocol())) {
+      String path = url.getPath();
+      int pos = path.lastIndexOf("!/");
+      if (pos == -1) {
+        return null;
+      }
+      try {
+        url = new URL(path.substring(0, pos));
+      }
+      catch (MalformedURLException e) {
+        return null;
+      }
+    }
+    if ("file".equals(url.getProtocol())) {
+      try {
+        File file = new File(url.toURI());
+        return file.isFile() ? file : null;
+      }
+      catch (URISyntaxException e) {
+        return null;
+      }
+      catch (IllegalArgumentException e) {
+        return null;
       }
     }
-    return entries;
+    return null;
   }
 
   @Override
@@ -146,25 +141,18 @@ public class JarFileSystem extends ReadFileSystem<String> {
   @Override
   public String getChild(String dir, String name) throws IOException {
     String key = dir + name;
-    if (entries.containsKey(key)) {
-      if (entries.get(key) != null) {
-        return key;
-      } else {
-        return key + "/";
-      }
+    if (index.isFile(key)) {
+      return key;
     } else {
-      return null;
+      key += "/";
+      return index.isDir(key) ? key : null;
     }
   }
 
   @Override
   public long getLastModified(String path) throws IOException {
-    if (path.isEmpty()) {
-      return 1;
-    } else {
-      ZipEntry entry = entries.get(path);
-      return entry.getTime();
-    }
+    long lastModified = index.getLastModified(path);
+    return lastModified != -1 ? lastModified : 1;
   }
 
   @Override
@@ -192,52 +180,8 @@ public class JarFileSystem extends ReadFileSystem<String> {
   }
 
   @Override
-  public Iterator<String> getChildren(final String dir) throws IOException {
-    final Iterator<String> i = entries.navigableKeySet().tailSet(dir, false).iterator();
-    return new Iterator<String>() {
-      String next;
-      public boolean hasNext() {
-        if (next == null) {
-          while (i.hasNext()) {
-            String next = i.next();
-            if (next.startsWith(dir)) {
-              int pos = next.lastIndexOf('/');
-              if (pos == -1) {
-                if (dir.isEmpty()) {
-                  this.next = next;
-                  break;
-                }
-              } else {
-                if (pos == dir.length() - 1) {
-                  this.next = next;
-                  break;
-                }
-              }
-            } else {
-              break;
-            }
-          }
-        }
-        return next != null;
-      }
-      public String next() {
-        if (hasNext()) {
-          String ret;
-          if (entries.get(next) != null) {
-            ret = next;
-          } else {
-            ret = next + "/";
-          }
-          next = null;
-          return ret;
-        } else {
-          throw new NoSuchElementException();
-        }
-      }
-      public void remove() {
-        throw new UnsupportedOperationException();
-      }
-    };
+  public Iterator<String> getChildren(String dir) throws IOException {
+    return index.getChildren(dir);
   }
 
   @Override
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.fs.spi.jar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * An immutable index of the directories and files of a jar. The index is built once from the jar central
+ * directory and is shared via a cache keyed by the jar path, the cached index is rebuilt when the jar
+ * last modification date or length changes.
+ *
+ * <p>Directory paths end with a <code>/</code> and the root directory is the empty string.</p>
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public final class JarIndex {
+
+  /** . */
+  private static final String[] EMPTY = new String[0];
+
+  /** . */
+  private static final ConcurrentHashMap<String, JarIndex> cache = new ConcurrentHashMap<String, JarIndex>();
+
+  /**
+   * Returns the index of the specified jar file, the index is obtained from the cache when the jar has not
+   * been modified since it was indexed.
+   *
+   * @param file the jar file
+   * @return the jar index
+   * @throws IOException any io exception
+   */
+  public static JarIndex get(File file) throws IOException {
+    String key = file.getAbsolutePath();
+    long lastModified = file.lastModified();
+    long length = file.length();
+    JarIndex index = cache.get(key);
+    if (index == null || index.lastModified != lastModified || index.length != length) {
+      JarFile jar = new JarFile(file, false);
+      try {
+        index = new JarIndex(jar.entries(), lastModified, length);
+      }
+      finally {
+        try {
+          jar.close();
+        }
+        catch (IOException ignore) {
+        }
+      }
+      cache.put(key, index);
+    }
+    return index;
+  }
+
+  /**
+   * Evict all the cached indexes.
+   */
+  public static void clear() {
+    cache.clear();
+  }
+
+  /** The entry names as they appear in the jar. */
+  private final String[] names;
+
+  /** The file modification times. */
+  private final HashMap<String, Long> files;
+
+  /** The directory children. */
+  private final HashMap<String, String[]> dirs;
+
+  /** . */
+  private final long lastModified;
+
+  /** . */
+  private final long length;
+
+  /**
+   * Create a jar index from a jar entries, such index is not cached.
+   *
+   * @param entries the jar entries
+   * @param lastModified the jar last modification date
+   * @param length the jar length
+   */
+  JarIndex(Enumeration<? extends ZipEntry> entries, long lastModified, long length) {
+    ArrayList<String> names = new ArrayList<String>();
+    HashMap<String, Long> files = new HashMap<String, Long>();
+    HashMap<String, List<String>> dirs = new HashMap<String, List<String>>();
+    dirs.put("", new ArrayList<String>());
+    while (entries.hasMoreElements()) {
+      ZipEntry entry = entries.nextElement();
+      String name = entry.getName();
+      names.add(name);
+      if (name.length() > 0 && name.charAt(name.length() - 1) != '/') {
+        files.put(name, entry.getTime());
+        String child = name;
+        while (true) {
+          int index = child.lastIndexOf('/', child.length() - 2);
+          String parent = index == -1 ? "" : child.substring(0, index + 1);
+          List<String> children = dirs.get(parent);
+          if (children == null) {
+            dirs.put(parent, children = new ArrayList<String>());
+            children.add(child);
+            child = parent;
+          } else {
+            children.add(child);
+            break;
+          }
+        }
+      }
+    }
+
+    //
+    HashMap<String, String[]> sorted = new HashMap<String, String[]>(dirs.size());
+    for (Map.Entry<String, List<String>> dir : dirs.entrySet()) {
+      String[] children = dir.getValue().toArray(new String[dir.getValue().size()]);
+      Arrays.sort(children);
+      sorted.put(dir.getKey(), children);
+    }
+
+    //
+    this.names = names.toArray(new String[names.size()]);
+    this.files = files;
+    this.dirs = sorted;
+    this.lastModified = lastModified;
+    this.length = length;
+  }
+
+  /**
+   * Returns the entry names as they appear in the jar.
+   *
+   * @return the entry names
+   */
+  public List<String> getNames() {
+    return Collections.unmodifiableList(Arrays.asList(names));
+  }
+
+  /**
+   * Returns true when the path denotes a file of the jar.
+   *
+   * @param path the path
+   * @return true for a file
+   */
+  public boolean isFile(String path) {
+    return files.containsKey(path);
+  }
+
+  /**
+   * Returns true when the path denotes a directory of the jar.
+   *
+   * @param path the path
+   * @return true for a directory
+   */
+  public boolean isDir(String path) {
+    return dirs.containsKey(path);
+  }
+
+  /**
+   * Returns the last modification time of a file or -1 when the file does not exist.
+   *
+   * @param path the file path
+   * @return the last modification time
+   */
+  public long getLastModified(String path) {
+    Long time = files.get(path);
+    return time != null ? time : -1;
+  }
+
+  /**
+   * Returns the children paths of a directory.
+   *
+   * @param dir the directory path
+   * @return the children paths
+   */
+  public Iterator<String> getChildren(String dir) {
+    String[] children = dirs.get(dir);
+    return Arrays.asList(children != null ? children : EMPTY).iterator();
+  }
+}
@@ -19,6 +19,7 @@ package juzu.impl.fs.spi.ram;
 import juzu.impl.common.Timestamped;
 import juzu.impl.common.Tools;
 import juzu.impl.fs.spi.PathType;
+import juzu.impl.fs.spi.ReadFileSystem;
 import juzu.impl.fs.spi.ReadWriteFileSystem;
 import juzu.impl.common.Content;
 
@@ -30,6 +31,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class RAMFileSystem extends ReadWriteFileSystem<String[]> {
@@ -40,7 +43,34 @@ public class RAMFileSystem extends ReadWriteFileSystem<String[]> {
   /** . */
   private final URL contextURL;
 
+  /** The copied file contents by path with the source file last modification date. */
+  private final ConcurrentHashMap<String, Timestamped<Content>> copies;
+
+  /** The copied file contents by digest. */
+  private final ConcurrentHashMap<String, Content> contents;
+
+  /** The copies of the previous generation. */
+  private final Map<String, Timestamped<Content>> previousCopies;
+
+  /** The contents of the previous generation. */
+  private final Map<String, Content> previousContents;
+
   public RAMFileSystem() {
+    this(null);
+  }
+
+  /**
+   * Create a new generation of a file system, the content of the files copied in the previous generation is
+   * reused when the source file is unchanged and identical contents are shared by digest. Only the copy
+   * state of the previous generation is retained, so generations do not chain.
+   *
+   * @param previous the previous generation
+   */
+  public RAMFileSystem(RAMFileSystem previous) {
+    this.copies = new ConcurrentHashMap<String, Timestamped<Content>>();
+    this.contents = new ConcurrentHashMap<String, Content>();
+    this.previousCopies = previous != null ? previous.copies : Collections.<String, Timestamped<Content>>emptyMap();
+    this.previousContents = previous != null ? previous.contents : Collections.<String, Content>emptyMap();
     try {
       this.root = new RAMDir(this);
       this.contextURL = new URL("juzu", null, 0, "/", new RAMURLStreamHandler(this));
@@ -132,6 +162,30 @@ public class RAMFileSystem extends ReadWriteFileSystem<String[]> {
     throw new IOException();
   }
 
+  @Override
+  protected <S> Content loadContent(ReadFileSystem<S> src, S srcPath, String[] file) throws IOException {
+    long lastModified = src.getLastModified(srcPath);
+    String key = Tools.join('/', file);
+    Timestamped<Content> copy = previousCopies.get(key);
+    Content content;
+    if (copy != null && copy.getTime() == lastModified) {
+      content = copy.getObject();
+    } else {
+      content = src.getContent(srcPath).getObject();
+    }
+    String digest = content.getDigest();
+    Content shared = previousContents.get(digest);
+    if (shared != null && shared.getSize() == content.getSize()) {
+      content = shared;
+    }
+    Content existing = contents.putIfAbsent(digest, content);
+    if (existing != null && existing.getSize() == content.getSize()) {
+      content = existing;
+    }
+    copies.put(key, new Timestamped<Content>(lastModified, content));
+    return content;
+  }
+
   @Override
   public Timestamped<Content> getContent(String[] file) throws IOException {
     if (file == null) {
@@ -21,6 +21,7 @@ import juzu.impl.common.Timestamped;
 import juzu.impl.common.Tools;
 import juzu.impl.fs.spi.PathType;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.fs.spi.jar.JarIndex;
 
 import javax.inject.Inject;
 import java.io.File;
@@ -34,8 +35,6 @@ import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class URLFileSystem extends ReadFileSystem<Node> {
@@ -140,9 +139,8 @@ public class URLFileSystem extends ReadFileSystem<Node> {
       if (file.isDirectory()) {
         root.merge(file);
       } else {
-        JarFile jar = new JarFile(file, false);
-        for (JarEntry entry : Tools.iterable(jar.entries())) {
-          root.merge("jar:" + url + "!/", entry.getName());
+        for (String name : JarIndex.get(file).getNames()) {
+          root.merge("jar:" + url + "!/", name);
         }
       }
     } else if ("jar".equals(protocol)) {
@@ -161,9 +159,7 @@ public class URLFileSystem extends ReadFileSystem<Node> {
           if (prefix.length() > 0 && !prefix.endsWith("/")) {
             throw new IllegalArgumentException("Wrong nested jar URL, should end with a / or be empty" + url);
           }
-          JarFile jar = new JarFile(file, false);
-          for (JarEntry entry : Tools.iterable(jar.entries())) {
-            String name = entry.getName();
+          for (String name : JarIndex.get(file).getNames()) {
             if (name.startsWith(prefix)) {
               root.merge("jar:" + inner + "!/" + prefix, name.substring(prefix.length()));
             }
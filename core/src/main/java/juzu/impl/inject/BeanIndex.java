@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.inject;
+
+import juzu.Scope;
+import juzu.impl.common.JSON;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The bean index computed at compilation time by the annotation processor, it allows an injector to register
+ * the application beans without scanning the application classes.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class BeanIndex implements Iterable<BeanIndex.Entry> {
+
+  /**
+   * Create a bean index from its json representation.
+   *
+   * @param config the json config
+   * @return the bean index
+   */
+  public static BeanIndex create(JSON config) {
+    LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>();
+    List<? extends JSON> beans = config.getList("beans", JSON.class);
+    if (beans != null) {
+      for (JSON bean : beans) {
+        String type = bean.getString("type");
+        String scope = bean.getString("scope");
+        List<? extends String> qualifiers = bean.getList("qualifiers", String.class);
+        Boolean application = bean.getBoolean("application");
+        entries.put(type, new Entry(
+            type,
+            scope != null ? Scope.valueOf(scope.toUpperCase()) : null,
+            qualifiers != null ? Collections.unmodifiableList(qualifiers) : Collections.<String>emptyList(),
+            application == null || application));
+      }
+    }
+    Boolean complete = config.getBoolean("complete");
+    return new BeanIndex(entries, complete != null && complete);
+  }
+
+  /** . */
+  private final LinkedHashMap<String, Entry> entries;
+
+  /** . */
+  private final boolean complete;
+
+  private BeanIndex(LinkedHashMap<String, Entry> entries, boolean complete) {
+    this.entries = entries;
+    this.complete = complete;
+  }
+
+  /**
+   * Returns true when the index provides all the beans of the application, an incomplete index happens
+   * when the processor finds injection points whose implementations cannot be known at compilation time,
+   * the application classes must be scanned instead.
+   *
+   * @return true when the index is complete
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Returns true if the specified type is an indexed bean.
+   *
+   * @param type the bean type name
+   * @return true when the type is indexed
+   */
+  public boolean contains(String type) {
+    return entries.containsKey(type);
+  }
+
+  public Entry get(String type) {
+    return entries.get(type);
+  }
+
+  public Collection<String> getTypes() {
+    return Collections.unmodifiableCollection(entries.keySet());
+  }
+
+  public int getSize() {
+    return entries.size();
+  }
+
+  public Iterator<Entry> iterator() {
+    return Collections.unmodifiableCollection(entries.values()).iterator();
+  }
+
+  public static class Entry {
+
+    /** The bean type name. */
+    private final String type;
+
+    /** The declared scope or null. */
+    private final Scope scope;
+
+    /** The qualifier annotation names. */
+    private final List<? extends String> qualifiers;
+
+    /** True when the bean belongs to the application package. */
+    private final boolean application;
+
+    Entry(String type, Scope scope, List<? extends String> qualifiers, boolean application) {
+      this.type = type;
+      this.scope = scope;
+      this.qualifiers = qualifiers;
+      this.application = application;
+    }
+
+    public String getType() {
+      return type;
+    }
+
+    public Scope getScope() {
+      return scope;
+    }
+
+    public List<? extends String> getQualifiers() {
+      return qualifiers;
+    }
+
+    public boolean isApplication() {
+      return application;
+    }
+
+    @Override
+    public String toString() {
+      return "BeanIndex.Entry[type=" + type + ",scope=" + scope + ",qualifiers=" + qualifiers + ",application=" + application + "]";
+    }
+  }
+}
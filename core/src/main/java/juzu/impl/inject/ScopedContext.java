@@ -20,35 +20,37 @@ import juzu.impl.common.Logger;
 
 import javax.servlet.http.HttpSessionBindingEvent;
 import javax.servlet.http.HttpSessionBindingListener;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p></p>An helper class for managing scoped entries. It implements the {@link HttpSessionBindingListener} interface
  * which invokes the {@link #close()} method when the servlet container invokes the {@link
- * #valueUnbound(javax.servlet.http.HttpSessionBindingEvent)} callback.</p> <p/> <p>At the moment we do not support
- * serialization.</p>
+ * #valueUnbound(javax.servlet.http.HttpSessionBindingEvent)} callback.</p> <p/> <p>The entries can be accessed
+ * concurrently, subclasses can store the entries elsewhere.</p> <p/> <p>This class does not support
+ * serialization, the {@link juzu.impl.bridge.spi.web.StoredScopedContext} subclass serializes its entries.</p>
  *
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  */
-public final class ScopedContext implements HttpSessionBindingListener, Iterable<Scoped> {
+public class ScopedContext implements HttpSessionBindingListener, Iterable<Scoped> {
 
   /** . */
-  private HashMap<Object, Scoped> state;
+  private final ConcurrentHashMap<Object, Scoped> state;
 
   /** . */
-  private final Logger log;
+  protected final Logger log;
 
   public ScopedContext(Logger log) {
     this.log = log;
+    this.state = new ConcurrentHashMap<Object, Scoped>(4);
   }
 
   public Scoped get(Object key) throws NullPointerException {
     if (key == null) {
       throw new NullPointerException("No null key accepted");
     }
-    return state != null ? state.get(key) : null;
+    return state.get(key);
   }
 
   public void set(Object key, Scoped scoped) throws NullPointerException {
@@ -56,24 +58,28 @@ public final class ScopedContext implements HttpSessionBindingListener, Iterable
       throw new NullPointerException("No null key accepted");
     }
     if (scoped == null) {
-      if (state != null) {
-        state.remove(key);
-      }
+      state.remove(key);
     }
     else {
-      if (state == null) {
-        state = new HashMap<Object, Scoped>();
-      }
       state.put(key, scoped);
     }
   }
 
   public int size() {
-    return state != null ? state.size() : 0;
+    return state.size();
   }
 
   public Iterator<Scoped> iterator() {
-    return state == null ? Collections.<Scoped>emptyList().iterator() : state.values().iterator();
+    return state.values().iterator();
+  }
+
+  /**
+   * Returns the entries of this context.
+   *
+   * @return the entries
+   */
+  protected final Iterator<Map.Entry<Object, Scoped>> entries() {
+    return state.entrySet().iterator();
   }
 
   public void valueBound(HttpSessionBindingEvent event) {
@@ -85,17 +91,24 @@ public final class ScopedContext implements HttpSessionBindingListener, Iterable
   }
 
   public void close() {
-    if (state != null && state.size() > 0) {
-      for (Iterator<Scoped> i = state.values().iterator();i.hasNext();) {
-        Scoped scoped = i.next();
-        i.remove();
-        try {
-          scoped.destroy();
-        }
-        catch (Throwable t) {
-          log.log("Error when destroying object", t);
-        }
+    for (Map.Entry<Object, Scoped> entry : state.entrySet()) {
+      if (state.remove(entry.getKey(), entry.getValue())) {
+        destroy(entry.getValue());
       }
     }
   }
+
+  /**
+   * Destroy a scoped value and log any failure.
+   *
+   * @param scoped the scoped value
+   */
+  protected final void destroy(Scoped scoped) {
+    try {
+      scoped.destroy();
+    }
+    catch (Throwable t) {
+      log.log("Error when destroying object", t);
+    }
+  }
 }
@@ -19,6 +19,7 @@ package juzu.impl.inject.spi;
 import juzu.Scope;
 import juzu.impl.common.Filter;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.inject.BeanIndex;
 
 import javax.inject.Provider;
 import java.lang.annotation.Annotation;
@@ -96,6 +97,15 @@ public abstract class Injector implements Provider<Injector> {
 
   public abstract <P> Injector addFileSystem(ReadFileSystem<P> fs);
 
+  /**
+   * Set the bean index computed at compilation time, when an index is provided the injector should
+   * register the beans from the index instead of scanning its file systems.
+   *
+   * @param index the bean index
+   * @return this builder
+   */
+  public abstract Injector setBeanIndex(BeanIndex index);
+
   public abstract Injector addScope(Scope scope);
 
   public abstract Injector setClassLoader(ClassLoader classLoader);
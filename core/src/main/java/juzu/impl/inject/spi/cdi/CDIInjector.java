@@ -20,6 +20,7 @@ import juzu.Scope;
 import juzu.impl.common.Filter;
 import juzu.impl.inject.ScopeController;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.inject.BeanIndex;
 import juzu.impl.inject.spi.Injector;
 import juzu.impl.inject.spi.InjectionContext;
 import juzu.impl.inject.spi.cdi.weld.WeldContainer;
@@ -46,6 +47,9 @@ public class CDIInjector extends Injector {
   /** . */
   private ArrayList<AbstractBean> boundBeans;
 
+  /** . */
+  private BeanIndex index;
+
   /** . */
   private final ScopeController scopeController;
 
@@ -63,6 +67,7 @@ public class CDIInjector extends Injector {
     this.fileSystems = new ArrayList<ReadFileSystem<?>>(that.fileSystems);
     this.boundBeans = new ArrayList<AbstractBean>(that.boundBeans);
     this.scopeController = that.scopeController;
+    this.index = that.index;
   }
 
   @Override
@@ -83,6 +88,12 @@ public class CDIInjector extends Injector {
     return this;
   }
 
+  @Override
+  public Injector setBeanIndex(BeanIndex index) {
+    this.index = index;
+    return this;
+  }
+
   @Override
   public Injector addScope(Scope scope) {
     scopes.add(scope);
@@ -113,6 +124,7 @@ public class CDIInjector extends Injector {
     for (ReadFileSystem<?> fs : fileSystems) {
       container.addFileSystem(fs);
     }
+    container.setBeanIndex(index);
     return new CDIContext(scopeController, container, filter, boundBeans);
   }
 
@@ -19,6 +19,7 @@ package juzu.impl.inject.spi.cdi;
 import juzu.Scope;
 import juzu.impl.inject.ScopeController;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.inject.BeanIndex;
 
 import javax.enterprise.inject.spi.BeanManager;
 import java.util.ArrayList;
@@ -40,6 +41,9 @@ public abstract class Container {
   /** . */
   final ScopeController scopeController;
 
+  /** . */
+  private BeanIndex index;
+
   protected Container(ScopeController scopeController, Set<Scope> scopes) {
     this.fileSystems = new ArrayList<ReadFileSystem<?>>();
     this.scopes = scopes;
@@ -54,14 +58,25 @@ public abstract class Container {
     fileSystems.add(fileSystem);
   }
 
-  protected abstract void doStart(List<ReadFileSystem<?>> fileSystems) throws Exception;
+  public void setBeanIndex(BeanIndex index) {
+    this.index = index;
+  }
+
+  /**
+   * Start the container.
+   *
+   * @param fileSystems the file systems
+   * @param index the bean index or null when the file systems must be scanned
+   * @throws Exception any exception
+   */
+  protected abstract void doStart(List<ReadFileSystem<?>> fileSystems, BeanIndex index) throws Exception;
 
   protected abstract void doStop();
 
   public void start() throws Exception {
     boot.set(this);
     try {
-      doStart(fileSystems);
+      doStart(fileSystems, index);
     }
     finally {
       boot.set(null);
@@ -19,6 +19,7 @@ package juzu.impl.inject.spi.cdi.weld;
 import juzu.impl.common.Tools;
 import juzu.impl.fs.Visitor;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.inject.BeanIndex;
 import org.jboss.weld.bootstrap.api.ServiceRegistry;
 import org.jboss.weld.bootstrap.api.helpers.SimpleServiceRegistry;
 import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
@@ -56,39 +57,46 @@ class BeanDeploymentArchiveImpl implements BeanDeploymentArchive {
   BeanDeploymentArchiveImpl(
     WeldContainer owner,
     String id,
-    List<ReadFileSystem<?>> fileSystems) throws IOException {
+    List<ReadFileSystem<?>> fileSystems,
+    BeanIndex index) throws IOException {
 
     // A bit unchecked but well it's ok here
     ArrayList<URL> xmlURLs = new ArrayList<URL>();
     final StringBuilder buffer = new StringBuilder();
     final ArrayList<String> beanClasses = new ArrayList<String>();
+    if (index != null) {
+      // The index gives us the bean classes, no need to scan
+      beanClasses.addAll(index.getTypes());
+    }
     for (final ReadFileSystem fileSystem : fileSystems) {
-      fileSystem.traverse(new Visitor.Default() {
-        @Override
-        public void enterDir(Object dir, String name) throws IOException {
-          if (name.length() > 0) {
-            buffer.append(name).append('.');
+      if (index == null) {
+        fileSystem.traverse(new Visitor.Default() {
+          @Override
+          public void enterDir(Object dir, String name) throws IOException {
+            if (name.length() > 0) {
+              buffer.append(name).append('.');
+            }
           }
-        }
-        @Override
-        public void file(Object file, String name) throws IOException {
-          if (name.endsWith(".class")) {
-            int len = name.length() - ".class".length();
-            buffer.append(name, 0, len);
-            String fqn = buffer.toString();
-            buffer.setLength(buffer.length() - len);
-            if (!fqn.startsWith("juzu.impl.inject.spi.guice.") && !fqn.startsWith("juzu.impl.inject.spi.spring.")) {
-              beanClasses.add(fqn);
+          @Override
+          public void file(Object file, String name) throws IOException {
+            if (name.endsWith(".class")) {
+              int len = name.length() - ".class".length();
+              buffer.append(name, 0, len);
+              String fqn = buffer.toString();
+              buffer.setLength(buffer.length() - len);
+              if (!fqn.startsWith("juzu.impl.inject.spi.guice.") && !fqn.startsWith("juzu.impl.inject.spi.spring.")) {
+                beanClasses.add(fqn);
+              }
             }
           }
-        }
-        @Override
-        public void leaveDir(Object dir, String name) throws IOException {
-          if (name.length() > 0) {
-            buffer.setLength(buffer.length() - name.length() - 1);
+          @Override
+          public void leaveDir(Object dir, String name) throws IOException {
+            if (name.length() > 0) {
+              buffer.setLength(buffer.length() - name.length() - 1);
+            }
           }
-        }
-      });
+        });
+      }
 
       //
       // fsURLs.add(fileSystem.getURL());
@@ -19,6 +19,7 @@ package juzu.impl.inject.spi.cdi.weld;
 import juzu.Scope;
 import juzu.impl.inject.ScopeController;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.inject.BeanIndex;
 import juzu.impl.inject.spi.cdi.Container;
 import org.jboss.weld.bootstrap.WeldBootstrap;
 import org.jboss.weld.bootstrap.api.Bootstrap;
@@ -49,8 +50,8 @@ public class WeldContainer extends Container {
   private BeanManager manager;
 
   @Override
-  protected void doStart(List<ReadFileSystem<?>> fileSystems) throws Exception {
-    final BeanDeploymentArchiveImpl bda = new BeanDeploymentArchiveImpl(this, "foo", fileSystems);
+  protected void doStart(List<ReadFileSystem<?>> fileSystems, BeanIndex index) throws Exception {
+    final BeanDeploymentArchiveImpl bda = new BeanDeploymentArchiveImpl(this, "foo", fileSystems, index);
 
     //
     Deployment deployment = new Deployment() {
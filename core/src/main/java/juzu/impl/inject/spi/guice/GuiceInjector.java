@@ -19,6 +19,7 @@ package juzu.impl.inject.spi.guice;
 import juzu.Scope;
 import juzu.impl.common.Filter;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.inject.BeanIndex;
 import juzu.impl.inject.spi.Injector;
 import juzu.impl.inject.spi.InjectionContext;
 
@@ -68,6 +69,11 @@ public class GuiceInjector extends Injector {
     return this;
   }
 
+  @Override
+  public Injector setBeanIndex(BeanIndex index) {
+    return this;
+  }
+
   @Override
   public Injector addScope(Scope scope) {
     scopes.add(scope);
@@ -18,8 +18,14 @@ package juzu.impl.inject.spi.guice;
 
 import juzu.impl.inject.Scoped;
 
-/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-class GuiceScoped implements Scoped {
+import java.io.Serializable;
+
+/**
+ * A scoped Guice bean, it is serializable when the bean is serializable.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+class GuiceScoped implements Scoped, Serializable {
 
   /** . */
   final Object o;
@@ -21,6 +21,7 @@ import juzu.impl.common.Filter;
 import juzu.impl.common.Tools;
 import juzu.impl.inject.ScopeController;
 import juzu.impl.fs.spi.ReadFileSystem;
+import juzu.impl.inject.BeanIndex;
 import juzu.impl.inject.spi.Injector;
 import juzu.impl.inject.spi.InjectionContext;
 import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
@@ -137,6 +138,11 @@ public class SpringInjector extends Injector {
     return this;
   }
 
+  @Override
+  public Injector setBeanIndex(BeanIndex index) {
+    return this;
+  }
+
   @Override
   public Injector addScope(Scope scope) {
     scopes.add(scope);
@@ -18,6 +18,7 @@ package juzu.impl.metamodel;
 
 import juzu.impl.common.Name;
 import juzu.impl.compiler.BaseProcessor;
+import juzu.impl.compiler.ElementHandle;
 import juzu.impl.compiler.MessageCode;
 import juzu.impl.compiler.ProcessingContext;
 import juzu.impl.common.Logger;
@@ -33,8 +34,7 @@ import javax.lang.model.element.TypeElement;
 import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -46,6 +46,9 @@ public abstract class MetaModelProcessor extends BaseProcessor {
   /** . */
   public static final MessageCode ANNOTATION_UNSUPPORTED = new MessageCode("ANNOTATION_UNSUPPORTED", "The annotation of this element cannot be supported");
 
+  /** The name of the resource that holds the passivated state. */
+  private static final String STATE_NAME = "metamodel.bin";
+
   /** . */
   private MetaModelState<?, ?> state;
 
@@ -66,14 +69,16 @@ public abstract class MetaModelProcessor extends BaseProcessor {
     if (state == null) {
       InputStream in = null;
       try {
-        FileObject file = getContext().getResource(StandardLocation.SOURCE_OUTPUT, "juzu", "metamodel.ser");
+        FileObject file = getContext().getResource(StandardLocation.SOURCE_OUTPUT, "juzu", STATE_NAME);
         in = file.openInputStream();
-        ObjectInputStream ois = new ObjectInputStream(in);
-        state = (MetaModelState<?, ?>)ois.readObject();
-        log.log("Loaded model from " + file.toUri());
+        long time = -System.currentTimeMillis();
+        state = MetaModelStateCodec.decode(in);
+        time += System.currentTimeMillis();
+        log.log("Loaded model from " + file.toUri() + " in " + time + "ms");
       }
       catch (Exception e) {
-        log.log("Created new meta model");
+        // Missing, stale or incompatible state, the model is rebuilt from scratch
+        log.log("Created new meta model (" + e.getClass().getSimpleName() + ": " + e.getMessage() + ")");
         MetaModelState<?, ?> metaModel = new MetaModelState(getPluginType(), createMetaModel());
         metaModel.init(getContext());
         state = metaModel;
@@ -109,11 +114,14 @@ public abstract class MetaModelProcessor extends BaseProcessor {
         state.metaModel.prePassivate();
 
         // Passivate model
-        ObjectOutputStream out = null;
+        OutputStream out = null;
         try {
-          FileObject file = getContext().createResource(StandardLocation.SOURCE_OUTPUT, "juzu", "metamodel.ser");
-          out = new ObjectOutputStream(file.openOutputStream());
-          out.writeObject(state);
+          FileObject file = getContext().createResource(StandardLocation.SOURCE_OUTPUT, "juzu", STATE_NAME);
+          out = file.openOutputStream();
+          long time = -System.currentTimeMillis();
+          MetaModelStateCodec.encode(state, out);
+          time += System.currentTimeMillis();
+          log.log("Passivated model to " + file.toUri() + " in " + time + "ms");
           state = null;
         }
         catch (Exception e) {
@@ -139,7 +147,9 @@ public abstract class MetaModelProcessor extends BaseProcessor {
           if (supportedAnnotations.contains(annotationElt.getQualifiedName().toString())) {
             log.log("Processing elements for annotation for " + annotationElt.getQualifiedName());
             for (Element annotatedElt : roundEnv.getElementsAnnotatedWith(annotationElt)) {
-              if (annotatedElt.getAnnotation(Generated.class) == null) {
+              if (!ElementHandle.isSupported(annotatedElt.getKind())) {
+                log.log("Skipping element " + annotatedElt + " with kind " + annotatedElt.getKind());
+              } else if (annotatedElt.getAnnotation(Generated.class) == null) {
                 log.log("Processing element " + annotatedElt);
                 for (AnnotationMirror annotationMirror : annotatedElt.getAnnotationMirrors()) {
                   if (annotationMirror.getAnnotationType().asElement().equals(annotationElt)) {
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.metamodel;
+
+import juzu.impl.common.Name;
+import juzu.impl.common.Tools;
+import juzu.impl.compiler.ElementHandle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A compact and versioned binary encoding of the {@link MetaModelState}. The encoding relies on the Java
+ * serialization with the following changes:
+ *
+ * <ul>
+ *   <li>a header with a magic number and a version number, a state encoded with another version is rejected</li>
+ *   <li>class descriptors are encoded once with the class name, the serial version uid and the serializable
+ *   fields, a class that does not match its local version is rejected, further occurrences are encoded as a
+ *   reference to the class table</li>
+ *   <li>equal {@link Name} and {@link ElementHandle} instances are interned and encoded once</li>
+ *   <li>the stream is deflated</li>
+ * </ul>
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class MetaModelStateCodec {
+
+  /** . */
+  private static final int MAGIC = 0x4A5A4D4D;
+
+  /** The version must be increased when the encoding changes. */
+  public static final int VERSION = 2;
+
+  public static void encode(MetaModelState<?, ?> state, File f) throws IOException {
+    encode(state, new FileOutputStream(f));
+  }
+
+  public static MetaModelState<?, ?> decode(File f) throws IOException, ClassNotFoundException {
+    FileInputStream in = new FileInputStream(f);
+    try {
+      return decode(in);
+    }
+    finally {
+      Tools.safeClose(in);
+    }
+  }
+
+  /**
+   * Encode a state to a stream, the stream is closed by this method.
+   *
+   * @param state the state to encode
+   * @param out the output stream
+   * @throws IOException any io exception
+   */
+  public static void encode(MetaModelState<?, ?> state, OutputStream out) throws IOException {
+    write(state, out);
+  }
+
+  static void write(Object state, OutputStream out) throws IOException {
+    DataOutputStream header = new DataOutputStream(new BufferedOutputStream(out));
+    header.writeInt(MAGIC);
+    header.writeInt(VERSION);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      CompactOutputStream encoder = new CompactOutputStream(new DeflaterOutputStream(header, deflater, 4096));
+      encoder.writeObject(state);
+      encoder.close();
+    }
+    finally {
+      deflater.end();
+      Tools.safeClose(out);
+    }
+  }
+
+  /**
+   * Decode a state from a stream.
+   *
+   * @param in the input stream
+   * @return the decoded state
+   * @throws IOException any io exception, when the stream does not have the current version or when a class
+   * does not match the class that was encoded
+   * @throws ClassNotFoundException when a class cannot be loaded
+   */
+  public static MetaModelState<?, ?> decode(InputStream in) throws IOException, ClassNotFoundException {
+    return (MetaModelState<?, ?>)read(in);
+  }
+
+  static Object read(InputStream in) throws IOException, ClassNotFoundException {
+    DataInputStream header = new DataInputStream(new BufferedInputStream(in));
+    if (header.readInt() != MAGIC) {
+      throw new StreamCorruptedException("Not a meta model state");
+    }
+    int version = header.readInt();
+    if (version != VERSION) {
+      throw new StreamCorruptedException("Meta model state version " + version + " does not match the version " + VERSION);
+    }
+    Inflater inflater = new Inflater();
+    try {
+      CompactInputStream decoder = new CompactInputStream(new InflaterInputStream(header, inflater, 4096));
+      return decoder.readObject();
+    }
+    finally {
+      inflater.end();
+    }
+  }
+
+  private static String signature(ObjectStreamField field) {
+    String type = field.getTypeString();
+    return field.getName() + " " + (type != null ? type : String.valueOf(field.getTypeCode()));
+  }
+
+  private static class CompactOutputStream extends ObjectOutputStream {
+
+    /** . */
+    private final HashMap<String, Integer> classes = new HashMap<String, Integer>();
+
+    /** . */
+    private final HashMap<Object, Object> interned = new HashMap<Object, Object>();
+
+    private CompactOutputStream(OutputStream out) throws IOException {
+      super(out);
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+      String name = desc.getName();
+      Integer index = classes.get(name);
+      if (index == null) {
+        classes.put(name, classes.size());
+        writeInt(-1);
+        writeUTF(name);
+        writeLong(desc.getSerialVersionUID());
+        ObjectStreamField[] fields = desc.getFields();
+        writeInt(fields.length);
+        for (ObjectStreamField field : fields) {
+          writeUTF(signature(field));
+        }
+      } else {
+        writeInt(index);
+      }
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+      if (obj instanceof Name || obj instanceof ElementHandle<?>) {
+        Object existing = interned.get(obj);
+        if (existing == null) {
+          interned.put(obj, obj);
+        } else {
+          obj = existing;
+        }
+      }
+      return obj;
+    }
+  }
+
+  private static class CompactInputStream extends ObjectInputStream {
+
+    /** . */
+    private final ArrayList<ObjectStreamClass> classes = new ArrayList<ObjectStreamClass>();
+
+    private CompactInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+      int index = readInt();
+      if (index == -1) {
+        String name = readUTF();
+        long serialVersionUID = readLong();
+        String[] signatures = new String[readInt()];
+        for (int i = 0;i < signatures.length;i++) {
+          signatures[i] = readUTF();
+        }
+        ObjectStreamClass desc = ObjectStreamClass.lookup(load(name));
+        if (desc == null) {
+          throw new InvalidClassException(name, "class is not serializable");
+        }
+        if (desc.getSerialVersionUID() != serialVersionUID) {
+          throw new InvalidClassException(name, "serial version uid " + serialVersionUID + " does not match the local serial version uid " + desc.getSerialVersionUID());
+        }
+        ObjectStreamField[] fields = desc.getFields();
+        boolean match = fields.length == signatures.length;
+        for (int i = 0;match && i < signatures.length;i++) {
+          match = signatures[i].equals(signature(fields[i]));
+        }
+        if (!match) {
+          throw new InvalidClassException(name, "serializable fields " + Arrays.asList(signatures) + " do not match the local fields");
+        }
+        classes.add(desc);
+        return desc;
+      } else if (index >= 0 && index < classes.size()) {
+        return classes.get(index);
+      } else {
+        throw new StreamCorruptedException("Invalid class descriptor index " + index);
+      }
+    }
+
+    private Class<?> load(String name) throws ClassNotFoundException {
+      try {
+        return Class.forName(name, false, MetaModelStateCodec.class.getClassLoader());
+      }
+      catch (ClassNotFoundException e) {
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        if (tccl != null) {
+          return Class.forName(name, false, tccl);
+        } else {
+          throw e;
+        }
+      }
+    }
+  }
+}
@@ -16,6 +16,9 @@
 
 package juzu.impl.plugin;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * Base class for a plugin.
  *
@@ -34,6 +37,16 @@ public abstract class Plugin {
     return name;
   }
 
+  /**
+   * Returns the names of the plugins that must be initialized before this plugin, by default
+   * a plugin does not depend on other plugins and can be initialized concurrently.
+   *
+   * @return the plugin dependencies
+   */
+  public Set<String> getDependencies() {
+    return Collections.emptySet();
+  }
+
   /**
    * Returns the plugin descriptor or null if the plugin should not be loaded.
    *
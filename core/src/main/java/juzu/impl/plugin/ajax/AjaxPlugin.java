@@ -24,15 +24,19 @@ import juzu.impl.plugin.PluginDescriptor;
 import juzu.impl.plugin.PluginContext;
 import juzu.impl.asset.AssetManager;
 import juzu.impl.asset.AssetMetaData;
+import juzu.impl.bridge.spi.web.WebRequestBridge;
+import juzu.impl.common.Tools;
 import juzu.impl.plugin.application.ApplicationPlugin;
 import juzu.impl.plugin.controller.ControllerPlugin;
 import juzu.impl.request.Method;
 import juzu.impl.request.Request;
-import juzu.impl.request.RequestFilter;
+import juzu.impl.request.SelectiveRequestFilter;
 import juzu.io.Stream;
 import juzu.io.Streamable;
 import juzu.plugin.ajax.Ajax;
+import juzu.request.Phase;
 import juzu.request.RenderContext;
+import juzu.request.RequestParameter;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -41,15 +45,39 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class AjaxPlugin extends ApplicationPlugin implements RequestFilter {
+public class AjaxPlugin extends ApplicationPlugin implements SelectiveRequestFilter {
+
+  /** The property making the script fetch the table instead of rendering it in the page. */
+  static final String LAZY = "juzu.ajax.lazy";
+
+  /** The parameter requesting the table, its value is the table version. */
+  static final String TABLE = "juzu.ajax.table";
+
+  /** The maximum number of cached fragments. */
+  private static final int MAX_FRAGMENTS = 64;
 
   /** . */
   Map<String, Method> table;
 
+  /** . */
+  boolean lazy;
+
+  /** The encoded fragments rendered before the page, keyed by base URL and charset, the least recently used is evicted. */
+  private final LinkedHashMap<String, byte[]> fragments = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+      return size() > MAX_FRAGMENTS;
+    }
+  };
+
   @Inject
   ControllerPlugin controllerPlugin;
 
@@ -95,9 +123,39 @@ public class AjaxPlugin extends ApplicationPlugin implements RequestFilter {
 
     //
     this.table = table;
+    this.lazy = Boolean.getBoolean(LAZY);
+  }
+
+  public boolean accept(Method<?> method) {
+    return method.getPhase() == Phase.VIEW;
   }
 
   public void invoke(final Request request) {
+
+    // The bridge renders the same urls for the same base url
+    String key = null;
+    if (request.getBridge() instanceof WebRequestBridge) {
+      StringBuilder buffer = new StringBuilder();
+      try {
+        ((WebRequestBridge)request.getBridge()).renderRequestURL(buffer);
+      }
+      catch (IOException e) {
+        throw new AssertionError(e);
+      }
+      key = buffer.toString();
+    }
+
+    // Serve the table
+    RequestParameter requested = request.getParameters().get(TABLE);
+    if (key != null && requested != null) {
+      Map<String, String> urls = renderTable(request);
+      // The table url changes with the urls, so only the current version can be cached
+      String cacheControl = version(urls).equals(requested.getValue()) ? "max-age=31536000" : "no-cache";
+      request.setResponse(Response.json(urls).withHeader("Cache-Control", cacheControl));
+      return;
+    }
+
+    //
     request.invoke();
 
     //
@@ -113,6 +171,8 @@ public class AjaxPlugin extends ApplicationPlugin implements RequestFilter {
         properties.addValues(PropertyType.SCRIPT, "juzu.ajax");
 
         //
+        final Charset charset = render.getCharset() != null ? render.getCharset() : Tools.ISO_8859_1;
+        final String fragmentKey = key != null ? key + "|" + charset.name() : null;
         final Streamable decorated = (Streamable)render.getStreamable();
         Streamable decorator = new Streamable() {
 
@@ -121,17 +181,20 @@ public class AjaxPlugin extends ApplicationPlugin implements RequestFilter {
             // BUT THAT SHOULD BE REVISED TO USE THE ID INSTEAD
 
             //
-            stream.append("<div class=\"jz\">\n");
-
-            //
-            for (Map.Entry<String, Method> entry : table.entrySet()) {
-              String baseURL = request.getContext().createDispatch(entry.getValue()).toString();
-              stream.append("<div data-method-id=\"");
-              stream.append(entry.getValue().getId());
-              stream.append("\" data-url=\"");
-              stream.append(baseURL);
-              stream.append("\"/>");
-              stream.append("</div>");
+            if (fragmentKey != null) {
+              byte[] fragment;
+              synchronized (fragments) {
+                fragment = fragments.get(fragmentKey);
+              }
+              if (fragment == null) {
+                fragment = renderFragment(request, true).getBytes(charset);
+                synchronized (fragments) {
+                  fragments.put(fragmentKey, fragment);
+                }
+              }
+              stream.append(fragment);
+            } else {
+              stream.append(renderFragment(request, false));
             }
 
             // The page
@@ -192,4 +255,61 @@ public class AjaxPlugin extends ApplicationPlugin implements RequestFilter {
       }
     }
   }
+
+  /**
+   * Render the opening of the element wrapping the page, it carries the url of each ajax method or the url
+   * of the table when the table is fetched by the script.
+   *
+   * @param request the request
+   * @param cacheable true when the table can be served by the bridge
+   * @return the fragment
+   */
+  private String renderFragment(Request request, boolean cacheable) {
+    StringBuilder buffer = new StringBuilder("<div class=\"jz\"");
+    if (lazy && cacheable) {
+      Method index = controllerPlugin.getResolver().resolve(Phase.VIEW, Collections.<String>emptySet());
+      if (index == null) {
+        index = request.getContext().getMethod();
+      }
+      buffer.append(" data-table=\"");
+      buffer.append(request.getContext().createDispatch(index).setParameter(TABLE, version(renderTable(request))));
+      buffer.append("\">\n");
+    } else {
+      buffer.append(">\n");
+      for (Map.Entry<String, Method> entry : table.entrySet()) {
+        String baseURL = request.getContext().createDispatch(entry.getValue()).toString();
+        buffer.append("<div data-method-id=\"");
+        buffer.append(entry.getValue().getId());
+        buffer.append("\" data-url=\"");
+        buffer.append(baseURL);
+        buffer.append("\"/>");
+        buffer.append("</div>");
+      }
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Render the url of each ajax method.
+   *
+   * @param request the request
+   * @return the urls keyed by method id
+   */
+  private Map<String, String> renderTable(Request request) {
+    Map<String, String> urls = new HashMap<String, String>();
+    for (Method method : table.values()) {
+      urls.put(method.getId(), request.getContext().createDispatch(method).escapeXML(false).toString());
+    }
+    return urls;
+  }
+
+  /**
+   * Compute the version of a table from its urls, so it changes when a method or a route does.
+   *
+   * @param urls the table urls
+   * @return the version
+   */
+  static String version(Map<String, String> urls) {
+    return Integer.toHexString(new TreeMap<String, String>(urls).toString().hashCode());
+  }
 }
@@ -26,6 +26,7 @@ import juzu.impl.plugin.PluginDescriptor;
 import juzu.impl.common.Tools;
 import juzu.impl.fs.spi.ReadFileSystem;
 import juzu.impl.inject.BeanDescriptor;
+import juzu.impl.inject.BeanIndex;
 import juzu.impl.inject.spi.BeanLifeCycle;
 import juzu.impl.inject.spi.InjectionContext;
 import juzu.impl.inject.spi.Injector;
@@ -36,6 +37,7 @@ import juzu.impl.plugin.Plugin;
 import juzu.impl.plugin.PluginContext;
 import juzu.impl.plugin.application.descriptor.ApplicationDescriptor;
 import juzu.impl.plugin.asset.AssetPlugin;
+import juzu.impl.plugin.bean.BeanIndexDescriptor;
 import juzu.impl.plugin.module.ModuleLifeCycle;
 import juzu.impl.resource.ResourceResolver;
 
@@ -47,6 +49,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
 
@@ -102,6 +105,9 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
   /** . */
   private Map<String, PluginDescriptor> pluginDescriptors;
 
+  /** The init time in milliseconds of each plugin. */
+  private Map<String, Long> pluginTimings;
+
   public ApplicationLifeCycle(
       Logger log,
       ModuleLifeCycle<?> moduleLifeCycle,
@@ -141,6 +147,15 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
     return descriptor;
   }
 
+  /**
+   * Returns the init time in milliseconds of each plugin during the last start.
+   *
+   * @return the plugin timings
+   */
+  public Map<String, Long> getPluginTimings() {
+    return pluginTimings;
+  }
+
   public <P extends Plugin> P getPlugin(Class<P> pluginType) {
     try {
       BeanLifeCycle<P> pluginLifeCycle = injectionContext.get(pluginType);
@@ -209,7 +224,7 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
     };
 
     //
-    HashMap<String, PluginDescriptor> pluginDescriptors = new HashMap<String, PluginDescriptor>();
+    LinkedHashMap<ApplicationPlugin, PluginContext> pluginContexts = new LinkedHashMap<ApplicationPlugin, PluginContext>();
     for (final Map.Entry<ApplicationPlugin, JSON> entry : configs.entrySet()) {
       ApplicationPlugin plugin = entry.getKey();
       PluginContext pluginContext = new PluginContext() {
@@ -227,12 +242,13 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
         }
       };
       plugin.setApplication(descriptor);
-      PluginDescriptor pluginDescriptor = plugin.init(pluginContext);
-      if (pluginDescriptor != null) {
-        pluginDescriptors.put(plugin.getName(), pluginDescriptor);
-      }
+      pluginContexts.put(plugin, pluginContext);
     }
 
+    // Initialize the plugins concurrently when possible
+    PluginBootstrap bootstrap = new PluginBootstrap(log);
+    Map<String, PluginDescriptor> pluginDescriptors = bootstrap.init(pluginContexts);
+
     //
     for (Iterator<String> i = plugins.keySet().iterator();i.hasNext();) {
       String name = i.next();
@@ -246,6 +262,16 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
     injector.addFileSystem(classes);
     injector.setClassLoader(moduleLifeCycle.getClassLoader());
 
+    // Use the bean index when the application was compiled with a complete index
+    BeanIndex index = null;
+    PluginDescriptor beanDescriptor = pluginDescriptors.get("bean");
+    if (beanDescriptor instanceof BeanIndexDescriptor && ((BeanIndexDescriptor)beanDescriptor).getIndex().isComplete()) {
+      index = ((BeanIndexDescriptor)beanDescriptor).getIndex();
+      injector.setBeanIndex(index);
+    } else if (beanDescriptor instanceof BeanIndexDescriptor) {
+      log.log("Scanning " + descriptor.getName() + " classes as its bean index is not complete");
+    }
+
     //
     if (injector instanceof SpringInjector) {
       R springName = resources.getPath("spring.xml");
@@ -257,7 +283,7 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
 
     //
     log.log("Starting " + descriptor.getName());
-    InjectionContext<?, ?> injectionContext = doStart(descriptor, injector, plugins.values(), pluginDescriptors.values());
+    InjectionContext<?, ?> injectionContext = doStart(descriptor, injector, index, plugins.values(), pluginDescriptors.values());
 
     //
     AssetPlugin assetPlugin = injectionContext.get(AssetPlugin.class).get();
@@ -277,6 +303,7 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
     this.classLoader = moduleLifeCycle.getClassLoader();
     this.plugins = plugins;
     this.pluginDescriptors = pluginDescriptors;
+    this.pluginTimings = bootstrap.getTimings();
 
     // For application start (perhaps we could remove that)
     try {
@@ -290,6 +317,7 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
   private static <B, I> InjectionContext<B, I> doStart(
       final ApplicationDescriptor descriptor,
       Injector injector,
+      final BeanIndex index,
       Collection<ApplicationPlugin> plugins,
       Collection<PluginDescriptor> pluginDescriptors) {
 
@@ -324,35 +352,45 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
     // any class beginning with juzu. is refused
     // any class prefixed with the application package is accepted
     // any other application class is refused (i.e a class having an ancestor package annotated with @Application)
-    Filter<Class<?>> filter = new Filter<Class<?>>() {
-      HashSet<String> blackList = new HashSet<String>();
-      public boolean accept(Class<?> elt) {
-        if (elt.getName().startsWith("juzu.")) {
-          return false;
-        } else if (elt.getPackage().getName().startsWith(descriptor.getPackageName())) {
-          return true;
-        } else {
-          for (String currentPkg = elt.getPackage().getName();currentPkg != null;currentPkg = Tools.parentPackageOf(currentPkg)) {
-            if (blackList.contains(currentPkg)) {
-              return false;
-            } else {
-              try {
-                Class<?> packageClass = descriptor.getApplicationLoader().loadClass(currentPkg + ".package-info");
-                juzu.Application ann = packageClass.getAnnotation(juzu.Application.class);
-                if (ann != null) {
-                  blackList.add(currentPkg);
-                  return false;
+    // when the bean index is available, the index has already been computed with the same rules
+    Filter<Class<?>> filter;
+    if (index != null) {
+      filter = new Filter<Class<?>>() {
+        public boolean accept(Class<?> elt) {
+          return index.contains(elt.getName());
+        }
+      };
+    } else {
+      filter = new Filter<Class<?>>() {
+        HashSet<String> blackList = new HashSet<String>();
+        public boolean accept(Class<?> elt) {
+          if (elt.getName().startsWith("juzu.")) {
+            return false;
+          } else if (elt.getPackage().getName().startsWith(descriptor.getPackageName())) {
+            return true;
+          } else {
+            for (String currentPkg = elt.getPackage().getName();currentPkg != null;currentPkg = Tools.parentPackageOf(currentPkg)) {
+              if (blackList.contains(currentPkg)) {
+                return false;
+              } else {
+                try {
+                  Class<?> packageClass = descriptor.getApplicationLoader().loadClass(currentPkg + ".package-info");
+                  juzu.Application ann = packageClass.getAnnotation(juzu.Application.class);
+                  if (ann != null) {
+                    blackList.add(currentPkg);
+                    return false;
+                  }
+                }
+                catch (ClassNotFoundException e) {
+                  // Skip it
                 }
-              }
-              catch (ClassNotFoundException e) {
-                // Skip it
               }
             }
+            return true;
           }
-          return true;
         }
-      }
-    };
+      };
+    }
 
     //
     InjectionContext<B, I> injectionContext;
@@ -381,6 +419,7 @@ public class ApplicationLifeCycle<P, R> implements Closeable {
     classLoader = null;
     plugins = null;
     pluginDescriptors = null;
+    pluginTimings = null;
   }
 
   public void close() {
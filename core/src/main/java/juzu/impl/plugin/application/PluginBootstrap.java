@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.plugin.application;
+
+import juzu.impl.common.Logger;
+import juzu.impl.plugin.PluginContext;
+import juzu.impl.plugin.PluginDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initializes the application plugins, the plugins are initialized in waves: a plugin is initialized
+ * after the plugins it depends on and the plugins of the same wave are initialized concurrently.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class PluginBootstrap {
+
+  /** The default parallelism. */
+  public static final int DEFAULT_PARALLELISM = Integer.getInteger("juzu.plugin.parallelism", Runtime.getRuntime().availableProcessors());
+
+  /** . */
+  private final Logger log;
+
+  /** . */
+  private final int parallelism;
+
+  /** The init time in milliseconds of each plugin. */
+  private final LinkedHashMap<String, Long> timings;
+
+  public PluginBootstrap(Logger log) {
+    this(log, DEFAULT_PARALLELISM);
+  }
+
+  public PluginBootstrap(Logger log, int parallelism) {
+    this.log = log;
+    this.parallelism = parallelism;
+    this.timings = new LinkedHashMap<String, Long>();
+  }
+
+  /**
+   * Returns the init time in milliseconds of each plugin, the map is ordered by completion.
+   *
+   * @return the timings
+   */
+  public Map<String, Long> getTimings() {
+    return Collections.unmodifiableMap(timings);
+  }
+
+  /**
+   * Initialize the plugins.
+   *
+   * @param plugins the plugins to initialize with their context
+   * @return the descriptors of the plugins that should be loaded
+   * @throws Exception any exception thrown by a plugin
+   */
+  public Map<String, PluginDescriptor> init(Map<ApplicationPlugin, PluginContext> plugins) throws Exception {
+
+    // Compute the dependencies between the plugins
+    HashMap<String, ApplicationPlugin> byName = new HashMap<String, ApplicationPlugin>();
+    for (ApplicationPlugin plugin : plugins.keySet()) {
+      byName.put(plugin.getName(), plugin);
+    }
+    LinkedHashMap<ApplicationPlugin, Set<String>> remaining = new LinkedHashMap<ApplicationPlugin, Set<String>>();
+    for (ApplicationPlugin plugin : plugins.keySet()) {
+      HashSet<String> dependencies = new HashSet<String>(plugin.getDependencies());
+      dependencies.retainAll(byName.keySet());
+      remaining.put(plugin, dependencies);
+    }
+
+    //
+    final HashMap<String, PluginDescriptor> descriptors = new HashMap<String, PluginDescriptor>();
+    timings.clear();
+    ExecutorService executor = null;
+    long begin = System.currentTimeMillis();
+    try {
+      while (remaining.size() > 0) {
+
+        // Determine the next wave
+        ArrayList<ApplicationPlugin> wave = new ArrayList<ApplicationPlugin>();
+        for (Map.Entry<ApplicationPlugin, Set<String>> entry : remaining.entrySet()) {
+          if (entry.getValue().isEmpty()) {
+            wave.add(entry.getKey());
+          }
+        }
+        if (wave.isEmpty()) {
+          HashSet<String> names = new HashSet<String>();
+          for (ApplicationPlugin plugin : remaining.keySet()) {
+            names.add(plugin.getName());
+          }
+          throw new IllegalStateException("Circular dependencies between plugins " + names);
+        }
+
+        //
+        if (wave.size() == 1 || parallelism < 2) {
+          for (ApplicationPlugin plugin : wave) {
+            init(plugin, plugins.get(plugin), descriptors);
+          }
+        } else {
+          if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.min(parallelism, plugins.size()), new BootstrapThreadFactory());
+          }
+          List<Future<Void>> futures = new ArrayList<Future<Void>>(wave.size());
+          final ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+          for (final ApplicationPlugin plugin : wave) {
+            final PluginContext context = plugins.get(plugin);
+            futures.add(executor.submit(new Callable<Void>() {
+              public Void call() throws Exception {
+                Thread current = Thread.currentThread();
+                ClassLoader previous = current.getContextClassLoader();
+                current.setContextClassLoader(tccl);
+                try {
+                  init(plugin, context, descriptors);
+                }
+                finally {
+                  current.setContextClassLoader(previous);
+                }
+                return null;
+              }
+            }));
+          }
+          for (Future<Void> future : futures) {
+            try {
+              future.get();
+            }
+            catch (ExecutionException e) {
+              Throwable cause = e.getCause();
+              if (cause instanceof Exception) {
+                throw (Exception)cause;
+              } else if (cause instanceof Error) {
+                throw (Error)cause;
+              } else {
+                throw e;
+              }
+            }
+          }
+        }
+
+        // Update the dependencies
+        for (ApplicationPlugin plugin : wave) {
+          remaining.remove(plugin);
+          for (Set<String> dependencies : remaining.values()) {
+            dependencies.remove(plugin.getName());
+          }
+        }
+      }
+    }
+    finally {
+      if (executor != null) {
+        executor.shutdown();
+      }
+    }
+
+    //
+    log.log("Initialized plugins in " + (System.currentTimeMillis() - begin) + "ms " + timings);
+
+    //
+    return descriptors;
+  }
+
+  private void init(ApplicationPlugin plugin, PluginContext context, HashMap<String, PluginDescriptor> descriptors) throws Exception {
+    long begin = System.currentTimeMillis();
+    PluginDescriptor descriptor = plugin.init(context);
+    long time = System.currentTimeMillis() - begin;
+    synchronized (descriptors) {
+      if (descriptor != null) {
+        descriptors.put(plugin.getName(), descriptor);
+      }
+      timings.put(plugin.getName(), time);
+    }
+  }
+
+  private static class BootstrapThreadFactory implements ThreadFactory {
+
+    /** . */
+    private final AtomicInteger count = new AtomicInteger();
+
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "juzu-plugin-bootstrap-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
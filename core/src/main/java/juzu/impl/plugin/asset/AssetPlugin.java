@@ -27,7 +27,8 @@ import juzu.impl.plugin.PluginContext;
 import juzu.impl.plugin.application.Application;
 import juzu.impl.plugin.application.ApplicationPlugin;
 import juzu.impl.request.Request;
-import juzu.impl.request.RequestFilter;
+import juzu.impl.request.Method;
+import juzu.impl.request.SelectiveRequestFilter;
 import juzu.impl.common.JSON;
 import juzu.io.Streamable;
 import juzu.request.Phase;
@@ -41,7 +42,7 @@ import java.util.Collections;
 import java.util.List;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class AssetPlugin extends ApplicationPlugin implements RequestFilter {
+public class AssetPlugin extends ApplicationPlugin implements SelectiveRequestFilter {
 
   /** . */
   private String[] scripts;
@@ -188,6 +189,10 @@ public class AssetPlugin extends ApplicationPlugin implements RequestFilter {
     return assets.toArray(new String[assets.size()]);
   }
 
+  public boolean accept(Method<?> method) {
+    return method.getPhase() == Phase.VIEW && (scripts.length > 0 || stylesheets.length > 0);
+  }
+
   public void invoke(Request request) {
     request.invoke();
 
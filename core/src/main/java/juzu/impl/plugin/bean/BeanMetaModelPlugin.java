@@ -0,0 +1,376 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.plugin.bean;
+
+import juzu.FlashScoped;
+import juzu.IdentityScoped;
+import juzu.RequestScoped;
+import juzu.SessionScoped;
+import juzu.impl.common.JSON;
+import juzu.impl.common.Name;
+import juzu.impl.compiler.ElementHandle;
+import juzu.impl.compiler.ProcessingContext;
+import juzu.impl.metamodel.AnnotationChange;
+import juzu.impl.metamodel.AnnotationKey;
+import juzu.impl.metamodel.AnnotationState;
+import juzu.impl.plugin.application.metamodel.ApplicationMetaModel;
+import juzu.impl.plugin.application.metamodel.ApplicationMetaModelPlugin;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Qualifier;
+import javax.inject.Singleton;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Computes the application bean index at compilation time, the index is emitted in the application config
+ * and used by the injector at runtime instead of scanning the application classes.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class BeanMetaModelPlugin extends ApplicationMetaModelPlugin {
+
+  /** The scope annotations. */
+  private static final Map<Name, String> SCOPES = new HashMap<Name, String>();
+
+  static {
+    SCOPES.put(Name.create(Singleton.class), "singleton");
+    SCOPES.put(Name.create(RequestScoped.class), "request");
+    SCOPES.put(Name.create(SessionScoped.class), "session");
+    SCOPES.put(Name.create(FlashScoped.class), "flash");
+    SCOPES.put(Name.create(IdentityScoped.class), "identity");
+  }
+
+  /** . */
+  private static final Name INJECT = Name.create(Inject.class);
+
+  /** The injection point types wrapping the injected type. */
+  private static final Set<String> PROVIDERS = new HashSet<String>();
+
+  static {
+    PROVIDERS.add("javax.inject.Provider");
+    PROVIDERS.add("javax.enterprise.inject.Instance");
+  }
+
+  /** The contributions to the index per application. */
+  private final Map<ElementHandle.Package, LinkedHashMap<AnnotationKey, Contribution>> state = new HashMap<ElementHandle.Package, LinkedHashMap<AnnotationKey, Contribution>>();
+
+  /** The concrete classes of the application package per application, keyed by binary name. */
+  private final Map<ElementHandle.Package, TreeMap<String, ElementHandle.Class>> classes = new HashMap<ElementHandle.Package, TreeMap<String, ElementHandle.Class>>();
+
+  /** The qualifiers of the concrete classes of the application package per application, keyed by binary name. */
+  private final Map<ElementHandle.Package, HashMap<String, ArrayList<String>>> qualifiers = new HashMap<ElementHandle.Package, HashMap<String, ArrayList<String>>>();
+
+  public BeanMetaModelPlugin() {
+    super("bean");
+  }
+
+  @Override
+  public Set<Class<? extends Annotation>> init(ProcessingContext env) {
+    HashSet<Class<? extends Annotation>> annotationTypes = new HashSet<Class<? extends Annotation>>();
+    annotationTypes.add(Inject.class);
+    annotationTypes.add(Named.class);
+    annotationTypes.add(Singleton.class);
+    annotationTypes.add(RequestScoped.class);
+    annotationTypes.add(SessionScoped.class);
+    annotationTypes.add(FlashScoped.class);
+    annotationTypes.add(IdentityScoped.class);
+    return annotationTypes;
+  }
+
+  @Override
+  public void processAnnotationChange(ApplicationMetaModel metaModel, AnnotationChange change) {
+    // Beans are also accepted from the packages that don't belong to any application
+    Name pkg = change.getKey().getElement().getPackage();
+    if (metaModel.getHandle().getPackage().isPrefix(pkg) || getOwner(metaModel, pkg) == null) {
+      if (change.getAdded() == null) {
+        processAnnotationRemoved(metaModel, change.getKey(), change.getRemoved());
+      } else {
+        processAnnotationAdded(metaModel, change.getKey(), change.getAdded());
+      }
+    }
+  }
+
+  @Override
+  public void processAnnotationAdded(ApplicationMetaModel metaModel, AnnotationKey key, AnnotationState added) {
+    ProcessingContext env = metaModel.model.processingContext;
+    Element elt = env.get(key.getElement());
+    if (elt != null) {
+      Contribution contribution = new Contribution();
+      Name type = key.getType();
+      if (elt.getKind() == ElementKind.CLASS) {
+        contribution.type = env.getBinaryName((TypeElement)elt).toString();
+        contribution.qualifiers = getQualifiers(env, (TypeElement)elt);
+        if (SCOPES.containsKey(type)) {
+          contribution.scope = SCOPES.get(type);
+        }
+      } else if (INJECT.equals(type)) {
+        contribution.type = env.getBinaryName((TypeElement)elt.getEnclosingElement()).toString();
+        if (elt instanceof VariableElement) {
+          addInjected(env, metaModel, contribution, elt.asType());
+        } else if (elt instanceof ExecutableElement) {
+          for (VariableElement parameterElt : ((ExecutableElement)elt).getParameters()) {
+            addInjected(env, metaModel, contribution, parameterElt.asType());
+          }
+        }
+      }
+      if (contribution.type != null) {
+        getContributions(metaModel).put(key, contribution);
+      }
+    }
+  }
+
+  @Override
+  public void processAnnotationRemoved(ApplicationMetaModel metaModel, AnnotationKey key, AnnotationState removed) {
+    getContributions(metaModel).remove(key);
+  }
+
+  @Override
+  public void postProcessAnnotations(ApplicationMetaModel metaModel) {
+    ProcessingContext env = metaModel.model.processingContext;
+    TreeMap<String, ElementHandle.Class> applicationClasses = classes.get(metaModel.getHandle());
+    if (applicationClasses == null) {
+      classes.put(metaModel.getHandle(), applicationClasses = new TreeMap<String, ElementHandle.Class>());
+    }
+    HashMap<String, ArrayList<String>> applicationQualifiers = qualifiers.get(metaModel.getHandle());
+    if (applicationQualifiers == null) {
+      qualifiers.put(metaModel.getHandle(), applicationQualifiers = new HashMap<String, ArrayList<String>>());
+    }
+
+    // Forget the removed classes
+    for (Iterator<Map.Entry<String, ElementHandle.Class>> i = applicationClasses.entrySet().iterator();i.hasNext();) {
+      Map.Entry<String, ElementHandle.Class> entry = i.next();
+      if (env.get(entry.getValue()) == null) {
+        applicationQualifiers.remove(entry.getKey());
+        i.remove();
+      }
+    }
+
+    // Any class of the application package can be a bean even without annotations (an implementation
+    // of an injected interface, a producer, a request filter, ...) so we record the classes of this round,
+    // the classes of the previous compilations are kept by the persisted state
+    Name pkg = metaModel.getHandle().getPackage();
+    for (Element rootElt : env.getRootElements()) {
+      if (rootElt instanceof TypeElement && pkg.isPrefix(Name.parse(env.getPackageOf(rootElt).getQualifiedName()))) {
+        addClasses(env, applicationClasses, applicationQualifiers, (TypeElement)rootElt);
+      }
+    }
+  }
+
+  private void addClasses(
+      ProcessingContext env,
+      TreeMap<String, ElementHandle.Class> applicationClasses,
+      HashMap<String, ArrayList<String>> applicationQualifiers,
+      TypeElement typeElt) {
+    String fqn = env.getBinaryName(typeElt).toString();
+    applicationQualifiers.remove(fqn);
+    if (typeElt.getKind() == ElementKind.CLASS && !typeElt.getModifiers().contains(Modifier.ABSTRACT)) {
+      applicationClasses.put(fqn, ElementHandle.Class.create(typeElt));
+      ArrayList<String> typeQualifiers = getQualifiers(env, typeElt);
+      if (typeQualifiers != null) {
+        applicationQualifiers.put(fqn, typeQualifiers);
+      }
+    } else {
+      applicationClasses.remove(fqn);
+    }
+    for (Element enclosedElt : typeElt.getEnclosedElements()) {
+      if (enclosedElt instanceof TypeElement && enclosedElt.getModifiers().contains(Modifier.STATIC)) {
+        addClasses(env, applicationClasses, applicationQualifiers, (TypeElement)enclosedElt);
+      }
+    }
+  }
+
+  /**
+   * Returns the names of the annotations of a type that are annotated by {@link Qualifier} or null when the
+   * type has no qualifier.
+   */
+  private static ArrayList<String> getQualifiers(ProcessingContext env, TypeElement typeElt) {
+    ArrayList<String> typeQualifiers = null;
+    for (AnnotationMirror annotation : typeElt.getAnnotationMirrors()) {
+      TypeElement annotationElt = (TypeElement)annotation.getAnnotationType().asElement();
+      if (annotationElt.getAnnotation(Qualifier.class) != null) {
+        if (typeQualifiers == null) {
+          typeQualifiers = new ArrayList<String>();
+        }
+        typeQualifiers.add(env.getBinaryName(annotationElt).toString());
+      }
+    }
+    return typeQualifiers;
+  }
+
+  private LinkedHashMap<AnnotationKey, Contribution> getContributions(ApplicationMetaModel metaModel) {
+    LinkedHashMap<AnnotationKey, Contribution> contributions = state.get(metaModel.getHandle());
+    if (contributions == null) {
+      state.put(metaModel.getHandle(), contributions = new LinkedHashMap<AnnotationKey, Contribution>());
+    }
+    return contributions;
+  }
+
+  /**
+   * Add an injection point type to the contribution when this type can be a bean discovered by the injector,
+   * the contribution is marked as open when the beans of this type cannot be determined at compilation time.
+   */
+  private void addInjected(ProcessingContext env, ApplicationMetaModel metaModel, Contribution contribution, TypeMirror injectedType) {
+    if (injectedType.getKind() == TypeKind.DECLARED) {
+      DeclaredType declaredType = (DeclaredType)injectedType;
+      TypeElement injectedElt = (TypeElement)declaredType.asElement();
+      String fqn = env.getBinaryName(injectedElt).toString();
+      if (PROVIDERS.contains(fqn)) {
+        if (declaredType.getTypeArguments().size() == 1) {
+          addInjected(env, metaModel, contribution, declaredType.getTypeArguments().get(0));
+        }
+      } else if (!fqn.startsWith("java.") && !fqn.startsWith("javax.") && !fqn.startsWith("juzu.")) {
+        Name pkg = Name.parse(env.getPackageOf(injectedElt).getQualifiedName());
+        ApplicationMetaModel owner = getOwner(metaModel, pkg);
+        if (owner == null || owner == metaModel) {
+          if (injectedElt.getKind() == ElementKind.CLASS && !injectedElt.getModifiers().contains(Modifier.ABSTRACT)) {
+            if (contribution.injected == null) {
+              contribution.injected = new LinkedHashMap<String, ArrayList<String>>();
+            }
+            contribution.injected.put(fqn, getQualifiers(env, injectedElt));
+          } else if (owner == null) {
+            // The implementations of a type outside of the application package are unknown
+            contribution.open = true;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the application owning the specified package or null.
+   */
+  private ApplicationMetaModel getOwner(ApplicationMetaModel metaModel, Name pkg) {
+    for (ApplicationMetaModel application : metaModel.model.getChildren(ApplicationMetaModel.class)) {
+      if (application.getHandle().getPackage().isPrefix(pkg)) {
+        return application;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void destroy(ApplicationMetaModel application) {
+    state.remove(application.getHandle());
+    classes.remove(application.getHandle());
+    qualifiers.remove(application.getHandle());
+  }
+
+  @Override
+  public JSON getDescriptor(ApplicationMetaModel application) {
+    LinkedHashMap<AnnotationKey, Contribution> contributions = state.get(application.getHandle());
+    TreeMap<String, ElementHandle.Class> applicationClasses = classes.get(application.getHandle());
+    HashMap<String, ArrayList<String>> applicationQualifiers = qualifiers.get(application.getHandle());
+    if ((contributions == null || contributions.isEmpty()) && (applicationClasses == null || applicationClasses.isEmpty())) {
+      return null;
+    }
+
+    // Merge the classes and the contributions per type and sort them for a stable output
+    Name pkg = application.getHandle().getPackage();
+    TreeMap<String, JSON> beans = new TreeMap<String, JSON>();
+    boolean complete = true;
+    if (applicationClasses != null) {
+      for (String type : applicationClasses.keySet()) {
+        JSON bean = getBean(beans, pkg, type);
+        if (applicationQualifiers != null) {
+          addQualifiers(bean, applicationQualifiers.get(type));
+        }
+      }
+    }
+    for (Contribution contribution : contributions != null ? contributions.values() : Collections.<Contribution>emptyList()) {
+      complete &= !contribution.open;
+      JSON bean = getBean(beans, pkg, contribution.type);
+      if (contribution.scope != null) {
+        bean.set("scope", contribution.scope);
+      }
+      addQualifiers(bean, contribution.qualifiers);
+      if (contribution.injected != null) {
+        for (Map.Entry<String, ArrayList<String>> injected : contribution.injected.entrySet()) {
+          addQualifiers(getBean(beans, pkg, injected.getKey()), injected.getValue());
+        }
+      }
+    }
+
+    //
+    return new JSON().set("complete", complete).set("beans", new ArrayList<JSON>(beans.values()));
+  }
+
+  private JSON getBean(TreeMap<String, JSON> beans, Name pkg, String type) {
+    JSON bean = beans.get(type);
+    if (bean == null) {
+      bean = new JSON().set("type", type).set("application", pkg.isPrefix(Name.parse(type).getParent()));
+      beans.put(type, bean);
+    }
+    return bean;
+  }
+
+  private void addQualifiers(JSON bean, ArrayList<String> qualifiers) {
+    if (qualifiers != null) {
+      List<? extends String> existing = bean.getList("qualifiers", String.class);
+      LinkedHashSet<String> merged = new LinkedHashSet<String>();
+      if (existing != null) {
+        merged.addAll(existing);
+      }
+      merged.addAll(qualifiers);
+      bean.set("qualifiers", new ArrayList<Object>(merged));
+    }
+  }
+
+  /**
+   * What an annotation contributes to the index.
+   */
+  private static class Contribution implements Serializable {
+
+    /** The bean type. */
+    String type;
+
+    /** The declared scope. */
+    String scope;
+
+    /** The declared qualifiers. */
+    ArrayList<String> qualifiers;
+
+    /** The injection point types and their qualifiers. */
+    LinkedHashMap<String, ArrayList<String>> injected;
+
+    /** True when an injection point type has implementations unknown to the index. */
+    boolean open;
+
+  }
+}
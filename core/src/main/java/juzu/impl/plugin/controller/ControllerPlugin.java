@@ -35,6 +35,7 @@ import juzu.impl.request.ControlParameter;
 import juzu.impl.request.Method;
 import juzu.impl.request.Request;
 import juzu.impl.request.RequestFilter;
+import juzu.impl.request.SelectiveRequestFilter;
 import juzu.request.RequestParameter;
 import juzu.request.ActionContext;
 import juzu.request.ApplicationContext;
@@ -49,17 +50,22 @@ import juzu.request.UserContext;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class ControllerPlugin extends ApplicationPlugin implements RequestFilter {
+public class ControllerPlugin extends ApplicationPlugin implements SelectiveRequestFilter {
 
   /** . */
   private ControllersDescriptor descriptor;
 
   /** . */
-  public ArrayList<RequestFilter> filters;
+  private volatile List<RequestFilter> filters;
+
+  /** The filter chain of each method. */
+  private volatile Map<Method<?>, RequestFilter[]> chains;
 
   @Inject
   private InjectionContext injectionContext;
@@ -86,24 +92,65 @@ public class ControllerPlugin extends ApplicationPlugin implements RequestFilter
   }
 
   public List<RequestFilter> getFilters() {
-    try {
-      return getLifecycles(injectionContext);
+    List<RequestFilter> filters = this.filters;
+    if (filters == null) {
+      synchronized (this) {
+        if ((filters = this.filters) == null) {
+          try {
+            this.filters = filters = Collections.unmodifiableList(getLifecycles(injectionContext));
+          }
+          catch (Exception e) {
+            throw new UnsupportedOperationException("handle me cracefully", e);
+          }
+        }
+      }
+    }
+    return filters;
+  }
+
+  /**
+   * Returns the filter chain of a method, the chains of all methods are built once.
+   *
+   * @param method the method
+   * @return the filter chain
+   */
+  public RequestFilter[] getFilters(Method<?> method) {
+    Map<Method<?>, RequestFilter[]> chains = this.chains;
+    if (chains == null) {
+      synchronized (this) {
+        if ((chains = this.chains) == null) {
+          HashMap<Method<?>, RequestFilter[]> tmp = new HashMap<Method<?>, RequestFilter[]>();
+          for (Method<?> m : descriptor.getMethods()) {
+            tmp.put(m, createChain(m));
+          }
+          this.chains = chains = tmp;
+        }
+      }
     }
-    catch (Exception e) {
-      throw new UnsupportedOperationException("handle me cracefully", e);
+    RequestFilter[] chain = chains.get(method);
+    if (chain == null) {
+      chain = createChain(method);
     }
+    return chain;
+  }
+
+  private RequestFilter[] createChain(Method<?> method) {
+    ArrayList<RequestFilter> chain = new ArrayList<RequestFilter>();
+    for (RequestFilter filter : getFilters()) {
+      if (!(filter instanceof SelectiveRequestFilter) || ((SelectiveRequestFilter)filter).accept(method)) {
+        chain.add(filter);
+      }
+    }
+    return chain.toArray(new RequestFilter[chain.size()]);
   }
 
   // This is done lazyly to avoid circular references issues
   private <B, I> ArrayList<RequestFilter> getLifecycles(InjectionContext<B, I> manager) throws Exception {
-    if (filters == null) {
-      ArrayList<RequestFilter> filters = new ArrayList<RequestFilter>();
-      for (B lifeCycleBean : manager.resolveBeans(RequestFilter.class)) {
-        I lifeCycleInstance = manager.create(lifeCycleBean);
-        RequestFilter filter = (RequestFilter)manager.get(lifeCycleBean, lifeCycleInstance);
-        filters.add(filter);
-      }
-      this.filters = filters;
+    ArrayList<RequestFilter> filters = new ArrayList<RequestFilter>();
+    for (B lifeCycleBean : manager.resolveBeans(RequestFilter.class)) {
+      I lifeCycleInstance = manager.create(lifeCycleBean);
+      RequestFilter filter = (RequestFilter)manager.get(lifeCycleBean, lifeCycleInstance);
+      filters.add(filter);
     }
     return filters;
   }
@@ -186,6 +233,15 @@ public class ControllerPlugin extends ApplicationPlugin implements RequestFilter
     }
   }
 
+  public boolean accept(Method<?> method) {
+    for (ControlParameter parameter : method.getParameters()) {
+      if (parameter instanceof ContextualParameter) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public void invoke(Request request) {
     // Inject RequestContext in the arguments
     RequestContext context = request.getContext();
@@ -72,6 +72,9 @@ public abstract class ModuleLifeCycle<C> {
 
   public static class Dynamic<S> extends ModuleLifeCycle<String[]> {
 
+    /** The number of threads copying resources. */
+    private static final int COPY_PARALLELISM = Integer.getInteger("juzu.copy.parallelism", Runtime.getRuntime().availableProcessors());
+
     /** . */
     private final ClassLoader baseClassLoader;
 
@@ -91,7 +94,7 @@ public abstract class ModuleLifeCycle<C> {
     private ClassLoader devClassLoader;
 
     /** . */
-    private ReadFileSystem<String[]> classes;
+    private RAMFileSystem classes;
 
     /** . */
     private boolean failed;
@@ -138,14 +141,14 @@ public abstract class ModuleLifeCycle<C> {
         //
         ReadFileSystem<S> sourcePath = scanner.getFileSystem();
 
-        // Copy everything that is not a java source
-        RAMFileSystem classOutput = new RAMFileSystem();
-        sourcePath.copy(new Filter.Default() {
+        // Copy everything that is not a java source, unchanged contents are reused from the previous build
+        RAMFileSystem classOutput = new RAMFileSystem(classes);
+        sourcePath.copy(new Filter.Default<S>() {
           @Override
-          public boolean acceptFile(Object file, String name) throws IOException {
+          public boolean acceptFile(S file, String name) throws IOException {
             return !name.endsWith(".java");
           }
-        }, classOutput);
+        }, classOutput, COPY_PARALLELISM);
 
         //
         Compiler compiler = Compiler.
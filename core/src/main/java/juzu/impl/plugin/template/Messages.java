@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.plugin.template;
+
+import juzu.impl.template.spi.juzu.dialect.gtmpl.MessageKey;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * The messages of a locale flattened from a resource bundle. The resolved messages are kept in an array indexed by
+ * the {@link MessageKey#getIndex(MessageKey.Index) message key index} so the messages of a template are resolved
+ * once per locale, the index is shared by the messages of the same template plugin.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public final class Messages {
+
+  /** Messages resolving any key to the empty string. */
+  public static final Messages EMPTY = new Messages(Collections.<String, String>emptyMap(), null);
+
+  /** . */
+  private final Map<String, String> values;
+
+  /** . */
+  private final MessageKey.Index index;
+
+  /** . */
+  private volatile String[] resolved;
+
+  public Messages(ResourceBundle bundle, MessageKey.Index index) {
+    this(flatten(bundle), index);
+  }
+
+  private Messages(Map<String, String> values, MessageKey.Index index) {
+    this.values = values;
+    this.index = index;
+    this.resolved = new String[0];
+  }
+
+  private static Map<String, String> flatten(ResourceBundle bundle) {
+    HashMap<String, String> values = new HashMap<String, String>();
+    for (Enumeration<String> e = bundle.getKeys();e.hasMoreElements();) {
+      String key = e.nextElement();
+      Object value = bundle.getObject(key);
+      if (value instanceof String) {
+        values.put(key, (String)value);
+      }
+    }
+    return Collections.unmodifiableMap(values);
+  }
+
+  /**
+   * Resolve a message.
+   *
+   * @param key the message key
+   * @return the message or the empty string when the message does not exist
+   */
+  public String resolve(MessageKey key) {
+    if (values.isEmpty()) {
+      return "";
+    }
+    int index = key.getIndex(this.index);
+    String[] resolved = this.resolved;
+    String value;
+    if (index < resolved.length && (value = resolved[index]) != null) {
+      return value;
+    }
+    value = values.get(key.getValue());
+    if (value == null) {
+      value = "";
+    }
+    synchronized (this) {
+      resolved = this.resolved;
+      if (index >= resolved.length) {
+        String[] tmp = new String[Math.max(index + 1, resolved.length * 2)];
+        System.arraycopy(resolved, 0, tmp, 0, resolved.length);
+        resolved = tmp;
+      } else {
+        resolved = resolved.clone();
+      }
+      resolved[index] = value;
+      this.resolved = resolved;
+    }
+    return value;
+  }
+}
@@ -21,12 +21,18 @@ import juzu.impl.plugin.PluginContext;
 import juzu.impl.plugin.application.Application;
 import juzu.impl.plugin.application.ApplicationPlugin;
 import juzu.impl.plugin.template.metadata.TemplateDescriptor;
+import juzu.impl.template.spi.Formatters;
+import juzu.impl.template.spi.FragmentCache;
 import juzu.impl.template.spi.TemplateStub;
+import juzu.impl.template.spi.juzu.dialect.gtmpl.MessageKey;
 import juzu.impl.plugin.template.metadata.TemplatesDescriptor;
 import juzu.impl.common.Path;
+import juzu.request.ApplicationContext;
 
 import javax.inject.Inject;
 import java.lang.reflect.Constructor;
+import java.util.Locale;
+import java.util.ResourceBundle;
 import java.util.concurrent.ConcurrentHashMap;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
@@ -38,6 +44,18 @@ public class TemplatePlugin extends ApplicationPlugin {
   /** . */
   private final ConcurrentHashMap<Path, TemplateStub> stubs;
 
+  /** . */
+  private final ConcurrentHashMap<Locale, Messages> messages;
+
+  /** The message key indexes shared by the messages of all locales. */
+  private final MessageKey.Index messageIndex;
+
+  /** . */
+  private volatile Formatters formatters;
+
+  /** . */
+  private final FragmentCache fragments;
+
   @Inject
   Application application;
 
@@ -46,6 +64,9 @@ public class TemplatePlugin extends ApplicationPlugin {
 
     //
     this.stubs = new ConcurrentHashMap<Path, TemplateStub>();
+    this.messages = new ConcurrentHashMap<Locale, Messages>();
+    this.messageIndex = new MessageKey.Index();
+    this.fragments = new FragmentCache();
   }
 
   public TemplatesDescriptor getDescriptor() {
@@ -88,4 +109,48 @@ public class TemplatePlugin extends ApplicationPlugin {
     //
     return stub;
   }
+
+  /**
+   * Resolve the messages of a locale, the messages are cached for the life time of the application.
+   *
+   * @param locale the locale
+   * @param context the application context providing the bundle
+   * @return the messages
+   */
+  public Messages resolveMessages(Locale locale, ApplicationContext context) {
+    Messages resolved = messages.get(locale);
+    if (resolved == null) {
+      if (context == null) {
+        return Messages.EMPTY;
+      }
+      ResourceBundle bundle = context.resolveBundle(locale);
+      resolved = bundle != null ? new Messages(bundle, messageIndex) : Messages.EMPTY;
+      Messages phantom = messages.putIfAbsent(locale, resolved);
+      if (phantom != null) {
+        resolved = phantom;
+      }
+    }
+    return resolved;
+  }
+
+  /**
+   * Returns the formatters declared by the application.
+   *
+   * @return the formatters
+   */
+  public Formatters getFormatters() {
+    if (formatters == null) {
+      formatters = Formatters.load(application.getClassLoader());
+    }
+    return formatters;
+  }
+
+  /**
+   * Returns the cache of the fragments rendered by the <code>#{cache}</code> tag.
+   *
+   * @return the fragment cache
+   */
+  public FragmentCache getFragmentCache() {
+    return fragments;
+  }
 }
@@ -30,11 +30,13 @@ import juzu.impl.common.Resource;
 import juzu.impl.template.spi.TemplateProvider;
 import juzu.impl.template.spi.ProcessContext;
 import juzu.impl.template.spi.Template;
+import juzu.impl.template.spi.TemplateException;
 import juzu.impl.common.Content;
 import juzu.impl.common.MethodInvocation;
 import juzu.impl.common.Path;
 
 import javax.tools.FileObject;
+import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -44,22 +46,44 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 class ModelTemplateProcessContext extends ProcessContext {
 
+  /** A template parsed ahead of its processing. */
+  static class Parsed {
+
+    /** . */
+    final Resource<Timestamped<Content>> resource;
+
+    /** . */
+    final Future<? extends Serializable> model;
+
+    Parsed(Resource<Timestamped<Content>> resource, Future<? extends Serializable> model) {
+      this.resource = resource;
+      this.model = model;
+    }
+  }
+
   /** . */
   private TemplateMetaModel templateMetaModel;
 
   /** . */
   private final ProcessingContext env;
 
+  /** . */
+  private final Map<Path.Relative, Parsed> parsed;
+
   ModelTemplateProcessContext(
     TemplateMetaModel templateMetaModel,
     Map<Path, Template<?>> templates,
+    Map<Path.Relative, Parsed> parsed,
     ProcessingContext env) {
     super(templates);
     this.templateMetaModel = templateMetaModel;
+    this.parsed = parsed;
     this.env = env;
   }
 
@@ -101,13 +125,45 @@ class ModelTemplateProcessContext extends ProcessContext {
     return new MethodInvocation(method.getController().getHandle().getFQN() + "_", method.getName(), args);
   }
 
+  @Override
+  protected <M extends Serializable> M parse(Path.Relative path, TemplateProvider<M> provider, Content content) throws TemplateException {
+    Parsed p = parsed.get(path);
+    if (p != null && p.resource.content.getObject() == content) {
+      try {
+        return (M)p.model.get();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof TemplateException) {
+          throw (TemplateException)cause;
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException)cause;
+        } else if (cause instanceof Error) {
+          throw (Error)cause;
+        }
+      }
+    }
+    return super.parse(path, provider, content);
+  }
+
   @Override
   protected Resource<Timestamped<Content>> resolveResource(Path.Relative path) {
-    TemplatesMetaModel tmm = templateMetaModel.getTemplates();
+    Parsed p = parsed.get(path);
+    if (p != null) {
+      return p.resource;
+    } else {
+      return resolveResource(templateMetaModel.getTemplates(), path, env);
+    }
+  }
+
+  static Resource<Timestamped<Content>> resolveResource(TemplatesMetaModel tmm, Path.Relative path, ProcessingContext env) {
     FileObject resource = tmm.application.resolveResource(TemplatesMetaModel.LOCATION, path);
     if (resource != null) {
       try {
-        Path.Absolute foo = templateMetaModel.getTemplates().resolvePath(path);
+        Path.Absolute foo = tmm.resolvePath(path);
         byte[] bytes = Tools.bytes(resource.openInputStream());
         long lastModified = resource.getLastModified();
         Timestamped<Content> content = new Timestamped<Content>(lastModified, new Content(bytes, Charset.defaultCharset()));
@@ -54,6 +54,9 @@ public class TemplateMetaModel extends MetaModelObject {
   /** . */
   public static final MessageCode TEMPLATE_ILLEGAL_PATH = new MessageCode("TEMPLATE_ILLEGAL_PATH", "The reference to the template %1$s is malformed");
 
+  /** . */
+  public static final MessageCode TEMPLATE_ILLEGAL_TAG_ARGUMENT = new MessageCode("TEMPLATE_ILLEGAL_TAG_ARGUMENT", "The value %1$s of the %2$s argument of the %3$s tag in template %4$s is not valid");
+
   /** . */
   public static final MessageCode CANNOT_WRITE_TEMPLATE_SCRIPT = new MessageCode("CANNOT_WRITE_TEMPLATE_SCRIPT", "The template script %1$s cannot be written");
 
@@ -16,13 +16,18 @@
 
 package juzu.impl.plugin.template.metamodel;
 
+import juzu.impl.common.Content;
 import juzu.impl.common.Name;
 import juzu.impl.common.FileKey;
 import juzu.impl.plugin.application.metamodel.ApplicationMetaModel;
 import juzu.impl.compiler.BaseProcessor;
 import juzu.impl.compiler.ProcessingException;
 import juzu.impl.compiler.ElementHandle;
+import juzu.impl.common.Resource;
+import juzu.impl.common.Timestamped;
 import juzu.impl.template.spi.EmitContext;
+import juzu.impl.template.spi.ParseContext;
+import juzu.impl.template.spi.TemplateException;
 import juzu.impl.template.spi.TemplateProvider;
 import juzu.impl.template.spi.Template;
 import juzu.impl.plugin.template.TemplatePlugin;
@@ -34,19 +39,37 @@ import juzu.impl.common.Tools;
 import javax.annotation.Generated;
 import javax.lang.model.element.Element;
 import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.io.Writer;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The template repository.
@@ -58,6 +81,12 @@ public class TemplateResolver implements Serializable {
   /** . */
   private static final Logger log = BaseProcessor.getLogger(TemplateResolver.class);
 
+  /** The system property configuring the number of threads parsing and emitting templates, it defaults to the number of processors. */
+  public static final String PARALLELISM = "juzu.template.parallelism";
+
+  /** . */
+  private transient int parallelism;
+
   /** . */
   private final ApplicationMetaModel application;
 
@@ -70,6 +99,9 @@ public class TemplateResolver implements Serializable {
   /** . */
   private Map<Path.Relative, FileObject> classCache;
 
+  /** The files generated by the templates emitted in a previous build. */
+  private Map<Path.Relative, Set<FileKey>> generated;
+
   public TemplateResolver(ApplicationMetaModel application) {
     if (application == null) {
       throw new NullPointerException();
@@ -77,9 +109,25 @@ public class TemplateResolver implements Serializable {
 
     //
     this.application = application;
+    this.parallelism = getDefaultParallelism();
     this.templates = new HashMap<Path.Relative, Template<?>>();
     this.emitted = new HashSet<Path.Relative>();
     this.classCache = new HashMap<Path.Relative, FileObject>();
+    this.generated = new HashMap<Path.Relative, Set<FileKey>>();
+  }
+
+  /**
+   * Set the number of threads used for parsing and emitting templates, a value lesser than 2 processes
+   * the templates with the calling thread.
+   *
+   * @param parallelism the parallelism
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  private static int getDefaultParallelism() {
+    return Integer.getInteger(PARALLELISM, Runtime.getRuntime().availableProcessors());
   }
 
   public Collection<Template<?>> getTemplates() {
@@ -89,6 +137,7 @@ public class TemplateResolver implements Serializable {
   public void removeTemplate(Path.Relative path) {
     // Shall we do something else ?
     templates.remove(path);
+    generated.remove(path);
   }
 
   public void prePassivate() {
@@ -97,6 +146,11 @@ public class TemplateResolver implements Serializable {
     classCache.clear();
   }
 
+  private Object readResolve() {
+    parallelism = getDefaultParallelism();
+    return this;
+  }
+
   public void process(TemplateMetaModelPlugin plugin) throws ProcessingException {
 
     //
@@ -113,109 +167,309 @@ public class TemplateResolver implements Serializable {
         log.log("Detected template removal " + template.getRelativePath());
       }
       else if (resource.getLastModified() > template.getLastModified()) {
-        // That will force the regeneration of the template
-        i.remove();
-        log.log("Detected stale template " + template.getRelativePath());
+        String digest = digest(resource);
+        if (digest != null && digest.equals(template.getDigest())) {
+          // Touched but not modified
+          template.setLastModified(resource.getLastModified());
+          log.log("Template " + template.getRelativePath() + " is unchanged");
+        } else {
+          // That will force the regeneration of the template
+          i.remove();
+          generated.remove(template.getRelativePath());
+          log.log("Detected stale template " + template.getRelativePath());
+        }
       }
       else {
         log.log("Template " + template.getRelativePath() + " is valid");
       }
     }
 
-    // Build missing templates
-    log.log("Building missing templates");
-    Map<Path.Relative, Template<?>> copy = new HashMap<Path.Relative, Template<?>>(templates);
-    for (TemplateMetaModel templateMeta : metaModel) {
-      Template<?> template = copy.get(templateMeta.getPath());
-      if (template == null) {
-        log.log("Compiling template " + templateMeta.getPath());
-        ModelTemplateProcessContext compiler = new ModelTemplateProcessContext(templateMeta, new HashMap<Path, Template<?>>(copy), application.getProcessingContext());
-        Collection<Template<?>> resolved = compiler.resolve(templateMeta);
-        for (Template<?> added : resolved) {
-          copy.put(added.getRelativePath(), added);
+    // Evict the templates depending on an evicted template
+    for (boolean evicted = true;evicted;) {
+      evicted = false;
+      for (Iterator<Template<?>> i = templates.values().iterator();i.hasNext();) {
+        Template<?> template = i.next();
+        for (Path.Relative dependency : template.getDependencies()) {
+          if (!templates.containsKey(dependency)) {
+            i.remove();
+            generated.remove(template.getRelativePath());
+            log.log("Detected stale dependency " + dependency + " of template " + template.getRelativePath());
+            evicted = true;
+            break;
+          }
         }
       }
     }
-    templates = copy;
 
-    // Generate missing files from template
-    for (Template<?> template : templates.values()) {
-      //
-      Path originPath = template.getOrigin();
-      TemplateMetaModel templateMeta = metaModel.get(originPath);
+    //
+    ExecutorService executor = parallelism < 2 ? null : Executors.newFixedThreadPool(parallelism, new TemplateThreadFactory());
+    try {
 
-      //
-      // We compute the class elements from the field elements (as eclipse will make the relationship)
-      Set<Name> types = new LinkedHashSet<Name>();
-      for (TemplateRefMetaModel ref : templateMeta.getRefs()) {
-        ElementHandle.Field handle = ref.getHandle();
-        types.add(handle.getFQN());
+      // Parse the missing templates concurrently, the sources are read by the calling thread
+      // as the filer cannot be used concurrently
+      Map<Path.Relative, ModelTemplateProcessContext.Parsed> parsed = new HashMap<Path.Relative, ModelTemplateProcessContext.Parsed>();
+      if (executor != null) {
+        for (TemplateMetaModel templateMeta : metaModel) {
+          final Path.Relative path = templateMeta.getPath();
+          if (!templates.containsKey(path)) {
+            final TemplateProvider<?> provider = plugin.providers.get(path.getExt());
+            final Resource<Timestamped<Content>> resource = ModelTemplateProcessContext.resolveResource(metaModel, path, application.getProcessingContext());
+            if (provider != null && resource != null) {
+              Future<Serializable> model = executor.submit(new Callable<Serializable>() {
+                public Serializable call() throws Exception {
+                  return provider.parse(new ParseContext(), resource.content.getObject().getCharSequence());
+                }
+              });
+              parsed.put(path, new ModelTemplateProcessContext.Parsed(resource, model));
+            }
+          }
+        }
       }
-      final Element[] elements = new Element[types.size()];
-      int index = 0;
-      for (Name type : types) {
-        elements[index++] = application.getProcessingContext().getTypeElement(type);
+
+      // Build missing templates
+      log.log("Building missing templates");
+      Map<Path.Relative, Template<?>> copy = new HashMap<Path.Relative, Template<?>>(templates);
+      for (TemplateMetaModel templateMeta : metaModel) {
+        Template<?> template = copy.get(templateMeta.getPath());
+        if (template == null) {
+          log.log("Compiling template " + templateMeta.getPath());
+          ModelTemplateProcessContext compiler = new ModelTemplateProcessContext(templateMeta, new HashMap<Path, Template<?>>(copy), parsed, application.getProcessingContext());
+          Collection<Template<?>> resolved = compiler.resolve(templateMeta);
+          for (Template<?> added : resolved) {
+            copy.put(added.getRelativePath(), added);
+          }
+        }
       }
+      templates = copy;
+
+      // Process the templates in path order to keep the generation deterministic
+      Template<?>[] sorted = templates.values().toArray(new Template<?>[templates.size()]);
+      Arrays.sort(sorted, new Comparator<Template<?>>() {
+        public int compare(Template<?> o1, Template<?> o2) {
+          return o1.getRelativePath().getCanonical().compareTo(o2.getRelativePath().getCanonical());
+        }
+      });
 
-      // If CCE that would mean there is an internal bug
-      TemplateProvider<?> provider = (TemplateProvider<?>)plugin.providers.get(template.getRelativePath().getExt());
+      // Generate missing files from template, the scripts are emitted concurrently in memory, the class path
+      // is resolved here as the processing context cannot be used from the emitting threads
+      final URL[] classPath = application.getProcessingContext().getClassPath();
+      Element[][] elements = new Element[sorted.length][];
+      List<Future<Emission>> emissions = new ArrayList<Future<Emission>>(sorted.length);
+      for (int i = 0;i < sorted.length;i++) {
+        final Template<?> template = sorted[i];
 
-      // Resolve the qualified class
-      resolvedQualified(provider, template, elements);
+        //
+        Path originPath = template.getOrigin();
+        TemplateMetaModel templateMeta = metaModel.get(originPath);
 
-      //
-      resolveScript(template, plugin, elements);
+        //
+        // We compute the class elements from the field elements (as eclipse will make the relationship)
+        Set<Name> types = new LinkedHashSet<Name>();
+        for (TemplateRefMetaModel ref : templateMeta.getRefs()) {
+          ElementHandle.Field handle = ref.getHandle();
+          types.add(handle.getFQN());
+        }
+        elements[i] = new Element[types.size()];
+        int index = 0;
+        for (Name type : types) {
+          elements[i][index++] = application.getProcessingContext().getTypeElement(type);
+        }
+
+        // If CCE that would mean there is an internal bug
+        final TemplateProvider<?> provider = (TemplateProvider<?>)plugin.providers.get(template.getRelativePath().getExt());
+
+        // Resolve the qualified class
+        resolvedQualified(provider, template, elements[i]);
+
+        //
+        Path.Relative path = template.getRelativePath();
+        if (emitted.contains(path)) {
+          log.log("Template " + path + " was found in cache");
+          emissions.add(null);
+        }
+        else if (isGenerated(path)) {
+          emitted.add(path);
+          log.log("Template " + path + " is unchanged since last build");
+          emissions.add(null);
+        }
+        else {
+          Callable<Emission> task = new Callable<Emission>() {
+            public Emission call() throws Exception {
+              return emit(provider, template, classPath);
+            }
+          };
+          if (executor != null) {
+            emissions.add(executor.submit(task));
+          } else {
+            FutureTask<Emission> future = new FutureTask<Emission>(task);
+            future.run();
+            emissions.add(future);
+          }
+        }
+      }
+
+      // Write the emitted files in template order
+      for (int i = 0;i < sorted.length;i++) {
+        Future<Emission> emission = emissions.get(i);
+        if (emission != null) {
+          resolveScript(sorted[i], elements[i], emission);
+        }
+      }
+    }
+    finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
     }
   }
 
-  private <M extends Serializable> void resolveScript(final Template<M> template, final TemplateMetaModelPlugin plugin, final Element[] elements) {
+  /**
+   * Delete a class file and its nested class files from the class output.
+   *
+   * @param name the class name
+   */
+  private void deleteClass(String name) throws IOException {
+    FileKey key = FileKey.newJavaName(name, JavaFileObject.Kind.CLASS);
+    FileObject classFile = application.getProcessingContext().getResource(StandardLocation.CLASS_OUTPUT, key);
+    if (classFile != null) {
+      URI uri = classFile.toUri();
+      if ("file".equals(uri.getScheme())) {
+        File file = new File(uri);
+        File[] siblings = file.getParentFile().listFiles();
+        if (siblings != null) {
+          String prefix = name.substring(name.lastIndexOf('.') + 1) + "$";
+          for (File sibling : siblings) {
+            if (sibling.getName().startsWith(prefix) && sibling.getName().endsWith(".class") && sibling.delete()) {
+              log.log("Deleted stale template class " + sibling.getAbsolutePath());
+            }
+          }
+        }
+      }
+      if (classFile.delete()) {
+        log.log("Deleted stale template class " + name + " at " + uri);
+      }
+    }
+  }
+
+  private String digest(FileObject resource) {
+    InputStream in = null;
+    try {
+      in = resource.openInputStream();
+      return new Content(Tools.bytes(in), Charset.defaultCharset()).getDigest();
+    }
+    catch (IOException e) {
+      log.log("Could not read template " + resource.toUri(), e);
+      return null;
+    }
+    finally {
+      Tools.safeClose(in);
+    }
+  }
+
+  /**
+   * Returns true when all the files generated for the specified template in a previous build still exist.
+   *
+   * @param path the template path
+   * @return true if the generated files are available
+   */
+  private boolean isGenerated(Path.Relative path) {
+    Set<FileKey> keys = generated.get(path);
+    if (keys == null) {
+      return false;
+    }
+    for (FileKey key : keys) {
+      FileObject file;
+      try {
+        file = application.getProcessingContext().getResource(StandardLocation.CLASS_OUTPUT, key);
+      }
+      catch (Exception e) {
+        file = null;
+      }
+      if (file == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <M extends Serializable> Emission emit(TemplateProvider<M> provider, Template<?> template, URL[] classPath) throws TemplateException, IOException {
+    Emission emission = new Emission(template.getRelativePath(), classPath);
+    provider.emit(emission, (Template<M>)template);
+    return emission;
+  }
+
+  private void resolveScript(final Template<?> template, final Element[] elements, final Future<Emission> future) {
     application.getProcessingContext().executeWithin(elements[0], new Callable<Void>() {
       public Void call() throws Exception {
 
         //
-        final TemplatesMetaModel metaModel = application.getChild(TemplatesMetaModel.KEY);
-
-        // If CCE that would mean there is an internal bug
-        TemplateProvider<M> provider = (TemplateProvider<M>)plugin.providers.get(template.getRelativePath().getExt());
+        TemplatesMetaModel metaModel = application.getChild(TemplatesMetaModel.KEY);
 
         //
         Path.Relative path = template.getRelativePath();
 
-        // If it's the cache we do nothing
-        if (!emitted.contains(path)) {
-          //
-          try {
-            EmitContext emitCtx = new EmitContext() {
-              public void createResource(String rawName, String ext, CharSequence content) throws IOException {
-                Path.Relative bar = template.getRelativePath().as(rawName, ext);
-                Path.Absolute absolute = metaModel.resolvePath(bar);
-                FileKey key = FileKey.newName(absolute);
-                FileObject scriptFile = application.getProcessingContext().createResource(StandardLocation.CLASS_OUTPUT, key, elements);
-                Writer writer = null;
-                try {
-                  writer = scriptFile.openWriter();
-                  writer.append(content);
-                  log.log("Generated template script " + bar + " as " + scriptFile.toUri() +
-                      " with originating elements " + Arrays.asList(elements));
-                }
-                finally {
-                  Tools.safeClose(writer);
-                }
-              }
-            };
-
-            //
-            provider.emit(emitCtx, template);
+        //
+        Emission emission;
+        try {
+          emission = future.get();
+        }
+        catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof IOException) {
+            throw TemplateMetaModel.CANNOT_WRITE_TEMPLATE_SCRIPT.failure(cause, path);
+          } else if (cause instanceof Exception) {
+            throw (Exception)cause;
+          } else if (cause instanceof Error) {
+            throw (Error)cause;
+          } else {
+            throw e;
+          }
+        }
 
-            // Put it in cache
-            emitted.add(path);
+        //
+        Set<FileKey> keys = new HashSet<FileKey>();
+        try {
+          for (Map.Entry<Path.Relative, String> resource : emission.resources.entrySet()) {
+            Path.Relative bar = resource.getKey();
+            Path.Absolute absolute = metaModel.resolvePath(bar);
+            FileKey key = FileKey.newName(absolute);
+            FileObject scriptFile = application.getProcessingContext().createResource(StandardLocation.CLASS_OUTPUT, key, elements);
+            keys.add(key);
+            Writer writer = null;
+            try {
+              writer = scriptFile.openWriter();
+              writer.append(resource.getValue());
+              log.log("Generated template script " + bar + " as " + scriptFile.toUri() +
+                  " with originating elements " + Arrays.asList(elements));
+            }
+            finally {
+              Tools.safeClose(writer);
+            }
+          }
+          for (String name : emission.deletedClasses) {
+            deleteClass(name);
           }
-          catch (IOException e) {
-            throw TemplateMetaModel.CANNOT_WRITE_TEMPLATE_SCRIPT.failure(e, template.getRelativePath());
+          for (Map.Entry<String, byte[]> clazz : emission.classes.entrySet()) {
+            String name = clazz.getKey();
+            JavaFileObject classFile = application.getProcessingContext().createClassFile(name, elements);
+            keys.add(FileKey.newJavaName(name, JavaFileObject.Kind.CLASS));
+            OutputStream out = null;
+            try {
+              out = classFile.openOutputStream();
+              out.write(clazz.getValue());
+              log.log("Generated template class " + name + " as " + classFile.toUri());
+            }
+            finally {
+              Tools.safeClose(out);
+            }
           }
+
+          // Put it in cache
+          emitted.add(path);
+          generated.put(path, keys);
         }
-        else {
-          log.log("Template " + template.getRelativePath() + " was found in cache");
+        catch (IOException e) {
+          throw TemplateMetaModel.CANNOT_WRITE_TEMPLATE_SCRIPT.failure(e, path);
         }
 
         //
@@ -318,4 +572,56 @@ public class TemplateResolver implements Serializable {
       Tools.safeClose(writer);
     }
   }
+
+  /** The files emitted by a template provider, they are kept in memory until they are written by the filer. */
+  private static class Emission implements EmitContext {
+
+    /** . */
+    private final Path.Relative path;
+
+    /** . */
+    private final LinkedHashMap<Path.Relative, String> resources = new LinkedHashMap<Path.Relative, String>();
+
+    /** . */
+    private final LinkedHashMap<String, byte[]> classes = new LinkedHashMap<String, byte[]>();
+
+    /** . */
+    private final LinkedHashSet<String> deletedClasses = new LinkedHashSet<String>();
+
+    /** . */
+    private final URL[] classPath;
+
+    private Emission(Path.Relative path, URL[] classPath) {
+      this.path = path;
+      this.classPath = classPath;
+    }
+
+    public void createResource(String rawName, String ext, CharSequence content) throws IOException {
+      resources.put(path.as(rawName, ext), content.toString());
+    }
+
+    public void createClass(String name, byte[] bytecode) throws IOException {
+      classes.put(name, bytecode);
+    }
+
+    public void deleteClass(String name) throws IOException {
+      deletedClasses.add(name);
+    }
+
+    public URL[] getClassPath() {
+      return classPath.clone();
+    }
+  }
+
+  private static class TemplateThreadFactory implements ThreadFactory {
+
+    /** . */
+    private final AtomicInteger count = new AtomicInteger();
+
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "juzu-template-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
 }
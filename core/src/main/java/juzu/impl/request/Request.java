@@ -41,7 +41,6 @@ import juzu.request.ResourceContext;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
@@ -69,6 +68,9 @@ public class Request implements ScopingContext {
   /** . */
   private final Map<ControlParameter, Object> arguments;
 
+  /** The filter chain. */
+  private final RequestFilter[] filters;
+
   /** The response. */
   private Response response;
 
@@ -103,6 +105,7 @@ public class Request implements ScopingContext {
     this.parameters = parameters;
     this.arguments = arguments;
     this.plugin = plugin;
+    this.filters = plugin.getFilters(method);
   }
 
   public RequestBridge getBridge() {
@@ -192,11 +195,8 @@ public class Request implements ScopingContext {
       }
 
       //
-      List<RequestFilter> filters = plugin.getFilters();
-
-      //
-      if (index >= 0 && index < filters.size()) {
-        RequestFilter plugin = filters.get(index);
+      if (index >= 0 && index < filters.length) {
+        RequestFilter plugin = filters[index];
         try {
           index++;
           plugin.invoke(this);
@@ -205,7 +205,7 @@ public class Request implements ScopingContext {
           index--;
         }
       }
-      else if (index == filters.size()) {
+      else if (index == filters.length) {
 
         // Get arguments
         Method<?> method = context.getMethod();
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.request;
+
+/**
+ * A request filter that applies only to some controller methods. The selection is evaluated once for each method
+ * when the filter chains are built, a filter that does not accept a method is not part of its chain.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public interface SelectiveRequestFilter extends RequestFilter {
+
+  /**
+   * Returns true when the filter applies to the specified method, the method phase and id are usually used
+   * for deciding.
+   *
+   * @param method the method
+   * @return true when the filter applies to the method
+   */
+  boolean accept(Method<?> method);
+
+}
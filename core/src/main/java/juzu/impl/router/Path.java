@@ -51,8 +51,11 @@ class Path {
       //
       int i = 0;
       while (i < len) {
-        int delta = PercentCodec.RFC3986_PATH.decodeChar(rawValue, i, len, buffer);
-        escaped[count++] = delta > 1;
+        int size = buffer.length();
+        int delta = PercentCodec.RFC3986_PATH.decodeChar(rawValue, i, len - i, buffer);
+        while (size++ < buffer.length()) {
+          escaped[count++] = delta > 1;
+        }
         i += delta;
       }
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.tags;
+
+import juzu.impl.common.Tools;
+import juzu.impl.compiler.ProcessingException;
+import juzu.impl.plugin.template.metamodel.TemplateMetaModel;
+import juzu.impl.template.spi.FragmentCache;
+import juzu.impl.template.spi.Template;
+import juzu.impl.template.spi.juzu.ast.ASTNode;
+import juzu.impl.template.spi.juzu.compiler.ExtendedTagHandler;
+import juzu.impl.template.spi.juzu.compiler.ProcessPhase;
+import juzu.io.Streams;
+import juzu.template.Renderable;
+import juzu.template.TemplateRenderContext;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cache the rendered body of the tag with the <code>key</code> argument for <code>ttl</code> seconds, 60 seconds
+ * by default. The properties set by the body such as the title are not cached. The fragments are cached per
+ * template and per locale, the compiler adds the path of the template as the <code>template</code> argument.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class CacheTag extends ExtendedTagHandler {
+
+  /** The argument added by the compiler. */
+  private static final String TEMPLATE = "template";
+
+  @Override
+  public void process(ProcessPhase phase, ASTNode.Tag tag, Template t) throws ProcessingException {
+    Map<String, String> args = tag.getArgs();
+    String ttl = args.get("ttl");
+    if (ttl != null && ttl.indexOf('$') == -1 && parseTTL(ttl) < 0) {
+      throw TemplateMetaModel.TEMPLATE_ILLEGAL_TAG_ARGUMENT.failure(ttl, "ttl", tag.getName(), t.getRelativePath());
+    }
+    if (args.get("key") != null) {
+      args.put(TEMPLATE, t.getAbsolutePath().getCanonical());
+    }
+  }
+
+  @Override
+  public void render(TemplateRenderContext context, Renderable body, Map<String, String> args) throws IOException {
+    FragmentCache cache = context.getFragmentCache();
+    String key = args != null ? args.get("key") : null;
+    if (cache != null && key != null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append(args.get(TEMPLATE)).append('\u0000').append(key);
+      Locale locale = context.getLocale();
+      if (locale != null) {
+        sb.append('\u0000').append(locale);
+      }
+      key = sb.toString();
+      String fragment = cache.get(key);
+      if (fragment == null) {
+        String ttl = args.get("ttl");
+        long seconds = ttl != null ? parseTTL(ttl) : 60;
+        if (seconds < 0) {
+          throw new IllegalArgumentException("Invalid cache ttl " + ttl);
+        }
+        StringBuilder buffer = new StringBuilder();
+        context.render(body, Streams.appendable(Tools.UTF_8, buffer));
+        fragment = buffer.toString();
+        cache.put(key, fragment, seconds * 1000);
+      }
+      context.getPrinter().append(fragment);
+    } else {
+      body.render(context);
+    }
+  }
+
+  /**
+   * Parse a ttl argument.
+   *
+   * @param ttl the argument
+   * @return the ttl in seconds or -1 when the argument is not valid
+   */
+  private static long parseTTL(String ttl) {
+    try {
+      long value = Long.parseLong(ttl.trim());
+      return value >= 0 ? value : -1;
+    }
+    catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
@@ -16,25 +16,19 @@
 
 package juzu.impl.tags;
 
-import juzu.impl.template.spi.TemplateStub;
+import juzu.impl.template.spi.TemplateLink;
 import juzu.impl.template.spi.juzu.ast.ASTNode;
-import juzu.impl.template.spi.juzu.compiler.ExtendedTagHandler;
+import juzu.impl.template.spi.juzu.compiler.LinkTagHandler;
 import juzu.impl.template.spi.juzu.compiler.ProcessPhase;
 import juzu.impl.template.spi.Template;
-import juzu.impl.plugin.template.metamodel.TemplateMetaModel;
-import juzu.impl.common.Path;
 import juzu.template.Renderable;
 import juzu.template.TemplateRenderContext;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Map;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class DecorateTag extends ExtendedTagHandler {
-
-  /** . */
-  static final ThreadLocal<Renderable> current = new ThreadLocal<Renderable>();
+public class DecorateTag extends LinkTagHandler {
 
   @Override
   public void process(ProcessPhase phase, ASTNode.Tag tag, Template t) {
@@ -63,24 +57,13 @@ public class DecorateTag extends ExtendedTagHandler {
   }
 
   @Override
-  public void compile(ProcessPhase phase, ASTNode.Tag tag, Template t) {
-    String path = tag.getArgs().get("path");
-    Template resolved = phase.resolveTemplate((Path.Relative)Path.parse(path));
-    if (resolved == null) {
-      throw TemplateMetaModel.TEMPLATE_NOT_RESOLVED.failure(path);
-    }
-  }
-
-  @Override
-  public void render(TemplateRenderContext context, Renderable body, Map<String, String> args) throws IOException {
-    current.set(body);
+  public void render(TemplateRenderContext context, Renderable body, TemplateLink link) throws IOException {
+    context.pushDecorated(body);
     try {
-      String path = args.get("path");
-      TemplateStub template = context.resolveTemplate(path);
-      template.render(context);
+      link.resolve(context).render(context);
     }
     finally {
-      current.set(null);
+      context.popDecorated();
     }
   }
 }
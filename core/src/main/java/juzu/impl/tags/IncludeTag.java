@@ -16,31 +16,18 @@
 
 package juzu.impl.tags;
 
-import juzu.impl.template.spi.TemplateStub;
-import juzu.impl.template.spi.juzu.ast.ASTNode;
-import juzu.impl.template.spi.juzu.compiler.ExtendedTagHandler;
-import juzu.impl.template.spi.juzu.compiler.ProcessPhase;
-import juzu.impl.template.spi.Template;
-import juzu.impl.common.Path;
+import juzu.impl.template.spi.TemplateLink;
+import juzu.impl.template.spi.juzu.compiler.LinkTagHandler;
 import juzu.template.Renderable;
 import juzu.template.TemplateRenderContext;
 
 import java.io.IOException;
-import java.util.Map;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class IncludeTag extends ExtendedTagHandler {
+public class IncludeTag extends LinkTagHandler {
 
   @Override
-  public void compile(ProcessPhase phase, ASTNode.Tag tag, Template t) {
-    String path = tag.getArgs().get("path");
-    phase.resolveTemplate((Path.Relative)Path.parse(path));
-  }
-
-  @Override
-  public void render(TemplateRenderContext context, Renderable body, Map<String, String> args) throws IOException {
-    String path = args.get("path");
-    TemplateStub template = context.resolveTemplate(path);
-    template.render(context);
+  public void render(TemplateRenderContext context, Renderable body, TemplateLink link) throws IOException {
+    link.resolve(context).render(context);
   }
 }
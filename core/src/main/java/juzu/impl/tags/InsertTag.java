@@ -28,9 +28,15 @@ public class InsertTag extends TagHandler {
 
   @Override
   public void render(TemplateRenderContext context, Renderable body, Map<String, String> args) throws IOException {
-    Renderable body_ = DecorateTag.current.get();
+    // The body is rendered with the body of the enclosing decorate tag
+    Renderable body_ = context.popDecorated();
     if (body_ != null) {
-      body_.render(context);
+      try {
+        body_.render(context);
+      }
+      finally {
+        context.pushDecorated(body_);
+      }
     }
   }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Format dates with the medium date format of the locale, the formats are cached per thread and per locale.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class DateFormatter extends Formatter<Date> {
+
+  /** . */
+  private final ThreadLocal<HashMap<Locale, DateFormat>> formats = new ThreadLocal<HashMap<Locale, DateFormat>>() {
+    @Override
+    protected HashMap<Locale, DateFormat> initialValue() {
+      return new HashMap<Locale, DateFormat>();
+    }
+  };
+
+  public DateFormatter() {
+    super(Date.class);
+  }
+
+  @Override
+  public String format(Locale locale, Date value) {
+    HashMap<Locale, DateFormat> map = formats.get();
+    DateFormat format = map.get(locale);
+    if (format == null) {
+      map.put(locale, format = DateFormat.getDateInstance(DateFormat.MEDIUM, locale));
+    }
+    return format.format(value);
+  }
+}
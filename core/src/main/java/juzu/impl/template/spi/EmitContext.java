@@ -17,6 +17,7 @@
 package juzu.impl.template.spi;
 
 import java.io.IOException;
+import java.net.URL;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public interface EmitContext {
@@ -30,4 +31,29 @@ public interface EmitContext {
    */
   void createResource(String rawName, String ext, CharSequence content) throws IOException;
 
+  /**
+   * Create a class file in the class output.
+   *
+   * @param name the class fully qualified name
+   * @param bytecode the class bytecode
+   * @throws IOException any io exception preventing the class creation
+   */
+  void createClass(String name, byte[] bytecode) throws IOException;
+
+  /**
+   * Delete a class file and its nested class files generated in the class output by a previous build.
+   *
+   * @param name the class fully qualified name
+   * @throws IOException any io exception preventing the class deletion
+   */
+  void deleteClass(String name) throws IOException;
+
+  /**
+   * Returns the class path the template is compiled against: the compilation class path followed by the
+   * class output.
+   *
+   * @return the class path urls
+   */
+  URL[] getClassPath();
+
 }
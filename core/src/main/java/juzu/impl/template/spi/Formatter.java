@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi;
+
+import java.util.Locale;
+
+/**
+ * Format a value of a given type when it is printed by a template. Formatters are declared with the
+ * <code>META-INF/services/juzu.impl.template.spi.Formatter</code> service file of the application and
+ * must be thread safe.
+ *
+ * @param <T> the formatted type
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public abstract class Formatter<T> {
+
+  /** . */
+  private final Class<T> type;
+
+  protected Formatter(Class<T> type) throws NullPointerException {
+    if (type == null) {
+      throw new NullPointerException("No null type accepted");
+    }
+    this.type = type;
+  }
+
+  /**
+   * @return the formatted type
+   */
+  public final Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * Format a value.
+   *
+   * @param locale the locale
+   * @param value the value
+   * @return the formatted value
+   */
+  public abstract String format(Locale locale, T value);
+
+}
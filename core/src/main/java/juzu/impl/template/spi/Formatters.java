@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The formatters used by templates. The formatter of a type is the formatter declared for the closest type in its
+ * class hierarchy, the resolution is cached per type.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public final class Formatters {
+
+  /** The default formatters. */
+  public static final Formatters DEFAULT = new Formatters(Collections.<Class<?>, Formatter<?>>singletonMap(Date.class, new DateFormatter()));
+
+  /**
+   * Load the formatters declared by the services of a classloader, the declared formatters override the default
+   * formatters.
+   *
+   * @param loader the classloader
+   * @return the formatters
+   */
+  public static Formatters load(ClassLoader loader) {
+    HashMap<Class<?>, Formatter<?>> formatters = new HashMap<Class<?>, Formatter<?>>(DEFAULT.formatters);
+    for (Formatter<?> formatter : ServiceLoader.load(Formatter.class, loader)) {
+      formatters.put(formatter.getType(), formatter);
+    }
+    return new Formatters(formatters);
+  }
+
+  /** . */
+  private static final Formatter<Object> NONE = new Formatter<Object>(Object.class) {
+    @Override
+    public String format(Locale locale, Object value) {
+      throw new UnsupportedOperationException();
+    }
+  };
+
+  /** . */
+  private final Map<Class<?>, Formatter<?>> formatters;
+
+  /** . */
+  private final ConcurrentHashMap<Class<?>, Formatter<?>> resolved;
+
+  private Formatters(Map<Class<?>, Formatter<?>> formatters) {
+    this.formatters = formatters;
+    this.resolved = new ConcurrentHashMap<Class<?>, Formatter<?>>();
+  }
+
+  /**
+   * Format a value when a formatter exists for its type.
+   *
+   * @param locale the locale
+   * @param value the value
+   * @return the formatted value or null when no formatter exists for the value
+   */
+  public String format(Locale locale, Object value) {
+    Formatter formatter = get(value.getClass());
+    return formatter != null ? formatter.format(locale, value) : null;
+  }
+
+  /**
+   * Returns the formatter of a type.
+   *
+   * @param type the type
+   * @return the formatter or null
+   */
+  public Formatter<?> get(Class<?> type) {
+    Formatter<?> formatter = resolved.get(type);
+    if (formatter == null) {
+      formatter = resolve(type);
+      resolved.put(type, formatter != null ? formatter : NONE);
+    }
+    return formatter != NONE ? formatter : null;
+  }
+
+  private Formatter<?> resolve(Class<?> type) {
+    for (Class<?> current = type;current != null;current = current.getSuperclass()) {
+      Formatter<?> formatter = formatters.get(current);
+      if (formatter != null) {
+        return formatter;
+      }
+      for (Class<?> itf : current.getInterfaces()) {
+        formatter = resolve(itf);
+        if (formatter != null) {
+          return formatter;
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of rendered template fragments, the least recently used fragments are evicted first.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class FragmentCache {
+
+  /** The default maximum number of fragments. */
+  public static final int DEFAULT_SIZE = Integer.getInteger("juzu.template.fragment_cache_size", 1000);
+
+  /** . */
+  private final LinkedHashMap<String, Fragment> fragments;
+
+  public FragmentCache() {
+    this(DEFAULT_SIZE);
+  }
+
+  public FragmentCache(final int size) {
+    this.fragments = new LinkedHashMap<String, Fragment>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Fragment> eldest) {
+        return size() > size;
+      }
+    };
+  }
+
+  /**
+   * Returns a fragment.
+   *
+   * @param key the fragment key
+   * @return the fragment or null when it does not exist or has expired
+   */
+  public synchronized String get(String key) {
+    Fragment fragment = fragments.get(key);
+    if (fragment != null) {
+      if (fragment.expiration < System.currentTimeMillis()) {
+        fragments.remove(key);
+      } else {
+        return fragment.value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Put a fragment.
+   *
+   * @param key the fragment key
+   * @param value the fragment value
+   * @param ttl the fragment time to live in milliseconds
+   */
+  public synchronized void put(String key, String value, long ttl) {
+    fragments.put(key, new Fragment(value, System.currentTimeMillis() + ttl));
+  }
+
+  private static class Fragment {
+
+    /** . */
+    final String value;
+
+    /** . */
+    final long expiration;
+
+    private Fragment(String value, long expiration) {
+      this.value = value;
+      this.expiration = expiration;
+    }
+  }
+}
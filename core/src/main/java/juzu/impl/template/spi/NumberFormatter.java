@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi;
+
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Format numbers with the number format of the locale, the formats are cached per thread and per locale. This
+ * formatter is not used by default since numbers are printed as is, it can be declared as a service by an application.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class NumberFormatter extends Formatter<Number> {
+
+  /** . */
+  private final ThreadLocal<HashMap<Locale, NumberFormat>> formats = new ThreadLocal<HashMap<Locale, NumberFormat>>() {
+    @Override
+    protected HashMap<Locale, NumberFormat> initialValue() {
+      return new HashMap<Locale, NumberFormat>();
+    }
+  };
+
+  public NumberFormatter() {
+    super(Number.class);
+  }
+
+  @Override
+  public String format(Locale locale, Number value) {
+    HashMap<Locale, NumberFormat> map = formats.get();
+    NumberFormat format = map.get(locale);
+    if (format == null) {
+      map.put(locale, format = NumberFormat.getInstance(locale));
+    }
+    return format.format(value);
+  }
+}
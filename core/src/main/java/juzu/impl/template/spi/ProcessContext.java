@@ -33,6 +33,9 @@ public class ProcessContext {
   /** . */
   protected final Map<Path, Template<?>> templates;
 
+  /** The template being processed. */
+  private Template<?> current;
+
   public ProcessContext(Map<Path, Template<?>> templates) {
     this.templates = templates;
   }
@@ -45,6 +48,20 @@ public class ProcessContext {
     return null;
   }
 
+  /**
+   * Parse the template content, subclasses can override it to provide a template model parsed ahead of time.
+   *
+   * @param path the template path
+   * @param provider the template provider
+   * @param content the template content
+   * @param <M> the template model type
+   * @return the template model
+   * @throws TemplateException any template exception
+   */
+  protected <M extends Serializable> M parse(Path.Relative path, TemplateProvider<M> provider, Content content) throws TemplateException {
+    return provider.parse(new ParseContext(), content.getCharSequence());
+  }
+
   public Template resolveTemplate(Path.Relative path) {
     return resolveTemplate(path, path);
   }
@@ -53,6 +70,11 @@ public class ProcessContext {
       Path.Relative originPath,
       Path.Relative path) {
 
+    // Record the dependency of the template being processed
+    if (current != null) {
+      current.addDependency(path);
+    }
+
     // A class cast here would mean a terrible issue
     Template<M> template = (Template<M>)templates.get(path);
 
@@ -71,7 +93,7 @@ public class ProcessContext {
       // Parse to AST
       M templateAST;
       try {
-        templateAST = provider.parse(new ParseContext(), resolved.content.getObject().getCharSequence());
+        templateAST = parse(path, provider, resolved.content.getObject());
       }
       catch (TemplateException e) {
         throw TemplateMetaModel.TEMPLATE_SYNTAX_ERROR.failure(path);
@@ -83,18 +105,24 @@ public class ProcessContext {
         templateAST,
         path,
         resolved.path,
-        resolved.content.getTime());
+        resolved.content.getTime(),
+        resolved.content.getObject().getDigest());
 
       //
       templates.put(path, template);
 
       // Process template
+      Template<?> previous = current;
+      current = template;
       try {
         provider.process(this, template);
       }
       catch (TemplateException e) {
         throw TemplateMetaModel.TEMPLATE_VALIDATION_ERROR.failure(path);
       }
+      finally {
+        current = previous;
+      }
     }
 
     //
@@ -47,18 +47,36 @@ public class Template<M extends Serializable> implements Serializable {
   /** The last modified date. */
   private long lastModified;
 
+  /** The digest of the template source. */
+  private final String digest;
+
+  /** The templates this template depends on. */
+  private final LinkedHashSet<Path.Relative> dependencies;
+
   public Template(
     Path.Relative origin,
     M model,
     Path.Relative relativePath,
     Path.Absolute absolutePath,
     long lastModified) {
+    this(origin, model, relativePath, absolutePath, lastModified, null);
+  }
+
+  public Template(
+    Path.Relative origin,
+    M model,
+    Path.Relative relativePath,
+    Path.Absolute absolutePath,
+    long lastModified,
+    String digest) {
     this.origin = origin;
     this.model = model;
     this.relativePath = relativePath;
     this.parameters = new LinkedHashSet<String>();
     this.lastModified = lastModified;
     this.absolutePath = absolutePath;
+    this.digest = digest;
+    this.dependencies = new LinkedHashSet<Path.Relative>();
   }
 
   public Path.Relative getOrigin() {
@@ -81,6 +99,28 @@ public class Template<M extends Serializable> implements Serializable {
     return lastModified;
   }
 
+  public void setLastModified(long lastModified) {
+    this.lastModified = lastModified;
+  }
+
+  /**
+   * @return the digest of the template source or null when it is not known
+   */
+  public String getDigest() {
+    return digest;
+  }
+
+  /**
+   * @return the templates resolved when this template was processed
+   */
+  public LinkedHashSet<Path.Relative> getDependencies() {
+    return dependencies;
+  }
+
+  public void addDependency(Path.Relative path) {
+    dependencies.add(path);
+  }
+
   public LinkedHashSet<String> getParameters() {
     return parameters;
   }
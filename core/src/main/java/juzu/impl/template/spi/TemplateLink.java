@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi;
+
+import juzu.template.TemplateRenderContext;
+
+/**
+ * A link to a template from a template script, the linked stub is resolved by the first render and then kept by the
+ * script.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public final class TemplateLink {
+
+  /** . */
+  private final String path;
+
+  /** . */
+  private volatile TemplateStub stub;
+
+  public TemplateLink(String path) {
+    if (path == null) {
+      throw new NullPointerException("No null path accepted");
+    }
+    this.path = path;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public TemplateStub resolve(TemplateRenderContext context) {
+    TemplateStub stub = this.stub;
+    if (stub == null) {
+      stub = context.resolveTemplate(path);
+      if (stub == null) {
+        throw new IllegalStateException("Could not resolve template " + path);
+      }
+      this.stub = stub;
+    }
+    return stub;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[path=" + path + "]";
+  }
+}
@@ -55,4 +55,8 @@ public abstract class DialectTemplateEmitter {
 
   public abstract void tag(String tagName, Map<String, String> args);
 
+  public abstract void closeLinkTag(String tagName, String path);
+
+  public abstract void linkTag(String tagName, String path);
+
 }
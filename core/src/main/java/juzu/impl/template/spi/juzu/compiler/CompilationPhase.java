@@ -17,6 +17,7 @@
 package juzu.impl.template.spi.juzu.compiler;
 
 import juzu.impl.compiler.ProcessingException;
+import juzu.impl.tags.CacheTag;
 import juzu.impl.tags.DecorateTag;
 import juzu.impl.tags.IncludeTag;
 import juzu.impl.tags.InsertTag;
@@ -46,6 +47,7 @@ public class CompilationPhase {
     tags.put("decorate", new DecorateTag());
     tags.put("title", new TitleTag());
     tags.put("param", new ParamTag());
+    tags.put("cache", new CacheTag());
   }
 
   public TagHandler resolveTag(String name) {
@@ -80,7 +80,18 @@ public class EmitPhase extends CompilationPhase {
         ASTNode.Tag tag = (ASTNode.Tag)block;
         TagHandler handler = get(tag);
         String className = handler.getClass().getName();
-        if (tag.getChildren() != null) {
+        if (handler instanceof LinkTagHandler) {
+          String path = tag.getArgs().get("path");
+          if (tag.getChildren() != null && tag.getChildren().size() > 0) {
+            ctx.writer.openTag(className, tag.getArgs());
+            doEmit(ctx, tag.getChildren());
+            ctx.writer.closeLinkTag(className, path);
+          }
+          else {
+            ctx.writer.linkTag(className, path);
+          }
+        }
+        else if (tag.getChildren() != null && tag.getChildren().size() > 0) {
           ctx.writer.openTag(className, tag.getArgs());
           doEmit(ctx, tag.getChildren());
           ctx.writer.closeTag(className, tag.getArgs());
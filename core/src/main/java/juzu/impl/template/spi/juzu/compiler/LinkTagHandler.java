@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi.juzu.compiler;
+
+import juzu.impl.common.Path;
+import juzu.impl.compiler.ProcessingException;
+import juzu.impl.plugin.template.metamodel.TemplateMetaModel;
+import juzu.impl.template.spi.Template;
+import juzu.impl.template.spi.TemplateLink;
+import juzu.impl.template.spi.juzu.ast.ASTNode;
+import juzu.template.Renderable;
+import juzu.template.TemplateRenderContext;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A tag rendering the template of its <code>path</code> argument. The emitter creates a {@link TemplateLink} constant
+ * for the path, so the template is resolved once instead of on each render.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public abstract class LinkTagHandler extends ExtendedTagHandler {
+
+  @Override
+  public void compile(ProcessPhase phase, ASTNode.Tag tag, Template t) throws ProcessingException {
+    String path = tag.getArgs().get("path");
+    Template resolved = phase.resolveTemplate((Path.Relative)Path.parse(path));
+    if (resolved == null) {
+      throw TemplateMetaModel.TEMPLATE_NOT_RESOLVED.failure(path);
+    }
+  }
+
+  public abstract void render(TemplateRenderContext context, Renderable body, TemplateLink link) throws IOException;
+
+  @Override
+  public void render(TemplateRenderContext context, Renderable body, Map<String, String> args) throws IOException {
+    render(context, body, new TemplateLink(args.get("path")));
+  }
+}
@@ -23,8 +23,6 @@ import juzu.template.TemplateRenderContext;
 import org.codehaus.groovy.runtime.InvokerInvocationException;
 
 import java.io.IOException;
-import java.text.DateFormat;
-import java.util.Date;
 import java.util.Locale;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
@@ -91,15 +89,17 @@ public class GroovyPrinter extends GroovyObjectSupport implements GroovyIntercep
    * @return the formatted object
    */
   private Object format(Object o) {
-    if (o instanceof Date) {
+    if (o instanceof MessageKey) {
+      MessageKey key = (MessageKey)o;
+      o = renderContext.resolveMessage(key);
+    } else if (o != null && !(o instanceof String)) {
       Locale locale = renderContext.getLocale();
       if (locale != null) {
-        DateFormat dateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
-        o = dateFormat.format((Date)o);
+        String formatted = renderContext.getFormatters().format(locale, o);
+        if (formatted != null) {
+          o = formatted;
+        }
       }
-    } else if (o instanceof MessageKey) {
-      MessageKey key = (MessageKey)o;
-      o = renderContext.resolveMessage(key);
     }
 
     //
@@ -17,6 +17,7 @@
 package juzu.impl.template.spi.juzu.dialect.gtmpl;
 
 import juzu.impl.common.Name;
+import juzu.impl.template.spi.TemplateLink;
 import juzu.impl.template.spi.juzu.DialectTemplateEmitter;
 import juzu.impl.template.spi.juzu.ast.SectionType;
 import juzu.impl.common.Location;
@@ -25,6 +26,7 @@ import juzu.impl.common.Tools;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +45,15 @@ public class GroovyTemplateEmitter extends DialectTemplateEmitter {
   /** . */
   private List<String> messageKeys = new ArrayList<String>();
 
+  /** The tag handler constants, a single handler instance is shared by the uses of the same tag. */
+  private LinkedHashMap<String, Integer> tagHandlers = new LinkedHashMap<String, Integer>();
+
+  /** The template link constants, a single link is shared by the tags linking the same path. */
+  private LinkedHashMap<String, Integer> links = new LinkedHashMap<String, Integer>();
+
+  /** The tag arguments that are constant. */
+  private List<Map<String, String>> tagArgs = new ArrayList<Map<String, String>>();
+
   /** The line number table. */
   private HashMap<Integer, Foo> locationTable = new HashMap<Integer, Foo>();
 
@@ -126,6 +137,52 @@ public class GroovyTemplateEmitter extends DialectTemplateEmitter {
           append(sep);
     }
 
+    // Add tag handlers
+    for (Map.Entry<String, Integer> tagHandler : tagHandlers.entrySet()) {
+      builder.
+          append("public static final ").
+          append(tagHandler.getKey()).
+          append(" t").
+          append(tagHandler.getValue()).
+          append(" = new ").
+          append(tagHandler.getKey()).
+          append("();").
+          append(sep);
+    }
+
+    // Add template links
+    for (Map.Entry<String, Integer> link : links.entrySet()) {
+      builder.
+          append("public static final ").
+          append(TemplateLink.class.getName()).
+          append(" l").
+          append(link.getValue()).
+          append(" = new ").
+          append(TemplateLink.class.getName()).
+          append("('");
+      Tools.escape(link.getKey(), builder);
+      builder.
+          append("');").
+          append(sep);
+    }
+
+    // Add constant tag arguments
+    for (int i = 0;i < tagArgs.size();i++) {
+      builder.append("public static final Map<String, String> a").append(i).append(" = java.util.Collections.unmodifiableMap([");
+      int index = 0;
+      for (Map.Entry<String, String> entry : tagArgs.get(i).entrySet()) {
+        if (index++ > 0) {
+          builder.append(",");
+        }
+        builder.append("'");
+        Tools.escape(entry.getKey(), builder);
+        builder.append("':'");
+        Tools.escape(entry.getValue(), builder);
+        builder.append("'");
+      }
+      builder.append("]);").append(sep);
+    }
+
     // Add line table
     builder.append("public static final Map<Integer, ").append(Foo.class.getName()).append("> TABLE = ");
     if (locationTable.isEmpty()) {
@@ -267,26 +324,80 @@ public class GroovyTemplateEmitter extends DialectTemplateEmitter {
   public void closeTag(String className, Map<String, String> args) {
     int count = closureCountStack[closureCountIndex--];
     out.append("; } as juzu.template.Renderable;");
-    out.append("; new ").append(className).append("().render(out.renderContext, closure").append(count).append(",");
+    out.append("; ").append(constants).append(".t").append(tagHandler(className)).append(".render(out.renderContext, closure").append(count).append(",");
+    appendTagArgs(args);
+    out.append(");");
+  }
+
+  @Override
+  public void tag(String tagName, Map<String, String> args) {
+    out.append("; ").append(constants).append(".t").append(tagHandler(tagName)).append(".render(out.renderContext, ");
+    out.append(GroovyTemplateStub.class.getName()).append(".EMPTY_BODY,");
+    appendTagArgs(args);
+    out.append(");");
+  }
+
+  @Override
+  public void closeLinkTag(String tagName, String path) {
+    int count = closureCountStack[closureCountIndex--];
+    out.append("; } as juzu.template.Renderable;");
+    out.append("; ").append(constants).append(".t").append(tagHandler(tagName)).append(".render(out.renderContext, closure").append(count).append(",");
+    out.append(constants).append(".l").append(link(path));
+    out.append(");");
+  }
+
+  @Override
+  public void linkTag(String tagName, String path) {
+    out.append("; ").append(constants).append(".t").append(tagHandler(tagName)).append(".render(out.renderContext, ");
+    out.append(GroovyTemplateStub.class.getName()).append(".EMPTY_BODY,");
+    out.append(constants).append(".l").append(link(path));
+    out.append(");");
+  }
+
+  private int link(String path) {
+    Integer index = links.get(path);
+    if (index == null) {
+      links.put(path, index = links.size());
+    }
+    return index;
+  }
+
+  private int tagHandler(String className) {
+    Integer index = tagHandlers.get(className);
+    if (index == null) {
+      tagHandlers.put(className, index = tagHandlers.size());
+    }
+    return index;
+  }
+
+  private void appendTagArgs(Map<String, String> args) {
     if (args == null || args.isEmpty()) {
       out.append("null");
     }
     else {
-      out.append("[");
-      int index = 0;
-      for (Map.Entry<String, String> entry : args.entrySet()) {
-        if (index++ > 0) {
-          out.append(",");
+      boolean constant = true;
+      for (String value : args.values()) {
+        if (value.indexOf('$') != -1 || value.indexOf('\\') != -1) {
+          constant = false;
+          break;
+        }
+      }
+      if (constant) {
+        // Arguments without interpolation are created once
+        out.append(constants).append(".a").append(tagArgs.size());
+        tagArgs.add(new LinkedHashMap<String, String>(args));
+      }
+      else {
+        out.append("[");
+        int index = 0;
+        for (Map.Entry<String, String> entry : args.entrySet()) {
+          if (index++ > 0) {
+            out.append(",");
+          }
+          out.append("\"").append(entry.getKey()).append("\":\"").append(entry.getValue()).append("\".toString()");
         }
-        out.append("\"").append(entry.getKey()).append("\":\"").append(entry.getValue()).append("\".toString()");
+        out.append("]");
       }
-      out.append("]");
     }
-    out.append(");");
-  }
-
-  @Override
-  public void tag(String tagName, Map<String, String> args) {
-    // throw new UnsupportedOperationException();
   }
 }
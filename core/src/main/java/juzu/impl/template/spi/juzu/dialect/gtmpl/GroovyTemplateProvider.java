@@ -16,6 +16,10 @@
 
 package juzu.impl.template.spi.juzu.dialect.gtmpl;
 
+import groovy.lang.GroovyClassLoader;
+import juzu.impl.common.Logger;
+import juzu.impl.common.Name;
+import juzu.impl.compiler.BaseProcessor;
 import juzu.impl.template.spi.EmitContext;
 import juzu.impl.template.spi.Template;
 import juzu.impl.template.spi.TemplateException;
@@ -23,12 +27,23 @@ import juzu.impl.template.spi.TemplateStub;
 import juzu.impl.template.spi.juzu.DialectTemplateProvider;
 import juzu.impl.template.spi.juzu.ast.ASTNode;
 import juzu.impl.template.spi.juzu.compiler.EmitPhase;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.tools.GroovyClass;
 
 import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class GroovyTemplateProvider extends DialectTemplateProvider {
 
+  /** . */
+  private static final Logger log = BaseProcessor.getLogger(GroovyTemplateProvider.class);
+
   @Override
   public Class<? extends TemplateStub> getTemplateStubType() {
     return GroovyTemplateStub.class;
@@ -44,6 +59,35 @@ public class GroovyTemplateProvider extends DialectTemplateProvider {
     GroovyTemplateEmitter emitter = new GroovyTemplateEmitter(template.getAbsolutePath().getName());
     EmitPhase tcc = new EmitPhase(context);
     tcc.emit(emitter, template.getModel());
-    context.createResource(template.getRelativePath().getRawName() + "_", "groovy", emitter.toString());
+    String script = emitter.toString();
+    context.createResource(template.getRelativePath().getRawName() + "_", "groovy", script);
+
+    // Compile the script to bytecode so the template is not compiled at runtime, the script is kept as it
+    // is compiled at runtime when the script cannot be compiled here
+    Name name = template.getAbsolutePath().getName();
+    List<GroovyClass> classes;
+    try {
+      CompilerConfiguration config = new CompilerConfiguration();
+      GroovyClassLoader loader = new GroovyClassLoader(GroovyTemplateProvider.class.getClassLoader(), config);
+      for (URL url : context.getClassPath()) {
+        loader.addURL(url);
+      }
+      CompilationUnit unit = new CompilationUnit(config, null, loader);
+      unit.addSource(name.getIdentifier() + "_.groovy", script);
+      unit.compile(Phases.CLASS_GENERATION);
+      classes = unit.getClasses();
+    }
+    catch (CompilationFailedException e) {
+      // The script may refer to application classes that are not yet compiled, the classes of a previous
+      // build must be deleted otherwise the stub would load them instead of compiling the script
+      log.log("Could not compile template " + template.getRelativePath() + " to bytecode, it will be compiled " +
+          "at runtime: " + e.getMessage());
+      context.deleteClass(name + "_");
+      context.deleteClass(name.getParent().append("C" + name.getIdentifier()).toString());
+      classes = Collections.emptyList();
+    }
+    for (GroovyClass clazz : classes) {
+      context.createClass(clazz.getName(), clazz.getBytes());
+    }
   }
 }
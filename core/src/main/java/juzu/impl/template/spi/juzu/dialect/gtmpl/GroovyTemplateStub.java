@@ -21,6 +21,7 @@ import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyCodeSource;
 import groovy.lang.Script;
 import juzu.impl.template.spi.TemplateStub;
+import juzu.template.Renderable;
 import juzu.template.TemplateExecutionException;
 import juzu.template.TemplateRenderContext;
 import org.codehaus.groovy.control.CompilerConfiguration;
@@ -36,6 +37,12 @@ import java.util.HashMap;
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class GroovyTemplateStub extends TemplateStub {
 
+  /** The body of the tags that have no body. */
+  public static final Renderable EMPTY_BODY = new Renderable() {
+    public void render(TemplateRenderContext context) {
+    }
+  };
+
   /** . */
   private Class<?> scriptClass;
 
@@ -16,8 +16,12 @@
 
 package juzu.impl.template.spi.juzu.dialect.gtmpl;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * A message key.
+ * A message key. Each key value is associated by an {@link Index} with an index shared by the keys having the
+ * same value, the index can be used for resolving the message from an array.
  *
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  */
@@ -26,16 +30,81 @@ public class MessageKey {
   /** . */
   private final String value;
 
+  /** The last index resolved for this key. */
+  private volatile Resolved resolved;
+
   public MessageKey(String value) {
     this.value = value;
+    this.resolved = null;
   }
 
   public String getValue() {
     return value;
   }
 
+  /**
+   * Returns the index of this key in the specified index, the last index is cached by the key.
+   *
+   * @param index the index
+   * @return the key index
+   */
+  public int getIndex(Index index) {
+    Resolved resolved = this.resolved;
+    if (resolved == null || resolved.owner != index) {
+      this.resolved = resolved = new Resolved(index, index.get(value));
+    }
+    return resolved.value;
+  }
+
   @Override
   public String toString() {
     return "MessageKey[" + value + "]";
   }
+
+  /**
+   * The indexes of the message key values, an index lives as long as its owner, for instance the template
+   * plugin of an application.
+   */
+  public static class Index {
+
+    /** . */
+    private final ConcurrentHashMap<String, Integer> indexes = new ConcurrentHashMap<String, Integer>();
+
+    /** . */
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    int get(String value) {
+      Integer index = indexes.get(value);
+      if (index == null) {
+        Integer phantom = indexes.putIfAbsent(value, index = nextIndex.getAndIncrement());
+        if (phantom != null) {
+          index = phantom;
+        }
+      }
+      return index;
+    }
+
+    /**
+     * Returns the number of indexed values.
+     *
+     * @return the index size
+     */
+    public int getSize() {
+      return indexes.size();
+    }
+  }
+
+  private static class Resolved {
+
+    /** . */
+    private final Index owner;
+
+    /** . */
+    private final int value;
+
+    private Resolved(Index owner, int value) {
+      this.owner = owner;
+      this.value = value;
+    }
+  }
 }
@@ -13,86 +13,304 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
+
 package juzu.io;
 
-import juzu.impl.common.CharBuffer;
 import juzu.impl.common.Tools;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Basic implementation of an asynchronous streamable. This implementation is basic for now:
+ * An asynchronous streamable, the chars appended are buffered until the streamable is sent, after that the
+ * pending chars are written and flushed to the stream by a shared pool of threads, so an idle stream does
+ * not hold a thread. The stream is closed when the streamable is closed and all pending chars are written.
  *
- * <ul>
- *   <li>Use synchronized blocks.</li>
- *   <li>Does not do any kind of control flow.</li>
- * </ul>
+ * <p>Once the streamable is sent, the pending chars are bounded by the streamable capacity: the
+ * <code>append</code> methods block until the chars fit and the <code>offer</code> methods tell when they
+ * don't, giving back pressure to producers faster than the client. A failure of the stream, for instance
+ * when the client goes away, closes the streamable and the next appends fail with an {@link IOException}.</p>
  *
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  */
 public class AsyncStreamable implements Streamable, Appendable, Closeable {
 
+  /** The default capacity in chars. */
+  public static final int DEFAULT_CAPACITY = Integer.getInteger("juzu.async.capacity", 65536);
+
+  /** The size of the pool writing to the streams. */
+  private static final int POOL_SIZE = Integer.getInteger("juzu.async.pool_size", Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+  /** . */
+  private static ExecutorService executor;
+
+  private static synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(POOL_SIZE, new AsyncThreadFactory());
+    }
+    return executor;
+  }
+
+  /** The number of leases of the pool. */
+  private static int leases;
+
+  /**
+   * Lease the threads writing to the streams, each bridge leases them when it is created and releases them when
+   * it is closed, so the threads are kept as long as one bridge of the virtual machine uses them.
+   */
+  public static synchronized void lease() {
+    leases++;
+  }
+
+  /**
+   * Release the threads writing to the streams, they are shut down when the last lease is released and the pending
+   * chars already scheduled are still written. A streamable sent after creates the threads again.
+   */
+  public static synchronized void release() {
+    if (leases > 0 && --leases == 0 && executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  private static void execute(Runnable task) {
+    while (true) {
+      ExecutorService executor = getExecutor();
+      try {
+        executor.execute(task);
+        return;
+      }
+      catch (RejectedExecutionException e) {
+        // The pool was shut down meanwhile, retry with a new one
+        if (!executor.isShutdown()) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  /** . */
+  private final int capacity;
+
+  /** The pending chars, guards the state of this streamable. */
+  private final StringBuilder buffer = new StringBuilder();
+
   /** . */
-  private final CharBuffer buffer = new CharBuffer(512);
+  private final Runnable drain = new Runnable() {
+    public void run() {
+      drain();
+    }
+  };
 
   /** . */
   private boolean closed = false;
 
+  /** True when the stream is closed. */
+  private boolean done = false;
+
+  /** True when the pending chars are being written. */
+  private boolean draining = false;
+
+  /** . */
+  private Exception failure = null;
+
   /** . */
   private Stream stream = null;
 
+  public AsyncStreamable() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public AsyncStreamable(int capacity) throws IllegalArgumentException {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be greater than 0");
+    }
+    this.capacity = capacity;
+  }
+
   public void send(Stream stream) throws IOException {
     synchronized (buffer) {
       if (this.stream != null) {
         throw new IllegalStateException("Already streaming");
       } else {
         this.stream = stream;
-        this.buffer.writeTo(stream);
-        if (closed) {
-          Tools.safeClose(stream);
-        }
+        schedule();
       }
     }
   }
 
-  private Appendable delegate() {
-    Stream s = stream;
-    if (s != null) {
-      return s;
-    } else {
-      return buffer;
+  /**
+   * @return true when the streamable is closed
+   */
+  public boolean isClosed() {
+    synchronized (buffer) {
+      return closed;
     }
   }
 
-  public AsyncStreamable append(java.lang.CharSequence csq) throws IOException {
-    synchronized (buffer) {
-      delegate().append(csq);
+  /**
+   * Append chars when they fit in the pending chars.
+   *
+   * @param csq the chars
+   * @return true when the chars were appended
+   * @throws IOException when the streamable is closed
+   */
+  public boolean offer(java.lang.CharSequence csq) throws IOException {
+    try {
+      return write(csq, 0, csq.length(), 0);
     }
-    return this;
+    catch (InterruptedException e) {
+      // Does not happen as it does not wait
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Append chars, waiting up to the specified time for them to fit in the pending chars.
+   *
+   * @param csq the chars
+   * @param timeout the time to wait
+   * @param unit the time unit
+   * @return true when the chars were appended
+   * @throws IOException when the streamable is closed
+   * @throws InterruptedException when the thread is interrupted
+   */
+  public boolean offer(java.lang.CharSequence csq, long timeout, TimeUnit unit) throws IOException, InterruptedException {
+    return write(csq, 0, csq.length(), Math.max(0, unit.toNanos(timeout)));
+  }
+
+  public AsyncStreamable append(java.lang.CharSequence csq) throws IOException {
+    return append(csq, 0, csq.length());
   }
 
   public AsyncStreamable append(java.lang.CharSequence csq, int start, int end) throws IOException {
-    synchronized (buffer) {
-      delegate().append(csq, start, end);
+    try {
+      write(csq, start, end, -1);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
     }
     return this;
   }
 
   public AsyncStreamable append(char c) throws IOException {
-    synchronized (buffer) {
-      delegate().append(c);
-    }
-    return this;
+    return append(Character.toString(c));
   }
 
   public void close() {
     synchronized (buffer) {
       if (!closed) {
-        if (stream != null) {
-          Tools.safeClose(stream);
+        closed = true;
+        schedule();
+        buffer.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Append chars to the pending chars.
+   *
+   * @param nanos the time to wait for the chars to fit, a negative value waits forever
+   * @return true when the chars were appended
+   */
+  private boolean write(java.lang.CharSequence csq, int start, int end, long nanos) throws IOException, InterruptedException {
+    synchronized (buffer) {
+      while (true) {
+        if (closed) {
+          throw failure != null ? new IOException("Stream failed", failure) : new IOException("Closed");
+        }
+
+        // Until it is sent, the streamable is filled by its own producer that cannot wait
+        int length = buffer.length();
+        if (stream == null || length == 0 || length + end - start <= capacity) {
+          buffer.append(csq, start, end);
+          schedule();
+          return true;
+        } else if (nanos == 0) {
+          return false;
+        } else if (nanos < 0) {
+          buffer.wait();
+        } else {
+          long now = System.nanoTime();
+          TimeUnit.NANOSECONDS.timedWait(buffer, nanos);
+          nanos = Math.max(0, nanos - (System.nanoTime() - now));
+        }
+      }
+    }
+  }
+
+  /**
+   * Schedule the writing of the pending chars when it is needed, must be called with the lock held.
+   */
+  private void schedule() {
+    if (stream != null && !draining && !done && (buffer.length() > 0 || closed)) {
+      draining = true;
+      execute(drain);
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      String chunk;
+      synchronized (buffer) {
+        if (buffer.length() > 0) {
+          chunk = buffer.toString();
+          buffer.setLength(0);
+          buffer.notifyAll();
+        } else {
+          draining = false;
+          if (closed && !done) {
+            done = true;
+            chunk = null;
+          } else {
+            return;
+          }
         }
       }
+      if (chunk == null) {
+        Tools.safeClose(stream);
+        return;
+      }
+      try {
+        stream.append(chunk);
+        stream.flush();
+      }
+      catch (Exception e) {
+        // The stream may also fail with a runtime exception once its response is completed
+        synchronized (buffer) {
+          closed = true;
+          done = true;
+          draining = false;
+          failure = e;
+          buffer.setLength(0);
+          buffer.notifyAll();
+        }
+        Tools.safeClose(stream);
+        return;
+      }
+    }
+  }
+
+  private static class AsyncThreadFactory implements ThreadFactory {
+
+    /** . */
+    private final AtomicInteger count = new AtomicInteger();
+
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "juzu-async-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      // Do not retain the class loader of the request that created the thread
+      thread.setContextClassLoader(null);
+      return thread;
     }
   }
 }
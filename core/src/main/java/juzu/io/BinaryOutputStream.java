@@ -16,14 +16,16 @@
 
 package juzu.io;
 
-import java.io.Closeable;
-import java.io.Flushable;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class BinaryOutputStream extends BinaryStream {
+public class BinaryOutputStream extends BinaryStream implements ChannelStream {
 
   /** . */
   private final OutputStream out;
@@ -47,6 +49,18 @@ public class BinaryOutputStream extends BinaryStream {
     return this;
   }
 
+  public void transferFrom(File file, FileChannel channel, long position, long count) throws IOException {
+    WritableByteChannel target = Channels.newChannel(out);
+    while (count > 0) {
+      long transferred = channel.transferTo(position, count, target);
+      if (transferred <= 0) {
+        break;
+      }
+      position += transferred;
+      count -= transferred;
+    }
+  }
+
   public void flush() throws IOException {
     out.flush();
   }
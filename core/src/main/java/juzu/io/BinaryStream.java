@@ -22,7 +22,6 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
-import java.nio.charset.CodingErrorAction;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public abstract class BinaryStream implements Stream {
@@ -33,12 +32,6 @@ public abstract class BinaryStream implements Stream {
   /** Charset. */
   private Charset charset;
 
-  /** Encoder. */
-  private CharsetEncoder encoder;
-
-  /** . */
-  private ByteBuffer bb;
-
   /** The cached buffer for single char conversion. */
   private CharBuffer single;
 
@@ -48,38 +41,44 @@ public abstract class BinaryStream implements Stream {
 
   public Stream append(CharBuffer buffer) throws IOException {
     if (buffer.hasRemaining()) {
-      if (encoder == null) {
-        encoder = charset.newEncoder().onUnmappableCharacter(CodingErrorAction.REPORT).onMalformedInput(CodingErrorAction.IGNORE);
-        bb = ByteBuffer.allocate(BUFFER_SIZE);
-      } else {
-        encoder.reset();
+      CharsetEncoder encoder = BufferPool.borrowEncoder(charset);
+      ByteBuffer bb = BufferPool.borrowBytes(BufferPool.size(buffer.remaining(), encoder.maxBytesPerChar()));
+      try {
+        encode(encoder, buffer, bb);
       }
-      while (true) {
-        CoderResult result ;
-        result = buffer.hasRemaining() ? encoder.encode(buffer, bb, true) : encoder.flush(bb);
-        if (result.isUnderflow() || result.isOverflow()) {
-          bb.flip();
-          if (bb.hasRemaining()) {
-            append(bb);
-          }
-          bb.clear();
-          if (result.isUnderflow()) {
-            if (buffer.remaining() > 0) {
-              throw new UnsupportedOperationException("We don't support this case yet");
-            } else {
-              break;
-            }
-          }
-        } else {
-          if (result.isUnmappable()) {
-            buffer.position(buffer.position() + result.length());
+      finally {
+        BufferPool.release(encoder);
+        BufferPool.release(bb);
+      }
+    }
+    return this;
+  }
+
+  private void encode(CharsetEncoder encoder, CharBuffer buffer, ByteBuffer bb) throws IOException {
+    while (true) {
+      CoderResult result ;
+      result = buffer.hasRemaining() ? encoder.encode(buffer, bb, true) : encoder.flush(bb);
+      if (result.isUnderflow() || result.isOverflow()) {
+        bb.flip();
+        if (bb.hasRemaining()) {
+          append(bb);
+        }
+        bb.clear();
+        if (result.isUnderflow()) {
+          if (buffer.remaining() > 0) {
+            throw new UnsupportedOperationException("We don't support this case yet");
           } else {
-            throw new UnsupportedOperationException("We don't support this case yet (2) " + result);
+            break;
           }
         }
+      } else {
+        if (result.isUnmappable()) {
+          buffer.position(buffer.position() + result.length());
+        } else {
+          throw new UnsupportedOperationException("We don't support this case yet (2) " + result);
+        }
       }
     }
-    return this;
   }
 
   public abstract BinaryStream append(byte[] data, int off, int len) throws IOException;
@@ -87,7 +86,14 @@ public abstract class BinaryStream implements Stream {
   public abstract BinaryStream append(byte[] data) throws IOException;
 
   public Stream append(ByteBuffer buffer) throws IOException {
-    append(bb.array(), bb.arrayOffset() + bb.position(), bb.limit() - bb.arrayOffset());
+    if (buffer.hasArray()) {
+      append(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+    } else {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      append(bytes);
+    }
     return this;
   }
 
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.io;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Striped pools of the coders and buffers used by the streams to convert chars to bytes and bytes to chars.
+ * A stream borrows them for the duration of a conversion and releases them afterwards, so the streams of
+ * a request do not allocate them and nested conversions always get distinct instances.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+final class BufferPool {
+
+  /** The minimum buffer size. */
+  static final int MIN_SIZE = Stream.BUFFER_SIZE;
+
+  /** The maximum buffer size, a conversion larger than this size is written in several chunks. */
+  static final int MAX_SIZE = Integer.getInteger("juzu.io.max_buffer_size", 8192);
+
+  /** The maximum number of instances of each kind pooled by a stripe. */
+  private static final int MAX_POOLED = 4;
+
+  /** . */
+  private static final Stripe[] stripes;
+
+  static {
+    int size = 1;
+    while (size < Runtime.getRuntime().availableProcessors() * 2) {
+      size <<= 1;
+    }
+    stripes = new Stripe[size];
+    for (int i = 0;i < size;i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  private static Stripe stripe() {
+    return stripes[(int)Thread.currentThread().getId() & (stripes.length - 1)];
+  }
+
+  /**
+   * Compute the size of a buffer for converting the specified amount of data.
+   *
+   * @param length the amount of data
+   * @param ratio the conversion ratio
+   * @return the buffer size
+   */
+  static int size(int length, float ratio) {
+    float size = length * ratio;
+    if (size <= MIN_SIZE) {
+      return MIN_SIZE;
+    } else if (size >= MAX_SIZE) {
+      return MAX_SIZE;
+    } else {
+      return (int)size;
+    }
+  }
+
+  static CharsetEncoder borrowEncoder(Charset charset) {
+    Stripe stripe = stripe();
+    CharsetEncoder encoder = stripe.borrow(charset, stripe.encoders);
+    if (encoder == null) {
+      encoder = charset.newEncoder().onUnmappableCharacter(CodingErrorAction.REPORT).onMalformedInput(CodingErrorAction.IGNORE);
+    }
+    return encoder;
+  }
+
+  static void release(CharsetEncoder encoder) {
+    encoder.reset();
+    Stripe stripe = stripe();
+    stripe.release(encoder.charset(), encoder, stripe.encoders);
+  }
+
+  static CharsetDecoder borrowDecoder(Charset charset) {
+    Stripe stripe = stripe();
+    CharsetDecoder decoder = stripe.borrow(charset, stripe.decoders);
+    if (decoder == null) {
+      decoder = charset.newDecoder().onUnmappableCharacter(CodingErrorAction.REPORT).onMalformedInput(CodingErrorAction.IGNORE);
+    }
+    return decoder;
+  }
+
+  static void release(CharsetDecoder decoder) {
+    decoder.reset();
+    Stripe stripe = stripe();
+    stripe.release(decoder.charset(), decoder, stripe.decoders);
+  }
+
+  static ByteBuffer borrowBytes(int size) {
+    Stripe stripe = stripe();
+    ByteBuffer buffer = stripe.borrow(size, stripe.bytes);
+    return buffer != null ? buffer : ByteBuffer.allocate(size);
+  }
+
+  static void release(ByteBuffer buffer) {
+    buffer.clear();
+    Stripe stripe = stripe();
+    stripe.release(buffer, stripe.bytes);
+  }
+
+  static CharBuffer borrowChars(int size) {
+    Stripe stripe = stripe();
+    CharBuffer buffer = stripe.borrow(size, stripe.chars);
+    return buffer != null ? buffer : CharBuffer.allocate(size);
+  }
+
+  static void release(CharBuffer buffer) {
+    buffer.clear();
+    Stripe stripe = stripe();
+    stripe.release(buffer, stripe.chars);
+  }
+
+  private static class Stripe {
+
+    /** . */
+    private final HashMap<Charset, ArrayList<CharsetEncoder>> encoders = new HashMap<Charset, ArrayList<CharsetEncoder>>();
+
+    /** . */
+    private final HashMap<Charset, ArrayList<CharsetDecoder>> decoders = new HashMap<Charset, ArrayList<CharsetDecoder>>();
+
+    /** . */
+    private final ArrayList<ByteBuffer> bytes = new ArrayList<ByteBuffer>();
+
+    /** . */
+    private final ArrayList<CharBuffer> chars = new ArrayList<CharBuffer>();
+
+    synchronized <C> C borrow(Charset charset, HashMap<Charset, ArrayList<C>> pool) {
+      ArrayList<C> coders = pool.get(charset);
+      return coders != null && coders.size() > 0 ? coders.remove(coders.size() - 1) : null;
+    }
+
+    synchronized <C> void release(Charset charset, C coder, HashMap<Charset, ArrayList<C>> pool) {
+      ArrayList<C> coders = pool.get(charset);
+      if (coders == null) {
+        pool.put(charset, coders = new ArrayList<C>(MAX_POOLED));
+      }
+      if (coders.size() < MAX_POOLED) {
+        coders.add(coder);
+      }
+    }
+
+    synchronized <B extends Buffer> B borrow(int size, ArrayList<B> pool) {
+      for (int i = 0;i < pool.size();i++) {
+        if (pool.get(i).capacity() >= size) {
+          return pool.remove(i);
+        }
+      }
+      return null;
+    }
+
+    synchronized <B extends Buffer> void release(B buffer, ArrayList<B> pool) {
+      // When the pool is full, the smallest buffer is replaced so the pool adapts to the largest conversions
+      if (pool.size() < MAX_POOLED) {
+        pool.add(buffer);
+      } else {
+        int smallest = 0;
+        for (int i = 1;i < pool.size();i++) {
+          if (pool.get(i).capacity() < pool.get(smallest).capacity()) {
+            smallest = i;
+          }
+        }
+        if (pool.get(smallest).capacity() < buffer.capacity()) {
+          pool.set(smallest, buffer);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * A stream able to transfer the content of a file channel without copying it through the heap.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public interface ChannelStream extends Stream {
+
+  /**
+   * Transfer a region of a file channel to this stream.
+   *
+   * @param file the file of the channel or null when it is not known
+   * @param channel the channel
+   * @param position the position of the region
+   * @param count the size of the region
+   * @throws IOException any io exception
+   */
+  void transferFrom(File file, FileChannel channel, long position, long count) throws IOException;
+
+}
@@ -22,7 +22,6 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CoderResult;
-import java.nio.charset.CodingErrorAction;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public abstract class CharStream implements Stream {
@@ -30,12 +29,6 @@ public abstract class CharStream implements Stream {
   /** Charset. */
   private Charset charset;
 
-  /** Decoder. */
-  private CharsetDecoder decoder;
-
-  /** . */
-  private CharBuffer bb;
-
   public CharStream(Charset charset) {
     this.charset = charset;
   }
@@ -56,42 +49,49 @@ public abstract class CharStream implements Stream {
 
   public Stream append(ByteBuffer buffer) throws IOException {
     if (buffer.hasRemaining()) {
-      if (decoder == null) {
-        decoder = charset.newDecoder().onUnmappableCharacter(CodingErrorAction.REPORT).onMalformedInput(CodingErrorAction.IGNORE);
-        bb = CharBuffer.allocate(BUFFER_SIZE);
-      } else {
-        decoder.reset();
+      CharsetDecoder decoder = BufferPool.borrowDecoder(charset);
+      CharBuffer bb = BufferPool.borrowChars(BufferPool.size(buffer.remaining(), decoder.maxCharsPerByte()));
+      try {
+        decode(decoder, buffer, bb);
       }
-      while (true) {
-        CoderResult result ;
-        result = buffer.hasRemaining() ? decoder.decode(buffer, bb, true) : decoder.flush(bb);
-        if (result.isUnderflow() || result.isOverflow()) {
-          bb.flip();
-          if (bb.hasRemaining()) {
-            append(bb);
-          }
-          bb.clear();
-          if (result.isUnderflow()) {
-            if (buffer.remaining() > 0) {
-              throw new UnsupportedOperationException("We don't support this case yet");
-            } else {
-              break;
-            }
-          }
-        } else {
-          if (result.isUnmappable()) {
-            buffer.position(buffer.position() + result.length());
+      finally {
+        BufferPool.release(decoder);
+        BufferPool.release(bb);
+      }
+    }
+    return this;
+  }
+
+  private void decode(CharsetDecoder decoder, ByteBuffer buffer, CharBuffer bb) throws IOException {
+    while (true) {
+      CoderResult result ;
+      result = buffer.hasRemaining() ? decoder.decode(buffer, bb, true) : decoder.flush(bb);
+      if (result.isUnderflow() || result.isOverflow()) {
+        bb.flip();
+        if (bb.hasRemaining()) {
+          append(bb);
+        }
+        bb.clear();
+        if (result.isUnderflow()) {
+          if (buffer.remaining() > 0) {
+            throw new UnsupportedOperationException("We don't support this case yet");
           } else {
-            throw new UnsupportedOperationException("We don't support this case yet (2) " + result);
+            break;
           }
         }
+      } else {
+        if (result.isUnmappable()) {
+          buffer.position(buffer.position() + result.length());
+        } else {
+          throw new UnsupportedOperationException("We don't support this case yet (2) " + result);
+        }
       }
     }
-    return this;
   }
 
   public Stream append(CharBuffer buffer) throws IOException {
-    append(buffer, buffer.arrayOffset() + buffer.position(), buffer.limit() - buffer.arrayOffset());
+    append(buffer, 0, buffer.remaining());
+    buffer.position(buffer.limit());
     return this;
   }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.io;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A server-sent events streamable, the events are published by any thread and are pushed to the client as
+ * an <code>text/event-stream</code> until the streamable is closed.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class EventStreamable extends AsyncStreamable {
+
+  public EventStreamable() {
+  }
+
+  public EventStreamable(int capacity) throws IllegalArgumentException {
+    super(capacity);
+  }
+
+  public EventStreamable publish(String data) throws NullPointerException, IOException {
+    return publish(null, null, data);
+  }
+
+  public EventStreamable publish(String event, String data) throws NullPointerException, IllegalArgumentException, IOException {
+    return publish(null, event, data);
+  }
+
+  /**
+   * Publish an event, waiting for the pending events to be sent when there is not enough room for it.
+   *
+   * @param id the optional event id
+   * @param event the optional event name
+   * @param data the event data
+   * @return this streamable
+   * @throws NullPointerException if the data is null
+   * @throws IllegalArgumentException if the id or the event name contains a line break
+   * @throws IOException when the streamable is closed
+   */
+  public EventStreamable publish(String id, String event, String data) throws NullPointerException, IllegalArgumentException, IOException {
+    append(format(id, event, data));
+    return this;
+  }
+
+  /**
+   * Publish an event when there is enough room for it.
+   *
+   * @param id the optional event id
+   * @param event the optional event name
+   * @param data the event data
+   * @return true if the event was published
+   * @throws NullPointerException if the data is null
+   * @throws IllegalArgumentException if the id or the event name contains a line break
+   * @throws IOException when the streamable is closed
+   */
+  public boolean offer(String id, String event, String data) throws NullPointerException, IllegalArgumentException, IOException {
+    return offer(format(id, event, data));
+  }
+
+  /**
+   * Publish an event, waiting up to the specified time for enough room for it.
+   *
+   * @param id the optional event id
+   * @param event the optional event name
+   * @param data the event data
+   * @param timeout the time to wait
+   * @param unit the time unit
+   * @return true if the event was published
+   * @throws NullPointerException if the data is null
+   * @throws IllegalArgumentException if the id or the event name contains a line break
+   * @throws IOException when the streamable is closed
+   * @throws InterruptedException when the thread is interrupted
+   */
+  public boolean offer(String id, String event, String data, long timeout, TimeUnit unit) throws NullPointerException, IllegalArgumentException, IOException, InterruptedException {
+    return offer(format(id, event, data), timeout, unit);
+  }
+
+  /**
+   * Send a comment ignored by the client, it can be used for keeping alive an idle connection.
+   *
+   * @param comment the comment
+   * @return true if the comment was sent
+   * @throws IOException when the streamable is closed
+   */
+  public boolean comment(String comment) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    lines(sb, ": ", comment);
+    return offer(sb.append('\n'));
+  }
+
+  static String format(String id, String event, String data) throws NullPointerException, IllegalArgumentException {
+    if (data == null) {
+      throw new NullPointerException("No null data accepted");
+    }
+    StringBuilder sb = new StringBuilder(data.length() + 16);
+    if (id != null) {
+      field(sb, "id", id);
+    }
+    if (event != null) {
+      field(sb, "event", event);
+    }
+    lines(sb, "data: ", data);
+    return sb.append('\n').toString();
+  }
+
+  private static void field(StringBuilder sb, String name, String value) throws IllegalArgumentException {
+    if (value.indexOf('\n') != -1 || value.indexOf('\r') != -1) {
+      throw new IllegalArgumentException("Illegal line break in " + name + " " + value);
+    }
+    sb.append(name).append(": ").append(value).append('\n');
+  }
+
+  /**
+   * Append each line of the value prefixed, the line breaks are normalized.
+   */
+  private static void lines(StringBuilder sb, String prefix, String value) {
+    int from = 0;
+    for (int i = 0, len = value.length();i <= len;i++) {
+      char c = i < len ? value.charAt(i) : '\n';
+      if (c == '\n' || c == '\r') {
+        sb.append(prefix).append(value, from, i).append('\n');
+        if (c == '\r' && i + 1 < len && value.charAt(i + 1) == '\n') {
+          i++;
+        }
+        from = i + 1;
+      }
+    }
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.io;
+
+import juzu.impl.common.JSON;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Map;
+
+/**
+ * A streaming JSON writer: the document is written to a {@link Stream} by chunks as it is produced, so a large
+ * document never needs to be held in memory. Values are serialized with {@link JSON}, maps, iterables and arrays
+ * are iterated and written element by element.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class JSONWriter implements Flushable, Closeable {
+
+  /** The default chunk size in chars. */
+  public static final int CHUNK_SIZE = Integer.getInteger("juzu.json.chunk_size", 4096);
+
+  /** . */
+  private static final int EMPTY_ARRAY = 0, ARRAY = 1, EMPTY_OBJECT = 2, OBJECT = 3, NAME = 4;
+
+  /** . */
+  private final Stream stream;
+
+  /** . */
+  private final int chunkSize;
+
+  /** . */
+  private final StringBuilder buffer;
+
+  /** . */
+  private final Appendable chunk = new Appendable() {
+    public Appendable append(CharSequence csq) throws IOException {
+      buffer.append(csq);
+      return drain();
+    }
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+      buffer.append(csq, start, end);
+      return drain();
+    }
+    public Appendable append(char c) throws IOException {
+      buffer.append(c);
+      return drain();
+    }
+    private Appendable drain() throws IOException {
+      JSONWriter.this.drain(chunkSize);
+      return this;
+    }
+  };
+
+  /** . */
+  private int[] scopes;
+
+  /** . */
+  private int depth;
+
+  /** . */
+  private boolean written;
+
+  public JSONWriter(Stream stream) throws NullPointerException {
+    this(stream, CHUNK_SIZE);
+  }
+
+  public JSONWriter(Stream stream, int chunkSize) throws NullPointerException, IllegalArgumentException {
+    if (stream == null) {
+      throw new NullPointerException("No null stream accepted");
+    }
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be greater than 0");
+    }
+    this.stream = stream;
+    this.chunkSize = chunkSize;
+    this.buffer = new StringBuilder(chunkSize + 16);
+    this.scopes = new int[8];
+    this.depth = 0;
+    this.written = false;
+  }
+
+  public JSONWriter beginObject() throws IOException, IllegalStateException {
+    return begin(EMPTY_OBJECT, '{');
+  }
+
+  public JSONWriter endObject() throws IOException, IllegalStateException {
+    return end(EMPTY_OBJECT, OBJECT, '}');
+  }
+
+  public JSONWriter beginArray() throws IOException, IllegalStateException {
+    return begin(EMPTY_ARRAY, '[');
+  }
+
+  public JSONWriter endArray() throws IOException, IllegalStateException {
+    return end(EMPTY_ARRAY, ARRAY, ']');
+  }
+
+  /**
+   * Write the name of the next member of the current object.
+   *
+   * @param name the member name
+   * @return this writer
+   * @throws NullPointerException if the name is null
+   * @throws IOException any io exception
+   * @throws IllegalStateException if the writer is not within an object expecting a name
+   */
+  public JSONWriter name(String name) throws NullPointerException, IOException, IllegalStateException {
+    if (name == null) {
+      throw new NullPointerException("No null name accepted");
+    }
+    int scope = depth > 0 ? scopes[depth - 1] : -1;
+    if (scope == OBJECT) {
+      chunk.append(',');
+    } else if (scope != EMPTY_OBJECT) {
+      throw new IllegalStateException("Not expecting a name");
+    }
+    scopes[depth - 1] = NAME;
+    JSON.toString(name, chunk);
+    chunk.append(':');
+    return this;
+  }
+
+  /**
+   * Write a value: maps are written as objects, iterables and arrays are written as arrays, NaN and infinite
+   * numbers are written as null and any other value is written as it would be by {@link JSON}.
+   *
+   * @param value the value
+   * @return this writer
+   * @throws IOException any io exception
+   * @throws IllegalStateException if the writer is not expecting a value
+   */
+  public JSONWriter value(Object value) throws IOException, IllegalStateException {
+    if (value == null || value instanceof Number || value instanceof Boolean) {
+      next();
+      if (value instanceof Number && !JSON.isFinite((Number)value)) {
+        // NaN and infinite numbers have no json representation
+        buffer.append("null");
+      } else {
+        buffer.append(value);
+      }
+      drain(chunkSize);
+    } else if (value instanceof CharSequence) {
+      next();
+      JSON.toString(value, chunk);
+    } else if (value instanceof Map<?, ?>) {
+      beginObject();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+        name(String.valueOf(entry.getKey()));
+        value(entry.getValue());
+      }
+      endObject();
+    } else if (value instanceof Iterable<?>) {
+      beginArray();
+      for (Object element : (Iterable<?>)value) {
+        value(element);
+      }
+      endArray();
+    } else if (value.getClass().isArray()) {
+      beginArray();
+      for (int i = 0, length = Array.getLength(value);i < length;i++) {
+        value(Array.get(value, i));
+      }
+      endArray();
+    } else {
+      next();
+      JSON.toString(JSON.unwrap(value), chunk);
+    }
+    return this;
+  }
+
+  /**
+   * Send the pending chars to the stream and flush it.
+   *
+   * @throws IOException any io exception
+   */
+  public void flush() throws IOException {
+    drain();
+    stream.flush();
+  }
+
+  /**
+   * Send the pending chars to the stream and close it.
+   *
+   * @throws IOException any io exception
+   */
+  public void close() throws IOException {
+    try {
+      drain();
+    }
+    finally {
+      stream.close();
+    }
+  }
+
+  private JSONWriter begin(int scope, char c) throws IOException {
+    next();
+    if (depth == scopes.length) {
+      int[] tmp = new int[depth * 2];
+      System.arraycopy(scopes, 0, tmp, 0, depth);
+      scopes = tmp;
+    }
+    scopes[depth++] = scope;
+    chunk.append(c);
+    return this;
+  }
+
+  private JSONWriter end(int empty, int nonEmpty, char c) throws IOException {
+    int scope = depth > 0 ? scopes[depth - 1] : -1;
+    if (scope != empty && scope != nonEmpty) {
+      throw new IllegalStateException("Cannot close " + c + " here");
+    }
+    depth--;
+    chunk.append(c);
+    return this;
+  }
+
+  /**
+   * Prepare the writing of a value in the current scope.
+   */
+  private void next() throws IOException {
+    if (depth == 0) {
+      if (written) {
+        throw new IllegalStateException("The document has already been written");
+      }
+      written = true;
+    } else {
+      switch (scopes[depth - 1]) {
+        case EMPTY_ARRAY:
+          scopes[depth - 1] = ARRAY;
+          break;
+        case ARRAY:
+          chunk.append(',');
+          break;
+        case NAME:
+          scopes[depth - 1] = OBJECT;
+          break;
+        default:
+          throw new IllegalStateException("Expecting a name instead of a value");
+      }
+    }
+  }
+
+  private void drain() throws IOException {
+    drain(1);
+  }
+
+  /**
+   * Send the pending chars to the stream when there are at least <code>threshold</code> of them.
+   */
+  private void drain(int threshold) throws IOException {
+    if (buffer.length() >= threshold) {
+      stream.append(buffer);
+      buffer.setLength(0);
+    }
+  }
+}
@@ -18,7 +18,11 @@ package juzu.io;
 
 import juzu.impl.common.Tools;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public interface Streamable {
@@ -51,7 +55,7 @@ public interface Streamable {
     }
 
     public void send(Stream stream) throws IOException {
-      byte[] buffer = new byte[256];
+      byte[] buffer = new byte[8192];
       try {
         for (int l;(l = in.read(buffer)) != -1;) {
           stream.append(buffer, 0, l);
@@ -81,6 +85,144 @@ public interface Streamable {
     }
   }
 
+  /**
+   * A file channel, the channel is transferred to the streams implementing {@link ChannelStream} and copied
+   * to the other streams. The channel is closed once it is sent.
+   */
+  public static class Channel implements Streamable, Closeable {
+
+    /** . */
+    private final java.io.File file;
+
+    /** . */
+    private FileChannel channel;
+
+    public Channel(java.io.File file) throws NullPointerException {
+      if (file == null) {
+        throw new NullPointerException("No null file accepted");
+      }
+      this.file = file;
+      this.channel = null;
+    }
+
+    public Channel(FileChannel channel) throws NullPointerException {
+      if (channel == null) {
+        throw new NullPointerException("No null channel accepted");
+      }
+      this.file = null;
+      this.channel = channel;
+    }
+
+    /**
+     * @return the file or null when the channel was provided
+     */
+    public java.io.File getFile() {
+      return file;
+    }
+
+    /**
+     * @return the channel length
+     * @throws IOException any io exception
+     */
+    public long getLength() throws IOException {
+      return file != null ? file.length() : channel.size();
+    }
+
+    /**
+     * @return the last modification date of the file or 0 when it is not known
+     */
+    public long getLastModified() {
+      return file != null ? file.lastModified() : 0;
+    }
+
+    public void send(Stream stream) throws IOException {
+      send(stream, 0, getLength());
+    }
+
+    /**
+     * Send a region of the channel.
+     *
+     * @param stream the stream
+     * @param position the region position
+     * @param count the region size
+     * @throws IOException any io exception
+     */
+    public void send(Stream stream, long position, long count) throws IOException {
+      try {
+        if (channel == null) {
+          channel = new RandomAccessFile(file, "r").getChannel();
+        }
+        if (stream instanceof ChannelStream) {
+          ((ChannelStream)stream).transferFrom(file, channel, position, count);
+        } else {
+          copy(channel, position, count, stream);
+        }
+      }
+      finally {
+        Tools.safeClose(this);
+        Tools.safeClose(stream);
+      }
+    }
+
+    /**
+     * Copy a region of a channel to a stream through a heap buffer.
+     *
+     * @param channel the channel
+     * @param position the region position
+     * @param count the region size
+     * @param stream the stream
+     * @throws IOException any io exception
+     */
+    public static void copy(FileChannel channel, long position, long count, Stream stream) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate((int)Math.min(count, 8192));
+      while (count > 0) {
+        buffer.clear();
+        if (buffer.remaining() > count) {
+          buffer.limit((int)count);
+        }
+        int read = channel.read(buffer, position);
+        if (read == -1) {
+          break;
+        }
+        buffer.flip();
+        stream.append(buffer);
+        position += read;
+        count -= read;
+      }
+    }
+
+    public void close() throws IOException {
+      if (channel != null) {
+        channel.close();
+      }
+    }
+  }
+
+  /**
+   * A JSON document produced incrementally with a {@link JSONWriter}, the stream is closed once the document
+   * is written.
+   */
+  public static abstract class JSON implements Streamable {
+
+    public void send(Stream stream) throws IOException {
+      JSONWriter writer = new JSONWriter(stream);
+      try {
+        write(writer);
+      }
+      finally {
+        Tools.safeClose(writer);
+      }
+    }
+
+    /**
+     * Write the document.
+     *
+     * @param writer the writer
+     * @throws IOException any io exception
+     */
+    protected abstract void write(JSONWriter writer) throws IOException;
+  }
+
   void send(Stream stream) throws IOException;
 
 }
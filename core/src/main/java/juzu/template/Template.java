@@ -22,8 +22,11 @@ import juzu.impl.common.Tools;
 import juzu.io.UndeclaredIOException;
 import juzu.impl.plugin.application.Application;
 import juzu.impl.request.Request;
+import juzu.impl.plugin.template.Messages;
 import juzu.impl.plugin.template.TemplatePlugin;
 import juzu.impl.common.Path;
+import juzu.impl.template.spi.Formatters;
+import juzu.impl.template.spi.FragmentCache;
 import juzu.impl.template.spi.TemplateStub;
 import juzu.impl.template.spi.juzu.dialect.gtmpl.MessageKey;
 import juzu.io.Streams;
@@ -39,8 +42,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.MissingResourceException;
-import java.util.ResourceBundle;
 
 /**
  * <p></p>A template as seen by an application. A template is identified by its {@link #path} and can used to produce markup.
@@ -371,10 +372,7 @@ public abstract class Template {
         ) {
 
           /** . */
-          ResourceBundle bundle = null;
-
-          /** . */
-          boolean bundleLoaded = false;
+          Messages messages = null;
 
           @Override
           public TemplateStub resolveTemplate(String path) {
@@ -389,28 +387,28 @@ public abstract class Template {
           @Override
           public String resolveMessage(MessageKey key) {
 
-            // Lazy load the bundle here
-            if (!bundleLoaded) {
-              bundleLoaded = true;
+            // Lazy load the messages here
+            if (messages == null) {
               if (locale != null) {
                 ApplicationContext applicationContext = Request.getCurrent().getContext().getApplicationContext();
-                if (applicationContext != null) {
-                  bundle = applicationContext.resolveBundle(locale);
-                }
+                messages = plugin.resolveMessages(locale, applicationContext);
+              } else {
+                messages = Messages.EMPTY;
               }
             }
 
             //
-            String value = null;
-            if (bundle != null) {
-              try {
-                value = bundle.getString(key.getValue());
-              }
-              catch (MissingResourceException notFound) {
-                // System.out.println("Could not resolve message " + key.getValue());
-              }
-            }
-            return value != null ? value : "";
+            return messages.resolve(key);
+          }
+
+          @Override
+          public Formatters getFormatters() {
+            return plugin.getFormatters();
+          }
+
+          @Override
+          public FragmentCache getFragmentCache() {
+            return plugin.getFragmentCache();
           }
         };
 
@@ -19,6 +19,8 @@ package juzu.template;
 import juzu.PropertyMap;
 import juzu.PropertyType;
 import juzu.impl.common.Tools;
+import juzu.impl.template.spi.Formatters;
+import juzu.impl.template.spi.FragmentCache;
 import juzu.impl.template.spi.TemplateStub;
 import juzu.impl.template.spi.juzu.dialect.gtmpl.MessageKey;
 import juzu.io.Streams;
@@ -26,6 +28,7 @@ import juzu.io.Stream;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
@@ -48,6 +51,9 @@ public class TemplateRenderContext {
   /** . */
   private final TemplateStub stub;
 
+  /** The bodies of the decorate tags being rendered. */
+  private ArrayList<Renderable> decorated;
+
   public TemplateRenderContext(TemplateStub stub) {
     this(stub, Collections.<String, Object>emptyMap());
   }
@@ -85,6 +91,20 @@ public class TemplateRenderContext {
     }
   }
 
+  public void pushDecorated(Renderable body) {
+    if (decorated == null) {
+      decorated = new ArrayList<Renderable>();
+    }
+    decorated.add(body);
+  }
+
+  /**
+   * @return the body of the innermost decorate tag being rendered or null
+   */
+  public Renderable popDecorated() {
+    return decorated == null || decorated.isEmpty() ? null : decorated.remove(decorated.size() - 1);
+  }
+
   public TemplateStub resolveTemplate(String path) {
     return null;
   }
@@ -97,12 +117,37 @@ public class TemplateRenderContext {
     return key.toString();
   }
 
+  public Formatters getFormatters() {
+    return Formatters.DEFAULT;
+  }
+
+  public FragmentCache getFragmentCache() {
+    return null;
+  }
+
   public StringBuilder render() throws IOException {
     StringBuilder buffer = new StringBuilder();
     render(Streams.appendable(Tools.UTF_8, buffer));
     return buffer;
   }
 
+  /**
+   * Render a renderable to the specified printer, the current printer is restored afterwards.
+   *
+   * @param renderable the renderable
+   * @param printer the printer
+   */
+  public void render(Renderable renderable, Stream printer) {
+    Stream previous = this.printer;
+    this.printer = printer;
+    try {
+      renderable.render(this);
+    }
+    finally {
+      this.printer = previous;
+    }
+  }
+
   public void render(Stream printer) throws IOException {
     if (this.printer != null) {
       throw new IllegalStateException("Already rendering");
@@ -2,13 +2,52 @@
   $.fn.jz = function() {
     return this.closest(".jz");
   };
+  var tables = {};
+  var loaded = {};
+  var loadTable = function(table) {
+    var deferred = tables[table];
+    if (deferred === undefined) {
+      // The table is cacheable, it is fetched once per page
+      deferred = tables[table] = $.Deferred();
+      $.ajax({
+        url:table,
+        dataType:"json",
+        success:function(data) { deferred.resolve(loaded[table] = data); },
+        error:function() { deferred.resolve(loaded[table] = {}); }
+      });
+    }
+    return deferred;
+  };
+  $(function() {
+    $(".jz[data-table]").each(function() {
+      loadTable($(this).attr("data-table"));
+    });
+  });
+  // The url is undefined until the table is fetched
   $.fn.jzURL = function(mid) {
-    return this.
-      jz().
+    var jz = this.jz();
+    var table = jz.attr("data-table");
+    if (table) {
+      var urls = loaded[table];
+      if (urls === undefined) {
+        loadTable(table);
+        return undefined;
+      }
+      return urls[mid];
+    }
+    return jz.
       children().
       filter(function() { return $(this).data("method-id") == mid; }).
       map(function() { return $(this).data("url"); })[0];
   };
+  // Call back with the url, after the table is fetched when it is not yet
+  var withURL = function(elt, mid, callback) {
+    var table = elt.jz().attr("data-table");
+    if (table && loaded[table] === undefined) {
+      return loadTable(table).pipe(function(urls) { return callback(urls[mid]); });
+    }
+    return callback(elt.jzURL(mid));
+  };
   var re = /^(.*)\(\)$/;
   $.fn.jzAjax = function(url, options) {
     if (typeof url === "object") {
@@ -17,26 +56,66 @@
     }
     var match = re.exec(url);
     if (match != null) {
-      url = this.jzURL(match[1]);
-      if (url != null) {
-        options = $.extend({}, options || {});
-        options.url = url;
-        return $.ajax(options);
-      }
+      return withURL(this, match[1], function(url) {
+        if (url != null) {
+          options = $.extend({}, options || {});
+          options.url = url;
+          return $.ajax(options);
+        }
+      });
     }
   };
   $.fn.jzLoad = function(url, data, complete) {
-    var match = re.exec(url);
-    if (match != null) {
-      var repl = this.jzURL(match[1]);
-      url = repl || url;
-    }
     if (typeof data === "function") {
       complete = data;
       data = null;
     }
+    var match = re.exec(url);
+    if (match != null) {
+      var self = this;
+      withURL(this, match[1], function(repl) {
+        self.load(repl || url, data, complete);
+      });
+      return this;
+    }
     return this.load(url, data, complete);
   };
+  $.fn.jzBatch = function(calls, options) {
+    options = options || {};
+    var batch = [];
+    for (var i = 0;i < calls.length;i++) {
+      var match = re.exec(calls[i].url);
+      var mid = match != null ? match[1] : calls[i].url;
+      batch.push({id:mid, parameters:calls[i].data || {}});
+    }
+    var data = {"juzu.batch":JSON.stringify(batch)};
+    if (options.parallel) {
+      data["juzu.batch.parallel"] = "true";
+    }
+    // The batch is posted to the url of its first method
+    return withURL(this, batch.length > 0 ? batch[0].id : null, function(url) {
+      return $.ajax({
+        type:"POST",
+        url:url,
+        data:data,
+        dataType:"json",
+        success:function(results) {
+          for (var i = 0;i < results.length;i++) {
+            var call = calls[i];
+            var result = results[i];
+            var callback = result.status >= 200 && result.status < 300 ? call.success : call.error;
+            if (callback) {
+              callback.call(call, result.body, result);
+            }
+          }
+          if (options.success) {
+            options.success(results);
+          }
+        },
+        error:options.error
+      });
+    });
+  };
   $.fn.jzFind = function(arg) {
     return this.jz().find(arg);
   }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.impl.bridge.response;
+
+import juzu.impl.common.Tools;
+import juzu.test.AbstractWebTestCase;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public abstract class AbstractResponseEventsResourceTestCase extends AbstractWebTestCase {
+
+  @Test
+  public void testEvents() throws Exception {
+    HttpURLConnection conn = (HttpURLConnection)applicationURL().openConnection();
+    assertEquals(200, conn.getResponseCode());
+    assertTrue(conn.getContentType().startsWith("text/event-stream"));
+    assertEquals("no-cache", conn.getHeaderField("Cache-Control"));
+    String s = Tools.read(conn.getInputStream(), Tools.UTF_8);
+    assertEquals("id: 1\nevent: foo\ndata: pass\n\ndata: bar\ndata: baz\n\n", s);
+  }
+}
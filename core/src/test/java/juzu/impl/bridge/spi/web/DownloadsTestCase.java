@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.impl.common.Tools;
+import juzu.io.BinaryOutputStream;
+import juzu.io.Streamable;
+import juzu.io.Streams;
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class DownloadsTestCase extends AbstractTestCase {
+
+  @Test
+  public void testParseRange() {
+    assertRange(0, 9, Downloads.parseRange("bytes=0-9", 100));
+    assertRange(10, 99, Downloads.parseRange("bytes=10-", 100));
+    assertRange(90, 99, Downloads.parseRange("bytes=-10", 100));
+    assertRange(0, 99, Downloads.parseRange("bytes=-200", 100));
+    assertRange(50, 99, Downloads.parseRange("bytes=50-200", 100));
+    assertSame(Downloads.UNSATISFIABLE, Downloads.parseRange("bytes=100-", 100));
+    assertSame(Downloads.UNSATISFIABLE, Downloads.parseRange("bytes=-0", 100));
+    assertNull(Downloads.parseRange(null, 100));
+    assertNull(Downloads.parseRange("bytes=0-1,5-6", 100));
+    assertNull(Downloads.parseRange("bytes=5-2", 100));
+    assertNull(Downloads.parseRange("bytes=a-b", 100));
+    assertNull(Downloads.parseRange("items=0-1", 100));
+  }
+
+  private void assertRange(long first, long last, long[] range) {
+    assertNotNull(range);
+    assertEquals(2, range.length);
+    assertEquals(first, range[0]);
+    assertEquals(last, range[1]);
+  }
+
+  @Test
+  public void testConditional() {
+    long now = (System.currentTimeMillis() / 1000) * 1000;
+    String date = Downloads.formatDate(now);
+    assertEquals(now, Downloads.parseDate(date));
+    assertTrue(Downloads.isNotModifiedSince(date, now + 500));
+    assertFalse(Downloads.isNotModifiedSince(date, now + 1000));
+    assertFalse(Downloads.isNotModifiedSince("not a date", now));
+    String etag = Downloads.etag(10, now);
+    assertTrue(Downloads.matches(etag, etag));
+    assertTrue(Downloads.matches(etag, "\"foo\", W/" + etag));
+    assertFalse(Downloads.matches(etag, "\"foo\""));
+  }
+
+  @Test
+  public void testSendChannel() throws Exception {
+    File file = File.createTempFile("juzu", ".txt");
+    file.deleteOnExit();
+    FileOutputStream out = new FileOutputStream(file);
+    out.write("0123456789".getBytes(Tools.UTF_8));
+    out.close();
+
+    // Transfer
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    new Streamable.Channel(file).send(new BinaryOutputStream(Tools.UTF_8, buffer), 2, 5);
+    assertEquals("23456", new String(buffer.toByteArray(), Tools.UTF_8));
+
+    // Copy
+    StringBuilder sb = new StringBuilder();
+    new Streamable.Channel(file).send(Streams.appendable(Tools.UTF_8, sb));
+    assertEquals("0123456789", sb.toString());
+  }
+}
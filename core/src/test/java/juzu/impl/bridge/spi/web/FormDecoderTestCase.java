@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.impl.common.Tools;
+import juzu.request.RequestParameter;
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class FormDecoderTestCase extends AbstractTestCase {
+
+  private Map<String, RequestParameter> decode(String s, int maxParameters, long maxSize) throws IOException {
+    FormDecoder decoder = new FormDecoder(Tools.UTF_8, maxParameters, maxSize);
+    return decoder.decode(new ByteArrayInputStream(s.getBytes(Tools.UTF_8)), Collections.<String, RequestParameter>emptyMap());
+  }
+
+  private Map<String, RequestParameter> decode(String s) throws IOException {
+    return decode(s, -1, -1);
+  }
+
+  @Test
+  public void testDecode() throws Exception {
+    Map<String, RequestParameter> parameters = decode("a=b&c=d+e&f=%C3%A7%E2%82%AC&g&a=h&&");
+    assertEquals(4, parameters.size());
+    assertEquals(Tools.list("b", "h"), Tools.list(parameters.get("a")));
+    assertEquals("d e", parameters.get("c").getValue());
+    assertEquals("ç€", parameters.get("f").getValue());
+    assertEquals("", parameters.get("g").getValue());
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    assertEquals(0, decode("").size());
+  }
+
+  @Test
+  public void testMalformed() throws Exception {
+    Map<String, RequestParameter> parameters = decode("a=%2&b=%ZZ&c=d=e&=f");
+    assertEquals(1, parameters.size());
+    assertEquals("d=e", parameters.get("c").getValue());
+  }
+
+  @Test
+  public void testLimits() throws Exception {
+    assertEquals(2, decode("a=b&c=d", 2, -1).size());
+    try {
+      decode("a=b&c=d&e=f", 2, -1);
+      fail();
+    }
+    catch (IOException expected) {
+    }
+    try {
+      decode("a=bcdef", -1, 4);
+      fail();
+    }
+    catch (IOException expected) {
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.impl.common.Tools;
+import juzu.io.BinaryOutputStream;
+import juzu.io.Stream;
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class ResponseCacheTestCase extends AbstractTestCase {
+
+  @Test
+  public void testRecord() throws Exception {
+    ResponseCache.Region region = new ResponseCache.Region(60000, 10);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ResponseCache.Recording stream = region.record("foo", new BinaryOutputStream(Tools.UTF_8, out), "text/html", Tools.UTF_8, Collections.<String[]>singletonList(new String[]{"a", "b"}));
+    stream.append("h\u00e9llo ");
+    stream.append("world".getBytes(Tools.UTF_8));
+    assertNull(region.get("foo"));
+    stream.close();
+    assertNull(region.get("foo"));
+    stream.sent();
+    ResponseCache.Entry entry = region.get("foo");
+    assertNotNull(entry);
+    assertEquals("h\u00e9llo world", new String(out.toByteArray(), Tools.UTF_8));
+    assertEquals("h\u00e9llo world", new String(entry.body, Tools.UTF_8));
+    assertEquals("text/html", entry.mimeType);
+    assertEquals(1, entry.headers.size());
+    assertTrue(entry.matches(entry.etag));
+    assertTrue(entry.matches("\"abc\", " + entry.etag));
+    assertTrue(entry.matches("*"));
+    assertFalse(entry.matches("\"abc\""));
+    assertFalse(entry.matches(null));
+  }
+
+  private void record(ResponseCache.Region region, String key) throws Exception {
+    ResponseCache.Recording recording = region.record(key, new BinaryOutputStream(Tools.UTF_8, new ByteArrayOutputStream()), "text/html", Tools.UTF_8, Collections.<String[]>emptyList());
+    recording.close();
+    recording.sent();
+  }
+
+  @Test
+  public void testExpiration() throws Exception {
+    ResponseCache.Region region = new ResponseCache.Region(-1, 10);
+    record(region, "foo");
+    assertNull(region.get("foo"));
+  }
+
+  @Test
+  public void testSendFailure() throws Exception {
+    ResponseCache.Region region = new ResponseCache.Region(60000, 10);
+    ResponseCache.Recording recording = region.record("foo", new BinaryOutputStream(Tools.UTF_8, new ByteArrayOutputStream()), "text/html", Tools.UTF_8, Collections.<String[]>emptyList());
+    recording.append("foo");
+    recording.close();
+    recording.fail();
+    recording.sent();
+    assertNull(region.get("foo"));
+  }
+
+  @Test
+  public void testStreamFailure() throws Exception {
+    ResponseCache.Region region = new ResponseCache.Region(60000, 10);
+    Stream failing = new BinaryOutputStream(Tools.UTF_8, new ByteArrayOutputStream()) {
+      @Override
+      public Stream append(CharSequence csq) throws IOException {
+        throw new IOException();
+      }
+    };
+    ResponseCache.Recording recording = region.record("foo", failing, "text/html", Tools.UTF_8, Collections.<String[]>emptyList());
+    try {
+      recording.append("foo");
+      fail();
+    }
+    catch (IOException ignore) {
+    }
+    recording.close();
+    recording.sent();
+    assertNull(region.get("foo"));
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    ResponseCache.Region region = new ResponseCache.Region(60000, 2);
+    for (String key : new String[]{"a", "b"}) {
+      record(region, key);
+    }
+    assertNotNull(region.get("a"));
+    record(region, "c");
+    assertNotNull(region.get("a"));
+    assertNull(region.get("b"));
+    assertNotNull(region.get("c"));
+  }
+}
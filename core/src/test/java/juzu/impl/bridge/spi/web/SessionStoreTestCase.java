@@ -0,0 +1,303 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.bridge.spi.web;
+
+import juzu.impl.common.Logger;
+import juzu.impl.common.Tools;
+import juzu.impl.inject.Scoped;
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class SessionStoreTestCase extends AbstractTestCase {
+
+  static class Value implements Scoped, Serializable {
+    Object o;
+    transient boolean destroyed;
+    Value(Object o) {
+      this.o = o;
+    }
+    public Object get() {
+      return o;
+    }
+    public void destroy() {
+      destroyed = true;
+    }
+  }
+
+  private void assertStore(SessionStore store) throws Exception {
+    assertNull(store.load("foo"));
+    assertFalse(store.contains("foo"));
+    store.save("foo", "a", new byte[]{0, 1, 2});
+    assertTrue(store.contains("foo"));
+    Map<String, byte[]> state = store.load("foo");
+    assertEquals(1, state.size());
+    assertTrue(Arrays.equals(new byte[]{0, 1, 2}, state.get("a")));
+    store.save("foo", "a", new byte[]{3});
+    store.save("foo", "b.c$d", new byte[]{4});
+    state = store.load("foo");
+    assertEquals(2, state.size());
+    assertTrue(Arrays.equals(new byte[]{3}, state.get("a")));
+    assertTrue(Arrays.equals(new byte[]{4}, state.get("b.c$d")));
+    store.remove("foo", "a");
+    assertEquals(Collections.singleton("b.c$d"), store.load("foo").keySet());
+    store.remove("foo");
+    assertNull(store.load("foo"));
+    assertFalse(store.contains("foo"));
+  }
+
+  private void assertExpiration(SessionStore store) throws Exception {
+    store.save("foo", "a", new byte[]{0});
+    assertNotNull(store.load("foo"));
+    Thread.sleep(200);
+    assertFalse(store.contains("foo"));
+    assertNull(store.load("foo"));
+  }
+
+  private void assertEviction(SessionStore store) throws Exception {
+    store.save("foo", "a", new byte[]{0});
+    Thread.sleep(20);
+    store.save("bar", "a", new byte[]{1});
+    Thread.sleep(20);
+    assertNotNull(store.load("foo"));
+    Thread.sleep(20);
+    store.save("juu", "a", new byte[]{2});
+    assertNotNull(store.load("foo"));
+    assertNull(store.load("bar"));
+    assertNotNull(store.load("juu"));
+  }
+
+  private File createDir() throws Exception {
+    File dir = File.createTempFile("juzu", "");
+    assertTrue(dir.delete());
+    return dir;
+  }
+
+  private void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  @Test
+  public void testMemory() throws Exception {
+    assertStore(new MemorySessionStore());
+    assertExpiration(new MemorySessionStore(100, 10));
+    assertEviction(new MemorySessionStore(60000, 2));
+  }
+
+  @Test
+  public void testOffHeap() throws Exception {
+    assertStore(new OffHeapSessionStore());
+    assertExpiration(new OffHeapSessionStore(100, 10));
+    assertEviction(new OffHeapSessionStore(60000, 2));
+  }
+
+  @Test
+  public void testMapped() throws Exception {
+    File dir = createDir();
+    try {
+      assertStore(new MappedSessionStore(dir));
+      assertExpiration(new MappedSessionStore(dir, 100, 10));
+    }
+    finally {
+      delete(dir);
+    }
+    dir = createDir();
+    try {
+      assertEviction(new MappedSessionStore(dir, 60000, 2));
+    }
+    finally {
+      delete(dir);
+    }
+  }
+
+  @Test
+  public void testMappedLongName() throws Exception {
+    File dir = createDir();
+    try {
+      StringBuilder name = new StringBuilder();
+      for (int i = 0;i < 300;i++) {
+        name.append((char)('a' + i % 26));
+      }
+      MappedSessionStore store = new MappedSessionStore(dir);
+      store.save("foo", name.toString(), new byte[]{0, 1, 2});
+      Map<String, byte[]> state = store.load("foo");
+      assertEquals(Collections.singleton(name.toString()), state.keySet());
+      assertTrue(Arrays.equals(new byte[]{0, 1, 2}, state.get(name.toString())));
+      store.remove("foo", name.toString());
+      assertEquals(0, store.load("foo").size());
+    }
+    finally {
+      delete(dir);
+    }
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    SessionStore store = SessionStore.get("memory");
+    assertSame(store, SessionStore.get(" memory "));
+    assertTrue(store instanceof MemorySessionStore);
+    assertTrue(SessionStore.get("offheap") instanceof OffHeapSessionStore);
+    try {
+      SessionStore.get("foo");
+      fail();
+    }
+    catch (IllegalArgumentException ignore) {
+    }
+  }
+
+  @Test
+  public void testId() throws Exception {
+    String id = SessionStore.createId();
+    assertTrue(SessionStore.isValidId(id));
+    assertFalse(id.equals(SessionStore.createId()));
+    assertFalse(SessionStore.isValidId("../foo"));
+    assertFalse(SessionStore.isValidId(null));
+  }
+
+  @Test
+  public void testStoredContext() throws Exception {
+    MemorySessionStore store = new MemorySessionStore();
+    StoredScopedContext context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    context.set("a", new Value("foo"));
+    context.flush();
+    assertEquals(Collections.singleton("a"), store.load("id").keySet());
+
+    //
+    context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    assertEquals(1, context.size());
+    assertNull(context.get("b"));
+    Value value = (Value)context.get("a");
+    assertEquals("foo", value.get());
+
+    // Modified in place
+    value.o = "juu";
+    context.flush();
+    context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    assertEquals("juu", context.get("a").get());
+    assertEquals(1, Tools.list(context).size());
+
+    // Closing removes the state
+    value = (Value)context.get("a");
+    context.close();
+    assertTrue(value.destroyed);
+    assertNull(store.load("id"));
+  }
+
+  @Test
+  public void testConcurrentContexts() throws Exception {
+    MemorySessionStore store = new MemorySessionStore();
+    StoredScopedContext context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    context.set("a", new Value("foo"));
+    context.flush();
+
+    // Two requests modifying distinct entries of the same state
+    StoredScopedContext context1 = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    StoredScopedContext context2 = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    ((Value)context1.get("a")).o = "bar";
+    context2.set("b", new Value("juu"));
+    context1.flush();
+    context2.flush();
+    context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    assertEquals("bar", context.get("a").get());
+    assertEquals("juu", context.get("b").get());
+
+    // Removing an entry
+    context.set("a", null);
+    context.flush();
+    assertEquals(Collections.singleton("b"), store.load("id").keySet());
+  }
+
+  @Test
+  public void testNotSerializableValue() throws Exception {
+    MemorySessionStore store = new MemorySessionStore();
+    StoredScopedContext context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    Scoped scoped = new Scoped() {
+      public Object get() {
+        return "bar";
+      }
+      public void destroy() {
+      }
+    };
+    Value value = new Value(new Object());
+    context.set("a", value);
+    context.set("b", new Value("foo"));
+    context.set("c", scoped);
+    context.flush();
+    assertEquals(Tools.set("a", "b", "c"), store.load("id").keySet());
+
+    // The values that are not serializable are held on the heap
+    context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    assertSame(value, context.get("a"));
+    assertEquals("foo", context.get("b").get());
+    assertSame(scoped, context.get("c"));
+
+    // Replacing a held value by a serializable value
+    context.set("a", new Value("juu"));
+    context.set("c", null);
+    context.flush();
+    assertEquals(Tools.set("a", "b"), store.load("id").keySet());
+    context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    assertEquals("juu", context.get("a").get());
+    assertNull(context.get("c"));
+  }
+
+  @Test
+  public void testSaveChangedEntries() throws Exception {
+    final ArrayList<String> saved = new ArrayList<String>();
+    MemorySessionStore store = new MemorySessionStore() {
+      @Override
+      public void save(String key, String name, byte[] entry) {
+        saved.add(name);
+        super.save(key, name, entry);
+      }
+    };
+    StoredScopedContext context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    context.set("a", new Value("foo"));
+    context.set("b", new Value("bar"));
+    context.flush();
+    assertEquals(2, saved.size());
+
+    // Reading does not save
+    saved.clear();
+    context = new StoredScopedContext(Logger.SYSTEM, store, "id");
+    assertEquals("foo", context.get("a").get());
+    assertEquals("bar", context.get("b").get());
+    context.flush();
+    assertEquals(Collections.<String>emptyList(), saved);
+
+    // Modifying in place saves the modified entry only
+    ((Value)context.get("a")).o = "juu";
+    context.flush();
+    assertEquals(Collections.singletonList("a"), saved);
+    saved.clear();
+    context.flush();
+    assertEquals(Collections.<String>emptyList(), saved);
+  }
+}
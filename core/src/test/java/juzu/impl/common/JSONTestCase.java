@@ -51,6 +51,11 @@ public class JSONTestCase extends AbstractTestCase {
     assertEquals("[0]", JSON.toString(Arrays.asList(0), new StringBuilder()).toString());
   }
 
+  @Test
+  public void testWriteNonFinite() throws Exception {
+    assertEquals("[null,null,1.5]", JSON.toString(Arrays.<Number>asList(Double.NaN, Float.POSITIVE_INFINITY, 1.5D), new StringBuilder()).toString());
+  }
+
 /*
   @Test
   public void testReadString() throws Exception {
@@ -76,6 +81,14 @@ public class JSONTestCase extends AbstractTestCase {
     assertEquals("\"\\b\"", JSON.toString("\b", new StringBuilder()).toString());
     assertEquals("\"\\f\"", JSON.toString("\f", new StringBuilder()).toString());
     assertEquals("\"\\t\"", JSON.toString("\t", new StringBuilder()).toString());
+    assertEquals("\"\\\\\"", JSON.toString("\\", new StringBuilder()).toString());
+    assertEquals("\"\\u0001\"", JSON.toString("\u0001", new StringBuilder()).toString());
+  }
+
+  @Test
+  public void testRoundTripBackslash() throws Exception {
+    JSON json = new JSON().set("a", "b\\").set("c", "d");
+    assertEquals(json, JSON.parse(json.toString()));
   }
 
 /*
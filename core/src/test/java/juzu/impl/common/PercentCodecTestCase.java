@@ -55,6 +55,33 @@ public class PercentCodecTestCase extends AbstractTestCase {
 
   }
 
+  @Test
+  public void testSupplementary() {
+    String s = new String(Character.toChars(0x1F600));
+    assertEquals("%F0%9F%98%80", codec.encode(s));
+    assertEquals("a%F0%9F%98%80b", codec.encode("a" + s + "b"));
+    assertEquals(s, codec.decode("%F0%9F%98%80"));
+    assertEquals("a" + s + "b", codec.decode("a%F0%9F%98%80b"));
+    assertDecodeException("%F0%9F%98");
+  }
+
+  @Test
+  public void testSpans() throws Exception {
+    assertEquals("abc%20def%26ghi", codec.encode("abc def&ghi"));
+    assertEquals("abc def&ghi", codec.decode("abc%20def%26ghi"));
+    StringBuilder sb = new StringBuilder();
+    codec.encode("abc def", sb);
+    codec.encode("ghi", sb);
+    assertEquals("abc%20defghi", sb.toString());
+  }
+
+  @Test
+  public void testUnchanged() {
+    String s = "abcdef";
+    assertSame(s, codec.encode(s));
+    assertSame(s, codec.decode(s));
+  }
+
   private void assertDecodeException(String coded) {
     try {
       codec.decode(coded);
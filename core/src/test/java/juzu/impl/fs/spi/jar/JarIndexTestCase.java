@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.fs.spi.jar;
+
+import juzu.impl.common.Tools;
+import juzu.test.AbstractTestCase;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+
+import java.io.File;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class JarIndexTestCase extends AbstractTestCase {
+
+  @Test
+  public void testIndex() throws Exception {
+    File jar = File.createTempFile("index", ".jar");
+    jar.deleteOnExit();
+    ShrinkWrap.create(JavaArchive.class).
+        addAsResource(new StringAsset("bar"), "foo/bar.txt").
+        addAsResource(new StringAsset("juu"), "foo/juu/daa.txt").
+        as(ZipExporter.class).
+        exportTo(jar, true);
+
+    //
+    JarIndex index = JarIndex.get(jar);
+    assertTrue(index.isDir(""));
+    assertTrue(index.isDir("foo/"));
+    assertTrue(index.isDir("foo/juu/"));
+    assertFalse(index.isDir("foo"));
+    assertTrue(index.isFile("foo/bar.txt"));
+    assertFalse(index.isFile("foo/"));
+    assertEquals(-1, index.getLastModified("foo/missing.txt"));
+    assertTrue(Tools.set(index.getChildren("")).contains("foo/"));
+    assertEquals(Tools.set("foo/bar.txt", "foo/juu/"), Tools.set(index.getChildren("foo/")));
+    assertEquals(Tools.set("foo/juu/daa.txt"), Tools.set(index.getChildren("foo/juu/")));
+    assertFalse(index.getChildren("bar/").hasNext());
+
+    // Cached
+    assertSame(index, JarIndex.get(jar));
+
+    // Invalidated when the jar changes
+    ShrinkWrap.create(JavaArchive.class).
+        addAsResource(new StringAsset("bar"), "foo/bar.txt").
+        addAsResource(new StringAsset("juu"), "foo/juu/daa.txt").
+        addAsResource(new StringAsset("other"), "other.txt").
+        as(ZipExporter.class).
+        exportTo(jar, true);
+    JarIndex updated = JarIndex.get(jar);
+    assertNotSame(index, updated);
+    assertTrue(updated.isFile("other.txt"));
+
+    //
+    JarFileSystem fs = new JarFileSystem(jar.toURI().toURL());
+    assertEquals("foo/", fs.getChild("", "foo"));
+    assertEquals("foo/bar.txt", fs.getChild("foo/", "bar.txt"));
+    assertNull(fs.getChild("foo/", "missing.txt"));
+  }
+}
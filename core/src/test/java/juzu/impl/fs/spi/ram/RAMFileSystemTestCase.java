@@ -17,6 +17,7 @@
 package juzu.impl.fs.spi.ram;
 
 import juzu.impl.common.Content;
+import juzu.impl.fs.Filter;
 import juzu.impl.fs.spi.AbstractReadWriteFileSystemTestCase;
 import juzu.impl.fs.spi.ReadWriteFileSystem;
 import org.junit.Test;
@@ -43,6 +44,30 @@ public class RAMFileSystemTestCase extends AbstractReadWriteFileSystemTestCase<S
     assertTrue(now < fs.getLastModified(fooTxt));
   }
 
+  @Test
+  public void testGeneration() throws IOException {
+    RAMFileSystem src = new RAMFileSystem();
+    src.setContent(new String[]{"foo", "a.txt"}, new Content("aaa"));
+    src.setContent(new String[]{"b.txt"}, new Content("bbb"));
+    src.setContent(new String[]{"c.txt"}, new Content("bbb"));
+
+    //
+    RAMFileSystem gen1 = new RAMFileSystem();
+    src.copy(new Filter.Default<String[]>(), gen1, 4);
+    assertEquals("aaa", gen1.getContent(new String[]{"foo", "a.txt"}).getObject().getCharSequence().toString());
+    Content b1 = gen1.getContent(new String[]{"b.txt"}).getObject();
+    assertSame(b1, gen1.getContent(new String[]{"c.txt"}).getObject());
+
+    //
+    waitForOneMillis();
+    src.setContent(new String[]{"c.txt"}, new Content("ccc"));
+    RAMFileSystem gen2 = new RAMFileSystem(gen1);
+    src.copy(new Filter.Default<String[]>(), gen2, 4);
+    assertSame(gen1.getContent(new String[]{"foo", "a.txt"}).getObject(), gen2.getContent(new String[]{"foo", "a.txt"}).getObject());
+    assertSame(b1, gen2.getContent(new String[]{"b.txt"}).getObject());
+    assertEquals("ccc", gen2.getContent(new String[]{"c.txt"}).getObject().getCharSequence().toString());
+  }
+
 /*
   @Test
   public void testCopy() throws IOException {
@@ -26,7 +26,6 @@ import juzu.Application;
 import juzu.impl.plugin.application.metamodel.ApplicationMetaModel;
 import juzu.impl.plugin.module.metamodel.ModuleMetaModel;
 import juzu.impl.common.JSON;
-import juzu.impl.common.Tools;
 import juzu.test.AbstractTestCase;
 import juzu.test.CompilerAssert;
 import juzu.test.JavaFile;
@@ -47,8 +46,8 @@ public class ApplicationTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
     List<MetaModelEvent> events = mm.getQueue().clear();
     assertEquals(1, events.size());
     assertEquals(MetaModelEvent.AFTER_ADD, events.get(0).getType());
@@ -72,11 +71,11 @@ public class ApplicationTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState b = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState b = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)b.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(b, ser);
+    MetaModelStateCodec.encode(b, ser);
 
     //
     JavaFile pkgFile = helper.assertSource("metamodel", "application", "package-info.java");
@@ -92,8 +91,8 @@ public class ApplicationTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     List<MetaModelEvent> events = mm.getQueue().clear();
@@ -119,19 +118,19 @@ public class ApplicationTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     assertTrue(helper.getSourcePath().getPath("metamodel", "application", "package-info.java").delete());
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     List<MetaModelEvent> events = mm.getQueue().clear();
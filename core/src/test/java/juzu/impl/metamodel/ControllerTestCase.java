@@ -33,7 +33,6 @@ import juzu.impl.compiler.ElementHandle;
 import juzu.impl.plugin.controller.metamodel.ControllerMetaModel;
 import juzu.impl.plugin.controller.metamodel.ControllersMetaModel;
 import juzu.impl.common.JSON;
-import juzu.impl.common.Tools;
 import juzu.impl.plugin.controller.metamodel.MethodMetaModel;
 import juzu.test.AbstractTestCase;
 import juzu.test.CompilerAssert;
@@ -57,8 +56,8 @@ public class ControllerTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -97,18 +96,18 @@ public class ControllerTestCase extends AbstractTestCase {
   public void testRemoveApplication() throws Exception {
     CompilerAssert<File, File> helper = incrementalCompiler("metamodel.controller");
     helper.assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     assertDelete(helper.getSourcePath().getPath("metamodel", "controller", "package-info.java"));
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json().
@@ -132,18 +131,18 @@ public class ControllerTestCase extends AbstractTestCase {
   public void testRemoveController() throws Exception {
     CompilerAssert<File, File> helper = incrementalCompiler("metamodel.controller");
     helper.assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     assertDelete(helper.getSourcePath().getPath("metamodel", "controller", "A.java"));
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -169,11 +168,11 @@ public class ControllerTestCase extends AbstractTestCase {
   public void testChangeAnnotation() throws Exception {
     CompilerAssert<File, File> helper = incrementalCompiler("metamodel.controller");
     helper.assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     JavaFile file = helper.assertSource("metamodel", "controller", "A.java");
@@ -184,7 +183,7 @@ public class ControllerTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -225,11 +224,11 @@ public class ControllerTestCase extends AbstractTestCase {
   public void testRemoveAnnotation() throws Exception {
     CompilerAssert<File, File> helper = incrementalCompiler("metamodel.controller");
     helper.assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     JavaFile file = helper.assertSource("metamodel", "controller", "A.java");
@@ -240,7 +239,7 @@ public class ControllerTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -273,14 +272,14 @@ public class ControllerTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     List<MetaModelEvent> events = mm.getQueue().clear();
     assertEquals(1, events.size());
     assertEquals(MetaModelEvent.AFTER_ADD, events.get(0).getType());
     assertTrue(events.get(0).getObject() instanceof ApplicationMetaModel);
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     a.getMembers().add(decl);
@@ -288,7 +287,7 @@ public class ControllerTestCase extends AbstractTestCase {
     helper.addClassPath(helper.getClassOutput()).assertCompile();
 
     //
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -325,11 +324,11 @@ public class ControllerTestCase extends AbstractTestCase {
   public void testRemoveSingleMethod() throws Exception {
     CompilerAssert<File, File> helper = incrementalCompiler("metamodel.controller");
     helper.assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     JavaFile file = helper.assertSource("metamodel", "controller", "A.java");
@@ -339,7 +338,7 @@ public class ControllerTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -376,17 +375,17 @@ public class ControllerTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     assertTrue(a.getMembers().remove(show));
     file.assertSave();
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -429,11 +428,11 @@ public class ControllerTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     assertTrue(a.getMembers().remove(index));
@@ -441,7 +440,7 @@ public class ControllerTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -476,11 +475,11 @@ public class ControllerTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     File file = helper.getSourcePath().getPath("metamodel", "controller", "A.java");
@@ -494,7 +493,7 @@ public class ControllerTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     List<MetaModelEvent> events = mm.getQueue().clear();
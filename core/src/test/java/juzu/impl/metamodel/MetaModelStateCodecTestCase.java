@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.impl.metamodel;
+
+import juzu.test.AbstractTestCase;
+import juzu.test.CompilerAssert;
+import juzu.test.JavaFile;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class MetaModelStateCodecTestCase extends AbstractTestCase {
+
+  @Test
+  public void testDecode() throws Exception {
+    CompilerAssert<File, File> helper = compiler("metamodel.codec");
+    helper.assertCompile();
+    byte[] bytes = encode(helper);
+    Object decoded = decode(helper, bytes);
+    assertEquals("metamodel.codec.Bean", decoded.getClass().getName());
+    assertEquals("foo", decoded.getClass().getField("value").get(decoded));
+  }
+
+  @Test
+  public void testVersionMismatch() throws Exception {
+    CompilerAssert<File, File> helper = compiler("metamodel.codec");
+    helper.assertCompile();
+    byte[] bytes = encode(helper);
+
+    // The version follows the magic number
+    bytes[7]++;
+    try {
+      decode(helper, bytes);
+      fail();
+    }
+    catch (StreamCorruptedException expected) {
+    }
+  }
+
+  @Test
+  public void testFieldMismatch() throws Exception {
+    CompilerAssert<File, File> helper = compiler("metamodel.codec");
+    helper.assertCompile();
+    byte[] bytes = encode(helper);
+
+    // Same serial version uid but another field
+    JavaFile<File> file = helper.assertSource("metamodel", "codec", "Bean.java");
+    file.assertSave(file.assertContent().replace("public String value = \"foo\";", "public String value = \"foo\";\n  public int count;"));
+    helper.assertCompile();
+    try {
+      decode(helper, bytes);
+      fail();
+    }
+    catch (InvalidClassException expected) {
+    }
+  }
+
+  @Test
+  public void testSerialVersionUIDMismatch() throws Exception {
+    CompilerAssert<File, File> helper = compiler("metamodel.codec");
+    helper.assertCompile();
+    byte[] bytes = encode(helper);
+
+    //
+    JavaFile<File> file = helper.assertSource("metamodel", "codec", "Bean.java");
+    file.assertSave(file.assertContent().replace("serialVersionUID = 1L", "serialVersionUID = 2L"));
+    helper.assertCompile();
+    try {
+      decode(helper, bytes);
+      fail();
+    }
+    catch (InvalidClassException expected) {
+    }
+  }
+
+  private byte[] encode(CompilerAssert<File, File> helper) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MetaModelStateCodec.write(helper.assertClass("metamodel.codec.Bean").newInstance(), out);
+    return out.toByteArray();
+  }
+
+  private Object decode(CompilerAssert<File, File> helper, byte[] bytes) throws Exception {
+    // The codec resolves the classes it cannot load with the context class loader
+    Thread current = Thread.currentThread();
+    ClassLoader previous = current.getContextClassLoader();
+    current.setContextClassLoader(helper.getClassLoader());
+    try {
+      return MetaModelStateCodec.read(new ByteArrayInputStream(bytes));
+    }
+    finally {
+      current.setContextClassLoader(previous);
+    }
+  }
+}
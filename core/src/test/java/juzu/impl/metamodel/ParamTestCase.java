@@ -21,7 +21,6 @@ import japa.parser.ast.expr.AnnotationExpr;
 import juzu.impl.plugin.module.metamodel.ModuleMetaModel;
 import juzu.impl.compiler.CompilationError;
 import juzu.impl.common.JSON;
-import juzu.impl.common.Tools;
 import juzu.test.AbstractTestCase;
 import juzu.test.CompilerAssert;
 import juzu.test.JavaFile;
@@ -65,8 +64,8 @@ public class ParamTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
     assertEquals(expectedJSON, mm.toJSON());
   }
 
@@ -96,8 +95,8 @@ public class ParamTestCase extends AbstractTestCase {
     helper.addClassPath(helper.getClassOutput()).assertCompile();
 
     // Check
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
     assertEquals(expectedJSON, mm.toJSON());
   }
 }
@@ -37,8 +37,8 @@ public class PathTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -69,8 +69,8 @@ public class PathTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -98,8 +98,8 @@ public class PathTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
@@ -123,8 +123,8 @@ public class PathTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json().
@@ -142,11 +142,11 @@ public class PathTestCase extends AbstractTestCase {
     helper.assertCompile();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     File pkg = helper.getSourcePath().getPath("metamodel", "path", "package-info.java");
@@ -160,8 +160,8 @@ public class PathTestCase extends AbstractTestCase {
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
-    ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
 
     //
     JSON expected = json()
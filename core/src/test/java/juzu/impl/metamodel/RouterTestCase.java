@@ -17,7 +17,6 @@
 package juzu.impl.metamodel;
 
 import juzu.impl.common.Name;
-import juzu.impl.common.Tools;
 import juzu.impl.compiler.CompilationError;
 import juzu.impl.compiler.ElementHandle;
 import juzu.impl.plugin.application.metamodel.ApplicationMetaModel;
@@ -53,8 +52,8 @@ public class RouterTestCase extends AbstractTestCase {
   public void testParam() throws Exception {
     CompilerAssert<File, File> helper = compiler("metamodel.router.param").formalErrorReporting(true);
     helper.assertCompile();
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    ModuleMetaModel mm = (ModuleMetaModel)Tools.unserialize(MetaModelState.class, ser).metaModel;
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    ModuleMetaModel mm = (ModuleMetaModel)MetaModelStateCodec.decode(ser).metaModel;
     ApplicationMetaModel application = mm.getChild(Key.of(ElementHandle.Package.create(Name.parse("metamodel.router.param")), ApplicationMetaModel.class));
     RouterMetaModel router = application.getChild(Key.of(RouterMetaModel.class));
     RouteMetaModel root = router.getRoot();
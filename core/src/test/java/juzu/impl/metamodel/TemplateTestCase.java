@@ -19,7 +19,6 @@ package juzu.impl.metamodel;
 import japa.parser.ast.body.ClassOrInterfaceDeclaration;
 import japa.parser.ast.body.FieldDeclaration;
 import juzu.impl.plugin.module.metamodel.ModuleMetaModel;
-import juzu.impl.common.Tools;
 import juzu.impl.plugin.template.metamodel.TemplateMetaModel;
 import juzu.impl.plugin.template.metamodel.TemplateMetaModelPlugin;
 import juzu.test.AbstractTestCase;
@@ -69,6 +68,23 @@ public class TemplateTestCase extends AbstractTestCase {
     helper.addClassPath(helper.getClassOutput()).failCompile();
   }
 
+  @Test
+  public void testTouchTemplate() throws Exception {
+    CompilerAssert<File, File> helper = compiler("metamodel.template");
+    helper.assertCompile();
+    File script = helper.getClassOutput().getPath("metamodel", "template", "templates", "index_.groovy");
+    assertNotNull(script);
+    assertTrue(script.setLastModified(0));
+
+    // Touch the template without changing its content
+    File template = helper.getSourcePath().getPath("metamodel", "template", "templates", "index.gtmpl");
+    assertTrue(template.setLastModified(template.lastModified() + 2000));
+
+    //
+    helper.addClassPath(helper.getClassOutput()).assertCompile();
+    assertEquals(0, script.lastModified());
+  }
+
   @Test
   public void testRemoveAnnotation() throws Exception {
     CompilerAssert<File, File> helper = compiler("metamodel.template");
@@ -82,17 +98,17 @@ public class TemplateTestCase extends AbstractTestCase {
     file.assertSave();
 
     //
-    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.ser");
-    MetaModelState unserialize = Tools.unserialize(MetaModelState.class, ser);
+    File ser = helper.getSourceOutput().getPath("juzu", "metamodel.bin");
+    MetaModelState unserialize = MetaModelStateCodec.decode(ser);
     ModuleMetaModel mm = (ModuleMetaModel)unserialize.metaModel;
     mm.getQueue().clear();
-    Tools.serialize(unserialize, ser);
+    MetaModelStateCodec.encode(unserialize, ser);
 
     //
     helper.addClassPath(helper.getClassOutput()).assertCompile();
 
     //
-    unserialize = Tools.unserialize(MetaModelState.class, ser);
+    unserialize = MetaModelStateCodec.decode(ser);
     mm = (ModuleMetaModel)unserialize.metaModel;
     List<MetaModelEvent> events = mm.getQueue().clear();
     assertEquals(1, events.size());
@@ -55,6 +55,10 @@ public abstract class AbstractAjaxTestCase extends AbstractWebTestCase {
     assertEquals(200, conn.getResponseCode());
     String s = Tools.read(conn.getInputStream());
     System.out.println("s = " + s);
+    assertTable(s);
+
+    // The script may fetch the table in the background
+    ua.waitForBackgroundJavaScript(10000);
 
     //
     HtmlAnchor trigger1 = (HtmlAnchor)page.getElementById("trigger1");
@@ -73,5 +77,15 @@ public abstract class AbstractAjaxTestCase extends AbstractWebTestCase {
     trigger3.click();
     alerts = ua.getAlerts(page);
     assertEquals(Arrays.asList("m1()", "m2(foo)", "m3()"), alerts);
+
+    //
+    HtmlAnchor trigger4 = (HtmlAnchor)page.getElementById("trigger4");
+    trigger4.click();
+    alerts = ua.getAlerts(page);
+    assertEquals(Arrays.asList("m1()", "m2(foo)", "m3()", "m1()", "m2(bar)"), alerts);
+  }
+
+  protected void assertTable(String page) {
+    assertTrue(page.contains("data-method-id=\"A.m1\""));
   }
 }
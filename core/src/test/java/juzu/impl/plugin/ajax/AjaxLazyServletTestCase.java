@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.plugin.ajax;
+
+import juzu.impl.common.Tools;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class AjaxLazyServletTestCase extends AbstractAjaxTestCase {
+
+  @Deployment
+  public static WebArchive createDeployment() {
+    // Read by the plugin when the application starts
+    System.setProperty(AjaxPlugin.LAZY, "true");
+    return createDeployment(createServletDeployment(true, "plugin.ajax"));
+  }
+
+  @AfterClass
+  public static void clearLazy() {
+    System.clearProperty(AjaxPlugin.LAZY);
+  }
+
+  @Override
+  protected void assertTable(String page) {
+    assertFalse(page.contains("data-method-id"));
+    assertTrue(page.contains("data-table=\""));
+  }
+
+  @Test
+  @RunAsClient
+  public void testTable() throws Exception {
+    String page = Tools.read(applicationURL().openStream());
+    Matcher matcher = Pattern.compile("data-table=\"([^\"]*)\"").matcher(page);
+    assertTrue(matcher.find());
+    String table = matcher.group(1).replace("&amp;", "&");
+
+    // The current version is cached
+    HttpURLConnection conn = (HttpURLConnection)new URL(table).openConnection();
+    assertEquals(200, conn.getResponseCode());
+    assertEquals("max-age=31536000", conn.getHeaderField("Cache-Control"));
+    String urls = Tools.read(conn.getInputStream());
+    assertTrue(urls.contains("A.m1"));
+
+    // Another version is not
+    conn = (HttpURLConnection)new URL(table.replaceAll("juzu.ajax.table=[^&]*", "juzu.ajax.table=x")).openConnection();
+    assertEquals(200, conn.getResponseCode());
+    assertEquals("no-cache", conn.getHeaderField("Cache-Control"));
+    assertEquals(urls, Tools.read(conn.getInputStream()));
+  }
+}
@@ -16,8 +16,14 @@
 
 package juzu.impl.plugin.ajax;
 
+import juzu.impl.common.Tools;
 import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.container.test.api.RunAsClient;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class AjaxServletTestCase extends AbstractAjaxTestCase {
@@ -26,4 +32,19 @@ public class AjaxServletTestCase extends AbstractAjaxTestCase {
   public static WebArchive createDeployment() {
     return createDeployment(createServletDeployment(true, "plugin.ajax"));
   }
+
+  @Test
+  @RunAsClient
+  public void testCachedTable() throws Exception {
+    URL url = applicationURL();
+    HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+    assertEquals(200, conn.getResponseCode());
+    String first = Tools.read(conn.getInputStream());
+    assertTrue(first.contains("data-method-id=\"A.m1\""));
+
+    // The url table is rendered from the cache
+    conn = (HttpURLConnection)url.openConnection();
+    assertEquals(200, conn.getResponseCode());
+    assertEquals(first, Tools.read(conn.getInputStream()));
+  }
 }
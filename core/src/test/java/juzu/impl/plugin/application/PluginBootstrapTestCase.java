@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.plugin.application;
+
+import juzu.impl.common.Logger;
+import juzu.impl.common.Tools;
+import juzu.impl.plugin.PluginContext;
+import juzu.impl.plugin.PluginDescriptor;
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class PluginBootstrapTestCase extends AbstractTestCase {
+
+  /** . */
+  private final Vector<String> initialized = new Vector<String>();
+
+  private class TestPlugin extends ApplicationPlugin {
+
+    /** . */
+    private final Set<String> dependencies;
+
+    /** . */
+    private final boolean loaded;
+
+    private TestPlugin(String name, boolean loaded, String... dependencies) {
+      super(name);
+      this.loaded = loaded;
+      this.dependencies = new HashSet<String>(Arrays.asList(dependencies));
+    }
+
+    @Override
+    public Set<String> getDependencies() {
+      return dependencies;
+    }
+
+    @Override
+    public PluginDescriptor init(PluginContext context) throws Exception {
+      initialized.add(getName());
+      return loaded ? new PluginDescriptor() : null;
+    }
+  }
+
+  private Map<String, PluginDescriptor> init(int parallelism, ApplicationPlugin... plugins) throws Exception {
+    LinkedHashMap<ApplicationPlugin, PluginContext> map = new LinkedHashMap<ApplicationPlugin, PluginContext>();
+    for (ApplicationPlugin plugin : plugins) {
+      map.put(plugin, null);
+    }
+    PluginBootstrap bootstrap = new PluginBootstrap(Logger.SYSTEM, parallelism);
+    Map<String, PluginDescriptor> descriptors = bootstrap.init(map);
+    assertEquals(plugins.length, bootstrap.getTimings().size());
+    return descriptors;
+  }
+
+  @Test
+  public void testDescriptors() throws Exception {
+    Map<String, PluginDescriptor> descriptors = init(4, new TestPlugin("a", true), new TestPlugin("b", false), new TestPlugin("c", true));
+    assertEquals(Tools.set("a", "c"), descriptors.keySet());
+    assertEquals(3, initialized.size());
+  }
+
+  @Test
+  public void testDependencies() throws Exception {
+    init(4, new TestPlugin("c", true, "b"), new TestPlugin("b", true, "a"), new TestPlugin("a", true), new TestPlugin("d", true, "a", "missing"));
+    assertEquals(4, initialized.size());
+    assertTrue(initialized.indexOf("a") < initialized.indexOf("b"));
+    assertTrue(initialized.indexOf("b") < initialized.indexOf("c"));
+    assertTrue(initialized.indexOf("a") < initialized.indexOf("d"));
+  }
+
+  @Test
+  public void testSequential() throws Exception {
+    init(1, new TestPlugin("b", true, "a"), new TestPlugin("a", true));
+    assertEquals(Arrays.asList("a", "b"), initialized);
+  }
+
+  @Test
+  public void testCircularDependencies() throws Exception {
+    try {
+      init(4, new TestPlugin("a", true, "b"), new TestPlugin("b", true, "a"));
+      fail();
+    }
+    catch (IllegalStateException expected) {
+    }
+    assertEquals(Collections.<String>emptyList(), initialized);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.impl.plugin.bean;
+
+import juzu.impl.common.JSON;
+import juzu.impl.common.Tools;
+import juzu.impl.inject.BeanIndex;
+import juzu.impl.inject.spi.InjectorProvider;
+import juzu.test.AbstractTestCase;
+import juzu.test.CompilerAssert;
+import juzu.test.protocol.mock.MockApplication;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class BeanIndexTestCase extends AbstractTestCase {
+
+  @Test
+  public void testIndex() throws Exception {
+    BeanIndex index = index("plugin.bean.index");
+    assertTrue(index.isComplete());
+    assertTrue(index.get("plugin.bean.index.A").isApplication());
+    assertTrue(index.contains("plugin.bean.index.ServiceImpl"));
+    assertTrue(index.contains("plugin.bean.index.Helper"));
+    assertTrue(index.contains("plugin.bean.index.Producers"));
+    assertFalse(index.contains("plugin.bean.index.Service"));
+
+    // The unannotated implementation and the producer are found by the injector
+    MockApplication<?> application = application(InjectorProvider.CDI_WELD, "plugin.bean.index").init();
+    assertEquals("ServiceImpl:Helper:hello", application.client().render().assertStringResult());
+  }
+
+  @Test
+  public void testOpen() throws Exception {
+    BeanIndex index = index("plugin.bean.open");
+    assertFalse(index.isComplete());
+
+    // The application classes are scanned instead
+    MockApplication<?> application = application(InjectorProvider.CDI_WELD, "plugin.bean.open").init();
+    assertEquals("BeanImpl", application.client().render().assertStringResult());
+  }
+
+  @Test
+  public void testQualifiers() throws Exception {
+    BeanIndex index = index("plugin.bean.qualifier");
+    assertTrue(index.isComplete());
+    assertEquals(Collections.singletonList("plugin.bean.qualifier.Color"), index.get("plugin.bean.qualifier.Red").getQualifiers());
+    assertEquals(Arrays.asList("javax.inject.Named", "plugin.bean.qualifier.Color"), index.get("plugin.bean.qualifier.Blue").getQualifiers());
+    assertEquals(Collections.emptyList(), index.get("plugin.bean.qualifier.A").getQualifiers());
+
+    //
+    MockApplication<?> application = application(InjectorProvider.CDI_WELD, "plugin.bean.qualifier").init();
+    assertEquals("Red:Blue", application.client().render().assertStringResult());
+  }
+
+  private BeanIndex index(String packageName) throws Exception {
+    CompilerAssert<File, File> compiler = compiler(packageName);
+    compiler.assertCompile();
+    String config = Tools.read(compiler.getClassLoader().getResourceAsStream(packageName.replace('.', '/') + "/config.json"));
+    return BeanIndex.create(((JSON)JSON.parse(config)).getJSON("bean"));
+  }
+}
@@ -17,11 +17,13 @@
 package juzu.impl.plugin.controller;
 
 import juzu.impl.inject.spi.InjectorProvider;
+import juzu.request.Phase;
 import juzu.test.AbstractInjectTestCase;
 import juzu.test.Registry;
 import juzu.test.protocol.mock.MockApplication;
 import juzu.test.protocol.mock.MockClient;
 import juzu.test.protocol.mock.MockRenderBridge;
+import juzu.test.protocol.mock.MockResourceBridge;
 import org.junit.Test;
 
 import java.util.ConcurrentModificationException;
@@ -64,4 +66,16 @@ public class FilterTestCase extends AbstractInjectTestCase {
     catch (ConcurrentModificationException expected) {
     }
   }
+
+  @Test
+  public void testSelective() throws Exception {
+    Registry.unset("request.filter.selective");
+    MockApplication<?> app = application("plugin.controller.filter.selective").init();
+    MockClient client = app.client();
+    MockRenderBridge render = client.render();
+    assertNull(Registry.get("request.filter.selective"));
+    MockResourceBridge resource = (MockResourceBridge)client.invoke(render.assertStringResult());
+    assertEquals("resource", resource.assertStringResult());
+    assertEquals(Phase.RESOURCE, Registry.get("request.filter.selective"));
+  }
 }
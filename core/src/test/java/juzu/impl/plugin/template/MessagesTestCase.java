@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.plugin.template;
+
+import juzu.impl.template.spi.juzu.dialect.gtmpl.MessageKey;
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.util.ListResourceBundle;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class MessagesTestCase extends AbstractTestCase {
+
+  @Test
+  public void testResolve() throws Exception {
+    Messages messages = new Messages(new ListResourceBundle() {
+      @Override
+      protected Object[][] getContents() {
+        return new Object[][]{{"foo", "foo_value"}, {"bar", "bar_value"}, {"juu", 3}};
+      }
+    }, new MessageKey.Index());
+    MessageKey foo = new MessageKey("foo");
+    assertEquals("foo_value", messages.resolve(foo));
+    assertEquals("foo_value", messages.resolve(foo));
+    assertEquals("foo_value", messages.resolve(new MessageKey("foo")));
+    assertEquals("bar_value", messages.resolve(new MessageKey("bar")));
+    assertEquals("", messages.resolve(new MessageKey("juu")));
+    assertEquals("", messages.resolve(new MessageKey("daa")));
+    assertEquals("", Messages.EMPTY.resolve(foo));
+  }
+
+  @Test
+  public void testIndex() throws Exception {
+    MessageKey.Index index = new MessageKey.Index();
+    assertEquals(new MessageKey("a").getIndex(index), new MessageKey("a").getIndex(index));
+    assertFalse(new MessageKey("a").getIndex(index) == new MessageKey("b").getIndex(index));
+    assertEquals(2, index.getSize());
+  }
+
+  @Test
+  public void testScopedIndex() throws Exception {
+    MessageKey.Index index1 = new MessageKey.Index();
+    MessageKey.Index index2 = new MessageKey.Index();
+    MessageKey a = new MessageKey("a");
+    MessageKey b = new MessageKey("b");
+    assertEquals(0, b.getIndex(index1));
+    assertEquals(1, a.getIndex(index1));
+    assertEquals(0, a.getIndex(index2));
+    assertEquals(1, a.getIndex(index1));
+    assertEquals(2, index1.getSize());
+    assertEquals(1, index2.getSize());
+    assertEquals(0, Messages.EMPTY.resolve(new MessageKey("c")).length());
+  }
+}
@@ -26,15 +26,22 @@ import juzu.impl.template.spi.juzu.compiler.ProcessPhase;
 import juzu.impl.template.spi.Template;
 import juzu.impl.plugin.template.metadata.TemplateDescriptor;
 import juzu.impl.common.Path;
+import juzu.impl.compiler.CompilationError;
+import juzu.impl.plugin.template.metamodel.TemplateMetaModel;
+import juzu.test.CompilerAssert;
 import juzu.test.AbstractInjectTestCase;
 import juzu.test.protocol.mock.MockApplication;
 import juzu.test.protocol.mock.MockClient;
 import juzu.test.protocol.mock.MockRenderBridge;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.net.URL;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class TagTestCase extends AbstractInjectTestCase {
@@ -65,6 +72,16 @@ public class TagTestCase extends AbstractInjectTestCase {
     assertEquals("<foo>bar</foo>", out);
   }
 
+  @Test
+  public void testNestedDecorate() throws Exception {
+    MockApplication<?> app = application("plugin.template.tag.layout").init();
+
+    //
+    MockClient client = app.client();
+    assertEquals("<layout><foo>bar</foo></layout>", client.render().assertStringResult());
+    assertEquals("<layout><foo>bar</foo></layout>", client.render().assertStringResult());
+  }
+
   @Test
   public void testInclude() throws Exception {
     MockApplication<?> app = application("plugin.template.tag.include").init();
@@ -76,6 +93,30 @@ public class TagTestCase extends AbstractInjectTestCase {
     assertEquals("foo", out);
   }
 
+  @Test
+  public void testCache() throws Exception {
+    MockApplication<?> app = application("plugin.template.tag.cache").init();
+
+    //
+    MockClient client = app.client();
+    assertEquals("00b0", client.render().assertStringResult());
+    assertEquals("10b0", client.render().assertStringResult());
+
+    // Fragments are cached per locale
+    client.setLocale(Locale.FRENCH);
+    assertEquals("22b2", client.render().assertStringResult());
+    assertEquals("32b2", client.render().assertStringResult());
+  }
+
+  @Test
+  public void testCacheInvalidTTL() throws Exception {
+    CompilerAssert<File, File> compiler = compiler("plugin.template.tag.cachettl");
+    compiler.formalErrorReporting(true);
+    List<CompilationError> errors = compiler.failCompile();
+    assertEquals(1, errors.size());
+    assertEquals(TemplateMetaModel.TEMPLATE_ILLEGAL_TAG_ARGUMENT, errors.get(0).getCode());
+  }
+
   @Test
   public void testTitle() throws Exception {
     MockApplication<?> app = application("plugin.template.tag.title").init();
@@ -151,6 +192,15 @@ public class TagTestCase extends AbstractInjectTestCase {
       public void createResource(String rawName, String ext, CharSequence content) throws IOException {
         throw new UnsupportedOperationException();
       }
+      public void createClass(String name, byte[] bytecode) throws IOException {
+        throw new UnsupportedOperationException();
+      }
+      public void deleteClass(String name) throws IOException {
+        throw new UnsupportedOperationException();
+      }
+      public URL[] getClassPath() {
+        throw new UnsupportedOperationException();
+      }
     });
     emit.emit(new GroovyTemplateEmitter(), template.getModel());
   }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.plugin.template;
+
+import juzu.impl.fs.Visitor;
+import juzu.impl.fs.spi.ReadWriteFileSystem;
+import juzu.impl.plugin.template.metamodel.TemplateResolver;
+import juzu.test.AbstractTestCase;
+import juzu.test.CompilerAssert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class TemplateResolverTestCase extends AbstractTestCase {
+
+  private Map<String, String> compile(int parallelism) throws Exception {
+    String previous = System.getProperty(TemplateResolver.PARALLELISM);
+    System.setProperty(TemplateResolver.PARALLELISM, Integer.toString(parallelism));
+    try {
+      CompilerAssert<File, File> compiler = compiler("plugin.template.parallel");
+      compiler.assertCompile();
+      Map<String, String> outputs = new TreeMap<String, String>();
+      collect(compiler.getSourceOutput(), outputs);
+      collect(compiler.getClassOutput(), outputs);
+      return outputs;
+    }
+    finally {
+      if (previous != null) {
+        System.setProperty(TemplateResolver.PARALLELISM, previous);
+      } else {
+        System.clearProperty(TemplateResolver.PARALLELISM);
+      }
+    }
+  }
+
+  /**
+   * Collect the generated sources and scripts, the class files are not compared as the Groovy compiler
+   * stamps the classes it generates.
+   */
+  private void collect(final ReadWriteFileSystem<File> fs, final Map<String, String> outputs) throws IOException {
+    final StringBuilder prefix = new StringBuilder();
+    fs.traverse(new Visitor<File>() {
+      public void enterDir(File dir, String name) throws IOException {
+        if (name.length() > 0) {
+          prefix.append(name).append('/');
+        }
+      }
+      public void file(File file, String name) throws IOException {
+        if (name.endsWith(".java") || name.endsWith(".groovy")) {
+          outputs.put(prefix + name, fs.getContent(file).getObject().getCharSequence().toString());
+        }
+      }
+      public void leaveDir(File dir, String name) throws IOException {
+        if (name.length() > 0) {
+          prefix.setLength(prefix.length() - 1 - name.length());
+        }
+      }
+    });
+  }
+
+  @Test
+  public void testParallelism() throws Exception {
+    Map<String, String> sequential = compile(1);
+    Map<String, String> parallel = compile(4);
+    assertTrue(sequential.containsKey("plugin/template/parallel/templates/index_.groovy"));
+    assertTrue(sequential.containsKey("plugin/template/parallel/templates/sub/c_.groovy"));
+    assertEquals(sequential.keySet(), parallel.keySet());
+    for (Map.Entry<String, String> entry : sequential.entrySet()) {
+      assertEquals("Generated " + entry.getKey() + " differs", entry.getValue(), parallel.get(entry.getKey()));
+    }
+  }
+}
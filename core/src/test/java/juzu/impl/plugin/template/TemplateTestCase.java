@@ -117,6 +117,29 @@ public class TemplateTestCase extends AbstractInjectTestCase {
     assertEquals("hello", client.render().assertStringResult());
   }
 
+  @Test
+  public void testCompileGroovy() throws Exception {
+    MockApplication<File> app = application("plugin.template.simple").init();
+    ReadFileSystem<File> fs = app.getClasses();
+    assertNotNull(fs.getPath("plugin", "template", "simple", "templates", "index_.class"));
+    File groovy = fs.getPath("plugin", "template", "simple", "templates", "index_.groovy");
+    assertNotNull(groovy);
+    assertTrue(groovy.delete());
+    MockClient client = app.client();
+    assertEquals("hello", client.render().assertStringResult());
+  }
+
+  @Test
+  public void testCompileGroovyAgainstClassPath() throws Exception {
+    CompilerAssert<File, File> lib = compiler("plugin.template.classpath.lib");
+    lib.assertCompile();
+    CompilerAssert<File, File> compiler = compiler("plugin.template.classpath.app");
+    compiler.addClassPath(lib.getClassOutput());
+    compiler.assertCompile();
+    ReadFileSystem<File> fs = compiler.getClassOutput();
+    assertNotNull(fs.getPath("plugin", "template", "classpath", "app", "templates", "index_.class"));
+  }
+
   @Test
   public void testAliasesFromSourcepath() throws Exception {
     MockApplication<?> app = application("plugin.template.aliases.sourcepath").init();
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.impl.template.spi;
+
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class FormattersTestCase extends AbstractTestCase {
+
+  static class SqlDate extends Date {
+    SqlDate(long date) {
+      super(date);
+    }
+  }
+
+  @Test
+  public void testDefault() throws Exception {
+    Date date = new Date(0);
+    assertEquals(DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.FRANCE).format(date), Formatters.DEFAULT.format(Locale.FRANCE, date));
+    assertEquals(DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.ENGLISH).format(date), Formatters.DEFAULT.format(Locale.ENGLISH, date));
+    assertEquals(DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.ENGLISH).format(date), Formatters.DEFAULT.format(Locale.ENGLISH, new SqlDate(0)));
+    assertNull(Formatters.DEFAULT.format(Locale.ENGLISH, 3));
+    assertNull(Formatters.DEFAULT.get(Integer.class));
+    assertSame(Formatters.DEFAULT.get(Date.class), Formatters.DEFAULT.get(SqlDate.class));
+  }
+
+  @Test
+  public void testNumber() throws Exception {
+    assertEquals("1,000", new NumberFormatter().format(Locale.ENGLISH, 1000));
+  }
+}
@@ -36,6 +36,7 @@ import juzu.test.AbstractTestCase;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.lang.reflect.Method;
+import java.net.URL;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
@@ -81,6 +82,15 @@ public abstract class AbstractTemplateTestCase extends AbstractTestCase {
         public void createResource(String rawName, String ext, CharSequence content) throws IOException {
           throw new UnsupportedOperationException();
         }
+        public void createClass(String name, byte[] bytecode) throws IOException {
+          throw new UnsupportedOperationException();
+        }
+        public void deleteClass(String name) throws IOException {
+          throw new UnsupportedOperationException();
+        }
+        public URL[] getClassPath() {
+          throw new UnsupportedOperationException();
+        }
       });
       emitPhase.emit(generator, template.getModel());
     }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.io;
+
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static juzu.impl.common.Tools.UTF_8;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class AsyncStreamableTestCase extends AbstractTestCase {
+
+  @Test
+  public void testBuffer() throws Exception {
+    final CountDownLatch closed = new CountDownLatch(1);
+    StringBuilder buffer = new StringBuilder();
+    AsyncStreamable streamable = new AsyncStreamable(4);
+    streamable.append("foo");
+    streamable.append("bar");
+    streamable.send(new AppendableStream(UTF_8, buffer) {
+      @Override
+      public void close() throws IOException {
+        closed.countDown();
+      }
+    });
+    streamable.close();
+    assertTrue(streamable.isClosed());
+    assertTrue(closed.await(10, TimeUnit.SECONDS));
+    assertEquals("foobar", buffer.toString());
+    try {
+      streamable.append("juu");
+      fail();
+    }
+    catch (IOException ignore) {
+    }
+  }
+
+  @Test
+  public void testBackPressure() throws Exception {
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final StringBuilder buffer = new StringBuilder();
+    AsyncStreamable streamable = new AsyncStreamable(4);
+    streamable.send(new AppendableStream(UTF_8, buffer) {
+      @Override
+      public Stream append(CharSequence csq) throws IOException {
+        blocked.countDown();
+        try {
+          release.await();
+        }
+        catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return super.append(csq);
+      }
+    });
+    assertTrue(streamable.offer("a"));
+    assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    assertTrue(streamable.offer("bcde"));
+    assertFalse(streamable.offer("f"));
+    assertFalse(streamable.offer("f", 10, TimeUnit.MILLISECONDS));
+    release.countDown();
+    assertTrue(streamable.offer("f", 10, TimeUnit.SECONDS));
+    streamable.close();
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    final CountDownLatch failed = new CountDownLatch(1);
+    AsyncStreamable streamable = new AsyncStreamable();
+    streamable.send(new AppendableStream(UTF_8, new StringBuilder()) {
+      @Override
+      public Stream append(CharSequence csq) throws IOException {
+        failed.countDown();
+        throw new IOException();
+      }
+    });
+    streamable.append("foo");
+    assertTrue(failed.await(10, TimeUnit.SECONDS));
+    long timeout = System.currentTimeMillis() + 10000;
+    while (!streamable.isClosed()) {
+      assertTrue(System.currentTimeMillis() < timeout);
+      Thread.sleep(10);
+    }
+    try {
+      streamable.append("bar");
+      fail();
+    }
+    catch (IOException ignore) {
+    }
+  }
+
+  @Test
+  public void testShutdown() throws Exception {
+    final CountDownLatch closed = new CountDownLatch(1);
+    final ClassLoader[] loader = new ClassLoader[]{getClass().getClassLoader()};
+    StringBuilder buffer = new StringBuilder();
+    AsyncStreamable.lease();
+    AsyncStreamable streamable = new AsyncStreamable();
+    streamable.send(new AppendableStream(UTF_8, buffer) {
+      @Override
+      public void close() throws IOException {
+        loader[0] = Thread.currentThread().getContextClassLoader();
+        closed.countDown();
+      }
+    });
+    streamable.append("foo");
+    AsyncStreamable.release();
+    streamable.close();
+    assertTrue(closed.await(10, TimeUnit.SECONDS));
+    assertEquals("foo", buffer.toString());
+    assertNull(loader[0]);
+  }
+
+  @Test
+  public void testEventFormat() throws Exception {
+    assertEquals("data: foo\n\n", EventStreamable.format(null, null, "foo"));
+    assertEquals("id: 1\nevent: foo\ndata: bar\n\n", EventStreamable.format("1", "foo", "bar"));
+    assertEquals("data: a\ndata: b\ndata: c\ndata: \n\n", EventStreamable.format(null, null, "a\nb\r\nc\r"));
+    try {
+      EventStreamable.format("a\nb", null, "foo");
+      fail();
+    }
+    catch (IllegalArgumentException ignore) {
+    }
+  }
+}
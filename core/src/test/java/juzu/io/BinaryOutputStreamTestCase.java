@@ -68,6 +68,44 @@ public class BinaryOutputStreamTestCase extends AbstractTestCase {
     assertEquals(sb.toString(), new String(buffer.toByteArray(), UTF_8));
   }
 
+  @Test
+  public void testCoalesce() throws IOException {
+    final int[] writes = {0};
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream() {
+      @Override
+      public synchronized void write(byte[] b, int off, int len) {
+        writes[0]++;
+        super.write(b, off, len);
+      }
+    };
+    BinaryOutputStream bos = new BinaryOutputStream(UTF_8, buffer);
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < BinaryStream.BUFFER_SIZE * 4) {
+      sb.append('a');
+    }
+    bos.append(sb);
+    assertEquals(sb.toString(), new String(buffer.toByteArray(), UTF_8));
+    assertEquals(1, writes[0]);
+  }
+
+  @Test
+  public void testNested() throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final BinaryOutputStream nested = new BinaryOutputStream(UTF_8, buffer);
+    BinaryOutputStream bos = new BinaryOutputStream(UTF_8, new ByteArrayOutputStream()) {
+      @Override
+      public BinaryStream append(byte[] data, int off, int len) throws IOException {
+        nested.append("<");
+        super.append(data, off, len);
+        nested.append(new String(data, off, len, UTF_8));
+        nested.append(">");
+        return this;
+      }
+    };
+    bos.append("content[" + EURO + "]");
+    assertEquals("<content[" + EURO + "]>", new String(buffer.toByteArray(), UTF_8));
+  }
+
   @Test
   public void testAllChars() throws IOException {
     for (char c = Character.MIN_VALUE;c < Character.MAX_VALUE;c++) {
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.io;
+
+import juzu.impl.common.JSON;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static juzu.impl.common.Tools.UTF_8;
+
+/**
+ * Compares the time needed for serializing a large document with a {@link JSONWriter} to the time needed for
+ * building the same document as a string with {@link JSON} before sending it. The chunks written by the writer
+ * are counted and discarded, as a stream sending them would do. Run it with the test class path, the number of
+ * elements and of iterations can be passed as arguments.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class JSONWriterBenchmark {
+
+  public static void main(String[] args) throws IOException {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+    //
+    List<Map<String, Object>> document = new ArrayList<Map<String, Object>>(size);
+    for (int i = 0;i < size;i++) {
+      Map<String, Object> element = new LinkedHashMap<String, Object>();
+      element.put("id", i);
+      element.put("name", "element \"" + i + "\"");
+      element.put("enabled", i % 2 == 0);
+      document.add(element);
+    }
+
+    // Warm up
+    for (int i = 0;i < iterations;i++) {
+      writer(document);
+      string(document);
+    }
+
+    //
+    long writerTime = 0, stringTime = 0, writerChars = 0, stringChars = 0;
+    for (int i = 0;i < iterations;i++) {
+      long time = System.nanoTime();
+      writerChars += writer(document);
+      writerTime += System.nanoTime() - time;
+      time = System.nanoTime();
+      stringChars += string(document);
+      stringTime += System.nanoTime() - time;
+    }
+
+    //
+    if (writerChars != stringChars) {
+      throw new AssertionError("Not the same document " + writerChars + " != " + stringChars);
+    }
+    System.out.println("Document of " + size + " elements and " + (writerChars / iterations) + " chars");
+    System.out.println("JSONWriter:      " + (writerTime / iterations / 1000) + " us per document");
+    System.out.println("String building: " + (stringTime / iterations / 1000) + " us per document");
+  }
+
+  private static long writer(List<Map<String, Object>> document) throws IOException {
+    CountingStream stream = new CountingStream();
+    JSONWriter writer = new JSONWriter(stream);
+    writer.value(document);
+    writer.close();
+    return stream.count;
+  }
+
+  private static long string(List<Map<String, Object>> document) throws IOException {
+    CountingStream stream = new CountingStream();
+    StringBuilder buffer = JSON.toString(JSON.unwrap(document), new StringBuilder());
+    stream.append(buffer);
+    stream.close();
+    return stream.count;
+  }
+
+  /**
+   * Counts the chars appended and discards them.
+   */
+  private static class CountingStream extends AppendableStream {
+
+    /** . */
+    private long count;
+
+    private CountingStream() {
+      super(UTF_8, new StringBuilder());
+    }
+
+    @Override
+    public Stream append(CharSequence csq) throws IOException {
+      count += csq.length();
+      return this;
+    }
+  }
+}
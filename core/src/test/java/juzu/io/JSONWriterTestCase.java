@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package juzu.io;
+
+import juzu.impl.common.JSON;
+import juzu.test.AbstractTestCase;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static juzu.impl.common.Tools.UTF_8;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class JSONWriterTestCase extends AbstractTestCase {
+
+  @Test
+  public void testWrite() throws IOException {
+    StringBuilder buffer = new StringBuilder();
+    JSONWriter writer = new JSONWriter(new AppendableStream(UTF_8, buffer));
+    writer.beginObject();
+    writer.name("a").value("a_value");
+    writer.name("b").beginArray().value(0).value(true).value(null).endArray();
+    writer.name("c").beginObject().endObject();
+    writer.name("d").value(new JSON().set("e", "e_value"));
+    writer.endObject();
+    writer.close();
+    assertEquals("{\"a\":\"a_value\",\"b\":[0,true,null],\"c\":{},\"d\":{\"e\":\"e_value\"}}", buffer.toString());
+  }
+
+  @Test
+  public void testValue() throws IOException {
+    Map<String, Object> map = new LinkedHashMap<String, Object>();
+    map.put("a", Arrays.asList("b", "c"));
+    map.put("d", new int[]{1, 2});
+    map.put("e", Collections.emptyMap());
+    StringBuilder buffer = new StringBuilder();
+    JSONWriter writer = new JSONWriter(new AppendableStream(UTF_8, buffer));
+    writer.value(map);
+    writer.close();
+    assertEquals("{\"a\":[\"b\",\"c\"],\"d\":[1,2],\"e\":{}}", buffer.toString());
+  }
+
+  @Test
+  public void testNonFinite() throws IOException {
+    StringBuilder buffer = new StringBuilder();
+    JSONWriter writer = new JSONWriter(new AppendableStream(UTF_8, buffer));
+    writer.beginArray();
+    writer.value(Double.NaN).value(Double.POSITIVE_INFINITY).value(Float.NEGATIVE_INFINITY).value(1.5D).value(2.5F);
+    writer.value(Arrays.asList(Float.NaN)).value(Collections.singletonMap("a", Double.NEGATIVE_INFINITY));
+    writer.endArray();
+    writer.close();
+    assertEquals("[null,null,null,1.5,2.5,[null],{\"a\":null}]", buffer.toString());
+  }
+
+  @Test
+  public void testEscape() throws IOException {
+    StringBuilder buffer = new StringBuilder();
+    JSONWriter writer = new JSONWriter(new AppendableStream(UTF_8, buffer));
+    writer.beginObject().name("\"").value("\\\u0000").endObject();
+    writer.close();
+    assertEquals("{\"\\\"\":\"\\\\\\u0000\"}", buffer.toString());
+  }
+
+  @Test
+  public void testIllegalState() throws IOException {
+    JSONWriter writer = new JSONWriter(new AppendableStream(UTF_8, new StringBuilder()));
+    try {
+      writer.name("a");
+      fail();
+    }
+    catch (IllegalStateException ignore) {
+    }
+    writer.beginObject();
+    try {
+      writer.value("a");
+      fail();
+    }
+    catch (IllegalStateException ignore) {
+    }
+    try {
+      writer.endArray();
+      fail();
+    }
+    catch (IllegalStateException ignore) {
+    }
+    writer.endObject();
+    try {
+      writer.beginArray();
+      fail();
+    }
+    catch (IllegalStateException ignore) {
+    }
+  }
+
+  @Test
+  public void testChunked() throws IOException {
+    final int size = 10000;
+    AbstractList<Integer> list = new AbstractList<Integer>() {
+      @Override
+      public Integer get(int index) {
+        return index;
+      }
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+    final StringBuilder buffer = new StringBuilder();
+    final int[] chunks = {0, 0};
+    Stream stream = new AppendableStream(UTF_8, buffer) {
+      @Override
+      public Stream append(CharSequence csq) throws IOException {
+        chunks[0]++;
+        chunks[1] = Math.max(chunks[1], csq.length());
+        return super.append(csq);
+      }
+    };
+    JSONWriter writer = new JSONWriter(stream, 256);
+    writer.value(list);
+    writer.close();
+    assertEquals(JSON.toString(list, new StringBuilder()).toString(), buffer.toString());
+    assertTrue(chunks[0] > 1);
+    assertTrue(chunks[1] < 256 + 16);
+  }
+}
@@ -127,6 +127,11 @@ public class MockClient implements UserContext {
     return locales;
   }
 
+  public void setLocale(Locale locale) {
+    locales.clear();
+    locales.add(locale);
+  }
+
   public MockRenderBridge render(String methodId) {
     MethodHandle handle = null;
     Method method = null;
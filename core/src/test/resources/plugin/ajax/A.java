@@ -70,6 +70,19 @@ public class A {
       "</script>\n" +
       "<a id='trigger3' href='#'>click</a>" +
 
+      //
+      "<script>\n" +
+      "$(function() {\n" +
+      "  $('#trigger4').click(function() {\n" +
+      "    $(this).jzBatch([\n" +
+      "      {url:'A.m1()',success:function(content) { alert(content); }},\n" +
+      "      {url:'A.m2()',data:{p:'bar'},success:function(content) { alert(content); }}\n" +
+      "    ]);\n" +
+      "  });\n" +
+      "});\n" +
+      "</script>\n" +
+      "<a id='trigger4' href='#'>click</a>" +
+
       // Configure ajax default for unit test
       "<script>\n" +
       "$(function() {\n" +
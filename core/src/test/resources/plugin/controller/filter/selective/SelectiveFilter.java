@@ -0,0 +1,36 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package plugin.controller.filter.selective;
+
+import juzu.impl.request.Method;
+import juzu.impl.request.Request;
+import juzu.impl.request.SelectiveRequestFilter;
+import juzu.request.Phase;
+import juzu.test.Registry;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class SelectiveFilter implements SelectiveRequestFilter {
+
+  public boolean accept(Method<?> method) {
+    return method.getPhase() == Phase.RESOURCE;
+  }
+
+  public void invoke(Request request) {
+    Registry.set("request.filter.selective", request.getContext().getPhase());
+    request.invoke();
+  }
+}
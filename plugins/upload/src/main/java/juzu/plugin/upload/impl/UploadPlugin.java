@@ -23,26 +23,49 @@ import juzu.impl.request.ContextualParameter;
 import juzu.impl.request.ControlParameter;
 import juzu.impl.request.Method;
 import juzu.impl.request.Request;
-import juzu.impl.request.RequestFilter;
+import juzu.impl.request.SelectiveRequestFilter;
 import juzu.request.ActionContext;
 import juzu.request.ClientContext;
+import juzu.request.Phase;
 import juzu.request.RequestContext;
 import juzu.request.RequestParameter;
 import juzu.request.ResourceContext;
 import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
 import org.apache.commons.fileupload.FileUpload;
 import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.disk.DiskFileItem;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
+import org.apache.commons.fileupload.util.Streams;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class UploadPlugin extends ApplicationPlugin implements RequestFilter {
+/**
+ * The upload plugin decodes multipart requests with the streaming API of commons-fileupload: form fields
+ * are decoded on the fly and file parts are either spooled to a {@link FileItem} whose memory threshold
+ * is configured by <code>juzu.upload.threshold</code>, or handed unread to a controller parameter of type
+ * {@link FileItemStream}. In the latter case the controller is invoked when the file part is reached and the
+ * following parts are not read, so the file input should be the last one of the form.
+ *
+ * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
+ */
+public class UploadPlugin extends ApplicationPlugin implements SelectiveRequestFilter {
+
+  /** The size above which spooled file items are written to disk. */
+  private static final int THRESHOLD = Integer.getInteger("juzu.upload.threshold", DiskFileItemFactory.DEFAULT_SIZE_THRESHOLD);
+
+  /** The directory of spooled file items. */
+  private static final String REPOSITORY = System.getProperty("juzu.upload.repository");
+
+  /** . */
+  private DiskFileItemFactory factory;
 
   public UploadPlugin() {
     super("upload");
@@ -50,10 +73,16 @@ public class UploadPlugin extends ApplicationPlugin implements RequestFilter {
 
   @Override
   public PluginDescriptor init(PluginContext context) throws Exception {
+    factory = new DiskFileItemFactory(THRESHOLD, REPOSITORY != null ? new File(REPOSITORY) : null);
+
     // We always load the plugin
     return new PluginDescriptor();
   }
 
+  public boolean accept(Method<?> method) {
+    return method.getPhase() == Phase.ACTION || method.getPhase() == Phase.RESOURCE;
+  }
+
   public void invoke(Request request) {
 
     //
@@ -92,54 +121,82 @@ public class UploadPlugin extends ApplicationPlugin implements RequestFilter {
           };
 
           //
-          FileUpload upload = new FileUpload(new DiskFileItemFactory());
-
-          //
+          String encoding = clientContext.getCharacterEncoding();
+          if (encoding == null) {
+            encoding = DiskFileItem.DEFAULT_CHARSET;
+          }
+          Method<?> method = request.getContext().getMethod();
+          ArrayList<FileItem> spooled = new ArrayList<FileItem>();
           try {
-            List<FileItem> list = (List<FileItem>)upload.parseRequest(ctx);
+            FileItemIterator i = new FileUpload().getItemIterator(ctx);
             HashMap<String, RequestParameter> parameters = new HashMap<String, RequestParameter>();
-            for (FileItem file : list) {
-              String name = file.getFieldName();
-              if (file.isFormField()) {
+            while (i.hasNext()) {
+              FileItemStream item = i.next();
+              String name = item.getFieldName();
+              if (item.isFormField()) {
+                String value = Streams.asString(item.openStream(), encoding);
                 RequestParameter parameter = parameters.get(name);
                 if (parameter != null) {
-                  parameter = parameter.append(new String[]{file.getString()});
+                  parameter = parameter.append(new String[]{value});
                 } else {
-                  parameter = RequestParameter.create(name, file.getString());
+                  parameter = RequestParameter.create(name, value);
                 }
                 parameter.appendTo(parameters);
               } else {
-                ControlParameter parameter = request.getContext().getMethod().getParameter(name);
-                if (parameter instanceof ContextualParameter && FileItem.class.isAssignableFrom(parameter.getType())) {
-                  request.setArgument(parameter, file);
+                ControlParameter parameter = method.getParameter(name);
+                if (parameter instanceof ContextualParameter) {
+                  if (FileItemStream.class.isAssignableFrom(parameter.getType())) {
+                    request.setArgument(parameter, item);
+                    break;
+                  } else if (FileItem.class.isAssignableFrom(parameter.getType())) {
+                    FileItem file = factory.createItem(name, item.getContentType(), false, item.getName());
+                    spooled.add(file);
+                    Streams.copy(item.openStream(), file.getOutputStream(), true);
+                    request.setArgument(parameter, file);
+                  }
                 }
               }
             }
 
-            // Keep original parameters that may come from the request path
-            for (RequestParameter parameter : request.getParameters().values()) {
-              if (!parameters.containsKey(parameter.getName())) {
-                parameter.appendTo(parameters);
+            //
+            if (parameters.size() > 0) {
+
+              // Keep original parameters that may come from the request path
+              for (RequestParameter parameter : request.getParameters().values()) {
+                if (!parameters.containsKey(parameter.getName())) {
+                  parameter.appendTo(parameters);
+                }
               }
-            }
 
-            // Redecode phase arguments from updated request
-            Method<?> method = request.getContext().getMethod();
-            Map<ControlParameter, Object> arguments = method.getArguments(parameters);
+              // Redecode phase arguments from updated request
+              Map<ControlParameter, Object> arguments = method.getArguments(parameters);
 
-            // Update with existing contextual arguments
-            for (Map.Entry<ControlParameter, Object> argument : request.getArguments().entrySet()) {
-              if (argument.getKey() instanceof ContextualParameter) {
-                arguments.put(argument.getKey(), argument.getValue());
+              // Update with existing contextual arguments
+              for (Map.Entry<ControlParameter, Object> argument : request.getArguments().entrySet()) {
+                if (argument.getKey() instanceof ContextualParameter) {
+                  arguments.put(argument.getKey(), argument.getValue());
+                }
               }
+
+              // Replace all arguments
+              request.setArguments(arguments);
             }
 
-            // Replace all arguments
-            request.setArguments(arguments);
+            // Invoke while a streamed file part can still be read
+            request.invoke();
           }
           catch (FileUploadException e) {
             throw new UndeclaredThrowableException(e);
           }
+          catch (IOException e) {
+            throw new UndeclaredThrowableException(e);
+          }
+          finally {
+            for (FileItem file : spooled) {
+              file.delete();
+            }
+          }
+          return;
         }
       }
     }
@@ -21,6 +21,7 @@ import com.github.mustachejava.DefaultMustacheVisitor;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheVisitor;
 import com.github.mustachejava.TemplateContext;
+import com.github.mustachejava.reflect.ReflectionObjectHandler;
 import juzu.impl.template.spi.TemplateStub;
 import juzu.io.Stream;
 import juzu.template.TemplateExecutionException;
@@ -28,10 +29,14 @@ import juzu.template.TemplateRenderContext;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.Locale;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class TemplateStubImpl extends TemplateStub {
 
+  /** The context of the template being rendered by the current thread, used for formatting the values. */
+  private static final ThreadLocal<TemplateRenderContext> current = new ThreadLocal<TemplateRenderContext>();
+
   /** . */
   private Mustache mustache;
 
@@ -74,6 +79,22 @@ public class TemplateStubImpl extends TemplateStub {
           };
         }
       };
+      factory.setObjectHandler(new ReflectionObjectHandler() {
+        @Override
+        public String stringify(Object object) {
+          TemplateRenderContext renderContext = current.get();
+          if (renderContext != null && !(object instanceof String)) {
+            Locale locale = renderContext.getLocale();
+            if (locale != null) {
+              String formatted = renderContext.getFormatters().format(locale, object);
+              if (formatted != null) {
+                return formatted;
+              }
+            }
+          }
+          return super.stringify(object);
+        }
+      });
       mustache = factory.compile(mustacheName);
     }
     finally {
@@ -84,7 +105,14 @@ public class TemplateStubImpl extends TemplateStub {
   @Override
   protected void doRender(TemplateRenderContext renderContext) throws TemplateExecutionException, IOException {
     StringWriter buffer = new StringWriter();
-    mustache.execute(buffer, new Object[]{new ContextMap(renderContext)});
+    TemplateRenderContext previous = current.get();
+    current.set(renderContext);
+    try {
+      mustache.execute(buffer, new Object[]{new ContextMap(renderContext)});
+    }
+    finally {
+      current.set(previous);
+    }
     Stream stream = renderContext.getPrinter();
     stream.append(buffer.getBuffer());
   }
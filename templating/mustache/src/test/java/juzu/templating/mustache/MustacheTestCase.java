@@ -23,6 +23,10 @@ import juzu.test.protocol.mock.MockClient;
 import juzu.test.protocol.mock.MockRenderBridge;
 import org.junit.Test;
 
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Locale;
+
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
 public class MustacheTestCase extends AbstractInjectTestCase {
 
@@ -54,6 +58,14 @@ public class MustacheTestCase extends AbstractInjectTestCase {
     assertEquals("bar", render.assertStringResult());
   }
 
+  @Test
+  public void testFormat() throws Exception {
+    MockApplication<?> app = application("format").init();
+    MockClient client = app.client();
+    MockRenderBridge render = client.render();
+    assertEquals(DateFormat.getDateInstance(DateFormat.MEDIUM, Locale.ENGLISH).format(new Date(0)), render.assertStringResult());
+  }
+
   @Test
   public void testPartial() throws Exception {
     MockApplication<?> app = application("partial").init();
@@ -21,11 +21,14 @@ package juzu.bridge.vertx;
 
 import juzu.impl.bridge.Bridge;
 import juzu.impl.bridge.BridgeConfig;
+import juzu.impl.bridge.spi.web.FormDecoder;
+import juzu.impl.bridge.spi.web.SessionStore;
 import juzu.impl.common.Content;
 import juzu.impl.common.JSON;
 import juzu.impl.common.Logger;
 import juzu.impl.common.Name;
 import juzu.impl.common.RunMode;
+import juzu.impl.common.Tools;
 import juzu.impl.fs.spi.ReadFileSystem;
 import juzu.impl.fs.spi.disk.DiskFileSystem;
 import juzu.impl.inject.spi.InjectorProvider;
@@ -73,6 +76,12 @@ public class Application {
   /** . */
   final int port;
 
+  /** . */
+  SessionStore sessionStore;
+
+  /** . */
+  private juzu.impl.bridge.spi.web.Handler handler;
+
   Application(
       Container container,
       Vertx vertx,
@@ -147,6 +156,10 @@ public class Application {
     cfg.put(BridgeConfig.APP_NAME, main.toString());
     BridgeConfig config = new BridgeConfig(cfg);
 
+    // Vert.x has no session, the state is kept off heap unless a store is configured, the store is bounded
+    // by the juzu.session_store.ttl and juzu.session_store.max_size system properties
+    sessionStore = config.sessionStore != null ? config.sessionStore : SessionStore.get("offheap");
+
     // Bind vertx singleton
     config.injectImpl.bindBean(Vertx.class, null, vertx);
 
@@ -155,15 +168,13 @@ public class Application {
 
     //
     HttpServer server = vertx.createHttpServer().requestHandler(new Handler<HttpServerRequest>() {
-      juzu.impl.bridge.spi.web.Handler h;
-
       public void handle(final HttpServerRequest req) {
         try {
           if (bridge.refresh(true)) {
-            h = null;
+            handler = null;
           }
-          if (h == null) {
-            h = new juzu.impl.bridge.spi.web.Handler(bridge);
+          if (handler == null) {
+            handler = new juzu.impl.bridge.spi.web.Handler(bridge);
           }
         }
         catch (Exception e) {
@@ -191,14 +202,34 @@ public class Application {
         if (!served) {
           String contentType = req.headers().get("Content-Type");
           if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
-            req.bodyHandler(new Handler<Buffer>() {
-              public void handle(Buffer buffer) {
-                new VertxWebBridge(bridge, Application.this, req, buffer, log).handle(h);
+            // The body is accumulated up to the juzu.form.max_size limit, the exceeding data is discarded
+            final Buffer body = new Buffer();
+            final boolean[] exceeded = {false};
+            req.dataHandler(new Handler<Buffer>() {
+              public void handle(Buffer data) {
+                if (!exceeded[0]) {
+                  if (FormDecoder.DEFAULT_MAX_SIZE >= 0 && body.length() + data.length() > FormDecoder.DEFAULT_MAX_SIZE) {
+                    exceeded[0] = true;
+                  } else {
+                    body.appendBuffer(data);
+                  }
+                }
+              }
+            });
+            req.endHandler(new Handler<Void>() {
+              public void handle(Void event) {
+                if (exceeded[0]) {
+                  req.response.statusCode = 413;
+                  req.response.end();
+                  req.response.close();
+                } else {
+                  new VertxWebBridge(bridge, Application.this, req, body, log).handle(handler);
+                }
               }
             });
           }
           else {
-            new VertxWebBridge(bridge, Application.this, req, null, log).handle(h);
+            new VertxWebBridge(bridge, Application.this, req, null, log).handle(handler);
           }
         }
       }
@@ -206,6 +237,14 @@ public class Application {
   }
 
   public void stop() throws Exception {
+    if (handler != null) {
+      Tools.safeClose(handler);
+      handler = null;
+    }
     lifeCycle = null;
   }
+
+  Vertx getVertx() {
+    return vertx;
+  }
 }
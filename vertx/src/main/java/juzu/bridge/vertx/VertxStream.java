@@ -17,46 +17,132 @@
 package juzu.bridge.vertx;
 
 import juzu.io.BinaryStream;
+import juzu.io.ChannelStream;
+import juzu.io.Streamable;
 import org.jboss.netty.buffer.ChannelBuffers;
+import org.vertx.java.core.Handler;
+import org.vertx.java.core.Vertx;
 import org.vertx.java.core.buffer.Buffer;
 import org.vertx.java.core.http.HttpServerResponse;
+import org.vertx.java.core.impl.Context;
+import org.vertx.java.core.impl.VertxInternal;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class VertxStream extends BinaryStream {
+public class VertxStream extends BinaryStream implements ChannelStream {
+
+  /** . */
+  private final VertxInternal vertx;
+
+  /** The context of the request, the response must be written by its event loop. */
+  private final Context context;
 
   /** . */
   private final HttpServerResponse resp;
 
-  public VertxStream(Charset charset, HttpServerResponse resp) {
+  /** True when the response was sent with a file. */
+  private boolean sent;
+
+  /** True when the connection was closed before the response ended. */
+  private volatile boolean disconnected;
+
+  public VertxStream(Charset charset, Vertx vertx, HttpServerResponse resp) {
     super(charset);
 
-    //
-    resp.setChunked(true);
+    // A response with a known length is not chunked
+    if (!resp.headers().containsKey("Content-Length")) {
+      resp.setChunked(true);
+    }
+    resp.closeHandler(new Handler<Void>() {
+      public void handle(Void event) {
+        disconnected = true;
+      }
+    });
 
     //
+    this.vertx = (VertxInternal)vertx;
+    this.context = this.vertx.getContext();
     this.resp = resp;
   }
 
   @Override
   public BinaryStream append(byte[] data, int off, int len) throws IOException {
-    resp.write(new Buffer(ChannelBuffers.wrappedBuffer(data, off, len)));
+    checkConnected();
+    // Copy as the data may be a pooled buffer reused before the write happens
+    write(new Buffer(ChannelBuffers.copiedBuffer(data, off, len)));
     return this;
   }
 
   @Override
   public BinaryStream append(byte[] data) throws IOException {
-    resp.write(new Buffer(ChannelBuffers.wrappedBuffer(data)));
+    checkConnected();
+    write(new Buffer(isEventLoop() ? ChannelBuffers.wrappedBuffer(data) : ChannelBuffers.copiedBuffer(data)));
     return this;
   }
 
+  public void transferFrom(final File file, FileChannel channel, long position, long count) throws IOException {
+    if (file != null && position == 0 && count == file.length()) {
+      // The server sends the file without copying it
+      sent = true;
+      run(new Runnable() {
+        public void run() {
+          resp.setChunked(false);
+          resp.sendFile(file.getAbsolutePath());
+        }
+      });
+    } else {
+      Streamable.Channel.copy(channel, position, count, this);
+    }
+  }
+
   public void close() throws IOException {
-    resp.end();
-    resp.close();
+    if (!sent && !disconnected) {
+      run(new Runnable() {
+        public void run() {
+          resp.end();
+          resp.close();
+        }
+      });
+    }
   }
 
   public void flush() throws IOException {
   }
+
+  private boolean isEventLoop() {
+    return context == null || vertx.getContext() == context;
+  }
+
+  private void write(final Buffer buffer) {
+    run(new Runnable() {
+      public void run() {
+        resp.write(buffer);
+      }
+    });
+  }
+
+  /**
+   * Run an operation on the response, the operations of another thread are handed to the event loop of the
+   * request, in the order they happen.
+   */
+  private void run(Runnable operation) {
+    if (isEventLoop()) {
+      operation.run();
+    } else {
+      context.execute(operation);
+    }
+  }
+
+  /**
+   * Fail the writes once the client is gone, so an asynchronous producer can stop.
+   */
+  private void checkConnected() throws IOException {
+    if (disconnected) {
+      throw new IOException("Connection closed");
+    }
+  }
 }
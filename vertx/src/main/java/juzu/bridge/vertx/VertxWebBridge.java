@@ -22,12 +22,15 @@ package juzu.bridge.vertx;
 import juzu.Method;
 import juzu.asset.AssetLocation;
 import juzu.impl.bridge.Bridge;
+import juzu.impl.bridge.spi.web.FormDecoder;
 import juzu.impl.bridge.spi.web.WebBridge;
 import juzu.impl.common.Lexers;
 import juzu.impl.common.Logger;
+import juzu.impl.common.Tools;
 import juzu.impl.inject.ScopedContext;
 import juzu.io.Stream;
 import juzu.io.Streams;
+import juzu.io.UndeclaredIOException;
 import juzu.request.ApplicationContext;
 import juzu.request.ClientContext;
 import juzu.request.HttpContext;
@@ -36,18 +39,21 @@ import juzu.request.UserContext;
 import org.vertx.java.core.buffer.Buffer;
 import org.vertx.java.core.http.HttpServerRequest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 
 /** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
-public class VertxWebBridge extends WebBridge implements HttpContext {
+public class VertxWebBridge extends WebBridge implements HttpContext, UserContext {
 
   /** . */
   private static final ApplicationContext APPLICATION_CONTEXT = new ApplicationContext() {
@@ -83,6 +89,9 @@ public class VertxWebBridge extends WebBridge implements HttpContext {
   /** . */
   private final Bridge bridge;
 
+  /** The locales of the Accept-Language header. */
+  private List<Locale> locales;
+
   public VertxWebBridge(Bridge bridge, Application application, HttpServerRequest req, Buffer buffer, Logger log) {
 
     //
@@ -121,18 +130,49 @@ public class VertxWebBridge extends WebBridge implements HttpContext {
       if (req.query != null) {
         parameters = Lexers.parseQuery(req.query);
       } else {
-        parameters = buffer != null ? new HashMap<String, RequestParameter>() : Collections.<String, RequestParameter>emptyMap();
+        parameters = Collections.emptyMap();
       }
       if (buffer != null) {
-        for (Iterator<RequestParameter> i = Lexers.queryParser(buffer.toString());i.hasNext();) {
-          RequestParameter parameter = i.next();
-          parameter.appendTo(parameters);
+        try {
+          Charset charset = getCharset(req.headers().get("Content-Type"));
+          parameters = new FormDecoder(charset).decode(new ByteArrayInputStream(buffer.getBytes()), parameters);
+        }
+        catch (IOException e) {
+          throw new UndeclaredIOException(e);
         }
       }
     }
     return parameters;
   }
 
+  /**
+   * Returns the charset of the <code>charset</code> parameter of a content type, the charset defaults to UTF-8.
+   *
+   * @param contentType the content type
+   * @return the charset
+   */
+  static Charset getCharset(String contentType) {
+    if (contentType != null) {
+      String[] parameters = contentType.split(";");
+      for (int i = 1;i < parameters.length;i++) {
+        String parameter = parameters[i].trim();
+        if (parameter.regionMatches(true, 0, "charset=", 0, 8)) {
+          String name = parameter.substring(8).trim();
+          if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+            name = name.substring(1, name.length() - 1);
+          }
+          try {
+            return Charset.forName(name);
+          }
+          catch (IllegalArgumentException ignore) {
+            // Illegal or unsupported charset
+          }
+        }
+      }
+    }
+    return Tools.UTF_8;
+  }
+
   public String getRequestURI() {
     return "/";
   }
@@ -174,23 +214,34 @@ public class VertxWebBridge extends WebBridge implements HttpContext {
   }
 
   public ScopedContext getFlashScope(boolean create) {
-    if (create) {
-      throw new UnsupportedOperationException("todo");
-    } else {
-      return null;
-    }
+    return getStoredScope(log, application.sessionStore, true, create);
   }
 
   public ScopedContext getSessionScope(boolean create) {
-    if (create) {
-      throw new UnsupportedOperationException("todo");
-    } else {
-      return null;
-    }
+    return getStoredScope(log, application.sessionStore, false, create);
   }
 
   public void purgeSession() {
-    throw new UnsupportedOperationException("todo");
+    purgeStoredSession(log, application.sessionStore);
+  }
+
+  @Override
+  protected void addCookie(javax.servlet.http.Cookie cookie) {
+    String value = cookie.getName() + "=" + cookie.getValue() + "; Path=" + cookie.getPath() + "; HttpOnly";
+
+    // Vert.x writes an header line for each value of an iterable header value
+    Map<String, Object> headers = req.response.headers();
+    Object previous = headers.get("Set-Cookie");
+    if (previous == null) {
+      headers.put("Set-Cookie", value);
+    } else if (previous instanceof List<?>) {
+      ((List<Object>)previous).add(value);
+    } else {
+      ArrayList<Object> values = new ArrayList<Object>();
+      values.add(previous);
+      values.add(value);
+      headers.put("Set-Cookie", values);
+    }
   }
 
   public HttpContext getHttpContext() {
@@ -206,7 +257,11 @@ public class VertxWebBridge extends WebBridge implements HttpContext {
   }
 
   public void setContentType(String mimeType, Charset charset) {
-    req.response.headers().put("Content-Type", "text/html; charset=UTF-8");
+    if (mimeType != null) {
+      req.response.headers().put("Content-Type", mimeType + "; charset=" + charset.name());
+    } else {
+      req.response.headers().put("Content-Type", "text/html; charset=UTF-8");
+    }
   }
 
   public void setStatus(int status) {
@@ -214,7 +269,12 @@ public class VertxWebBridge extends WebBridge implements HttpContext {
   }
 
   public void setHeader(String name, String value) {
-    throw new UnsupportedOperationException("todo");
+    req.response.headers().put(name, value);
+  }
+
+  @Override
+  public String getRequestHeader(String name) {
+    return req.headers().get(name);
   }
 
   public void sendRedirect(String location) throws IOException {
@@ -235,14 +295,78 @@ public class VertxWebBridge extends WebBridge implements HttpContext {
   @Override
   public Stream getStream(Charset charset) throws IOException {
     if (writer == null) {
-      writer = new VertxStream(charset, req.response);
+      writer = new VertxStream(charset, application.getVertx(), req.response);
     }
     return writer;
   }
 
   @Override
   public UserContext getUserContext() {
-    throw new UnsupportedOperationException();
+    return this;
+  }
+
+  // UserContext implementation ****************************************************************************************
+
+  public Locale getLocale() {
+    return getLocales().iterator().next();
+  }
+
+  public Iterable<Locale> getLocales() {
+    if (locales == null) {
+      locales = parseLocales(req.headers().get("Accept-Language"));
+    }
+    return locales;
+  }
+
+  /**
+   * Parse the locales of an Accept-Language header ordered by decreasing quality, the default locale is
+   * returned when the header is missing or has no valid locale.
+   *
+   * @param header the header value
+   * @return the locales
+   */
+  static List<Locale> parseLocales(String header) {
+    ArrayList<Locale> locales = new ArrayList<Locale>();
+    if (header != null) {
+      final Map<Locale, Float> qualities = new HashMap<Locale, Float>();
+      for (String range : header.split(",")) {
+        String[] parts = range.split(";");
+        String tag = parts[0].trim();
+        if (tag.length() > 0 && !tag.equals("*")) {
+          float quality = 1;
+          for (int i = 1;i < parts.length;i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+              try {
+                quality = Float.parseFloat(param.substring(2));
+              }
+              catch (NumberFormatException e) {
+                quality = 0;
+              }
+            }
+          }
+          if (quality > 0) {
+            String[] subtags = tag.split("-");
+            Locale locale = subtags.length > 1 ? new Locale(subtags[0], subtags[1]) : new Locale(subtags[0]);
+            if (!qualities.containsKey(locale)) {
+              qualities.put(locale, quality);
+              locales.add(locale);
+            }
+          }
+        }
+      }
+
+      // The sort is stable and preserves the header order of the locales with the same quality
+      Collections.sort(locales, new Comparator<Locale>() {
+        public int compare(Locale o1, Locale o2) {
+          return Float.compare(qualities.get(o2), qualities.get(o1));
+        }
+      });
+    }
+    if (locales.isEmpty()) {
+      locales.add(Locale.getDefault());
+    }
+    return locales;
   }
 
   // HttpContext implementation ****************************************************************************************
@@ -252,7 +376,28 @@ public class VertxWebBridge extends WebBridge implements HttpContext {
   }
 
   public javax.servlet.http.Cookie[] getCookies() {
-    throw new UnsupportedOperationException();
+    String header = req.headers().get("Cookie");
+    if (header == null) {
+      return null;
+    }
+    ArrayList<javax.servlet.http.Cookie> cookies = new ArrayList<javax.servlet.http.Cookie>();
+    for (String pair : header.split(";")) {
+      int pos = pair.indexOf('=');
+      if (pos > 0) {
+        String name = pair.substring(0, pos).trim();
+        String value = pair.substring(pos + 1).trim();
+        if (value.length() > 1 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+          value = value.substring(1, value.length() - 1);
+        }
+        try {
+          cookies.add(new javax.servlet.http.Cookie(name, value));
+        }
+        catch (IllegalArgumentException ignore) {
+          // Reserved or invalid cookie name
+        }
+      }
+    }
+    return cookies.toArray(new javax.servlet.http.Cookie[cookies.size()]);
   }
 
   public String getScheme() {
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.bridge.vertx;
+
+import junit.framework.Assert;
+import juzu.impl.common.JSON;
+import juzu.impl.common.Tools;
+import org.junit.Test;
+import org.vertx.java.test.TestModule;
+
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+@TestModule(
+    name = "juzu-v1.0",
+    jsonConfig = "{ \"main\":\"batch\"}")
+public class BatchTestCase extends VertxTestCase {
+
+  /** . */
+  public static volatile CountDownLatch latch;
+
+  private HttpURLConnection post(String batch, boolean parallel) throws Exception {
+    return post(batch, parallel, null);
+  }
+
+  private HttpURLConnection post(String batch, boolean parallel, String charset) throws Exception {
+    URL url = new URL("http://localhost:8080/");
+    HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+    conn.setRequestMethod("POST");
+    conn.setDoOutput(true);
+    conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded" + (charset != null ? "; charset=" + charset : ""));
+    String body = "juzu.batch=" + URLEncoder.encode(batch, charset != null ? charset : "UTF-8");
+    if (parallel) {
+      body += "&juzu.batch.parallel=true";
+    }
+    OutputStream out = conn.getOutputStream();
+    try {
+      out.write(body.getBytes("UTF-8"));
+    }
+    finally {
+      Tools.safeClose(out);
+    }
+    return conn;
+  }
+
+  private List<?> send(String batch, boolean parallel) throws Exception {
+    HttpURLConnection conn = post(batch, parallel);
+    Assert.assertEquals(200, conn.getResponseCode());
+    Object results = JSON.parse(Tools.read(conn.getInputStream()));
+    Assert.assertTrue(results instanceof List<?>);
+    return (List<?>)results;
+  }
+
+  private void assertResult(int status, String body, Object result) {
+    Assert.assertTrue(result instanceof JSON);
+    Assert.assertEquals(status, ((Number)((JSON)result).get("status")).intValue());
+    if (body != null) {
+      Assert.assertEquals(body, ((JSON)result).get("body"));
+    }
+  }
+
+  @Test
+  public void testSequential() throws Exception {
+    List<?> results = send("[{\"id\":\"echo\",\"parameters\":{\"value\":\"a\"}},{\"id\":\"echo\",\"parameters\":{\"value\":\"b\"}}]", false);
+    Assert.assertEquals(2, results.size());
+    assertResult(200, "pass a", results.get(0));
+    assertResult(200, "pass b", results.get(1));
+  }
+
+  @Test
+  public void testParallel() throws Exception {
+    // Each call waits for the other one, so they pass only when they run at the same time
+    latch = new CountDownLatch(2);
+    List<?> results = send("[{\"id\":\"rendezvous\"},{\"id\":\"rendezvous\"}]", true);
+    Assert.assertEquals(2, results.size());
+    assertResult(200, "pass", results.get(0));
+    assertResult(200, "pass", results.get(1));
+  }
+
+  @Test
+  public void testUnknownMethod() throws Exception {
+    List<?> results = send("[{\"id\":\"unknown\"},{\"id\":\"echo\",\"parameters\":{\"value\":\"a\"}}]", false);
+    Assert.assertEquals(2, results.size());
+    assertResult(404, null, results.get(0));
+    assertResult(200, "pass a", results.get(1));
+  }
+
+  @Test
+  public void testMalformed() throws Exception {
+    Assert.assertEquals(400, post("[{\"id\":", false).getResponseCode());
+    Assert.assertEquals(400, post("{\"id\":\"echo\"}", false).getResponseCode());
+    Assert.assertEquals(400, post("[{\"id\":\"echo\",\"parameters\":{\"value\":\"a", false).getResponseCode());
+  }
+
+  @Test
+  public void testCharset() throws Exception {
+    HttpURLConnection conn = post("[{\"id\":\"echo\",\"parameters\":{\"value\":\"\u00e9\"}}]", false, "ISO-8859-1");
+    Assert.assertEquals(200, conn.getResponseCode());
+    List<?> results = (List<?>)JSON.parse(Tools.read(conn.getInputStream()));
+    assertResult(200, "pass \u00e9", results.get(0));
+  }
+
+  @Test
+  public void testTooLarge() throws Exception {
+    StringBuilder value = new StringBuilder();
+    while (value.length() <= 2 * 1024 * 1024) {
+      value.append("abcdefghijklmnopqrstuvwxyz");
+    }
+    Assert.assertEquals(413, post("[{\"id\":\"echo\",\"parameters\":{\"value\":\"" + value + "\"}}]", false).getResponseCode());
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    System.setProperty("juzu.batch.timeout", "1");
+    try {
+      for (boolean parallel : new boolean[]{false, true}) {
+        List<?> results = send("[{\"id\":\"hang\"},{\"id\":\"echo\",\"parameters\":{\"value\":\"a\"}}]", parallel);
+        Assert.assertEquals(2, results.size());
+        assertResult(504, null, results.get(0));
+        assertResult(200, "pass a", results.get(1));
+      }
+    }
+    finally {
+      System.clearProperty("juzu.batch.timeout");
+    }
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    for (boolean parallel : new boolean[]{false, true}) {
+      List<?> results = send("[{\"id\":\"fail\"},{\"id\":\"echo\",\"parameters\":{\"value\":\"a\"}}]", parallel);
+      Assert.assertEquals(2, results.size());
+      assertResult(500, null, results.get(0));
+      assertResult(200, "pass a", results.get(1));
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.bridge.vertx;
+
+import junit.framework.Assert;
+import juzu.impl.common.Tools;
+import org.junit.Test;
+import org.vertx.java.test.TestModule;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+@TestModule(
+    name = "juzu-v1.0",
+    jsonConfig = "{ \"main\":\"cached\"}")
+public class CachedTestCase extends VertxTestCase {
+
+  /** . */
+  public static final AtomicInteger count = new AtomicInteger();
+
+  private String get(String language) throws Exception {
+    URL url = new URL("http://localhost:8080/");
+    HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+    conn.setRequestProperty("Accept-Language", language);
+    conn.connect();
+    Assert.assertEquals(200, conn.getResponseCode());
+    return Tools.read(conn.getInputStream());
+  }
+
+  @Test
+  public void testCached() throws Exception {
+    count.set(0);
+    Assert.assertEquals("pass 1 fr_FR", get("fr-FR,en;q=0.5"));
+    Assert.assertEquals("pass 1 fr_FR", get("fr-FR,en;q=0.5"));
+    Assert.assertEquals("pass 2 en", get("fr;q=0.2,en"));
+    Assert.assertEquals(2, count.get());
+  }
+
+  @Test
+  public void testETag() throws Exception {
+    String[] etags = new String[2];
+    for (int i = 0;i < etags.length;i++) {
+      URL url = new URL("http://localhost:8080/");
+      HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+      conn.setRequestProperty("Accept-Language", "de");
+      conn.connect();
+      Assert.assertEquals(200, conn.getResponseCode());
+      etags[i] = conn.getHeaderField("ETag");
+      Tools.read(conn.getInputStream());
+    }
+
+    // The first response recorded carries the entity tag of the cached response
+    Assert.assertNotNull(etags[0]);
+    Assert.assertEquals(etags[0], etags[1]);
+    URL url = new URL("http://localhost:8080/");
+    HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+    conn.setRequestProperty("Accept-Language", "de");
+    conn.setRequestProperty("If-None-Match", etags[0]);
+    conn.connect();
+    Assert.assertEquals(304, conn.getResponseCode());
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package juzu.bridge.vertx;
+
+import junit.framework.Assert;
+import juzu.impl.common.Tools;
+import org.junit.Test;
+import org.vertx.java.test.TestModule;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+@TestModule(
+    name = "juzu-v1.0",
+    jsonConfig = "{ \"main\":\"download\"}")
+public class DownloadTestCase extends VertxTestCase {
+
+  /** . */
+  public static volatile File file;
+
+  private HttpURLConnection get(String range) throws Exception {
+    URL url = new URL("http://localhost:8080/");
+    HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+    if (range != null) {
+      conn.setRequestProperty("Range", range);
+    }
+    conn.connect();
+    return conn;
+  }
+
+  @Test
+  public void testDownload() throws Exception {
+    file = File.createTempFile("juzu", ".txt");
+    file.deleteOnExit();
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write("hello world".getBytes("UTF-8"));
+    }
+    finally {
+      Tools.safeClose(out);
+    }
+
+    //
+    HttpURLConnection conn = get(null);
+    Assert.assertEquals(200, conn.getResponseCode());
+    Assert.assertEquals("11", conn.getHeaderField("Content-Length"));
+    Assert.assertNull(conn.getHeaderField("Transfer-Encoding"));
+    Assert.assertEquals("hello world", Tools.read(conn.getInputStream()));
+
+    //
+    conn = get("bytes=6-");
+    Assert.assertEquals(206, conn.getResponseCode());
+    Assert.assertEquals("5", conn.getHeaderField("Content-Length"));
+    Assert.assertNull(conn.getHeaderField("Transfer-Encoding"));
+    Assert.assertEquals("world", Tools.read(conn.getInputStream()));
+  }
+
+  @Test
+  public void testMissingFile() throws Exception {
+    file = new File(System.getProperty("java.io.tmpdir"), "juzu-missing-" + System.nanoTime() + ".txt");
+    HttpURLConnection conn = get(null);
+    Assert.assertEquals(404, conn.getResponseCode());
+  }
+}
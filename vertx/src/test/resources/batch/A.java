@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package batch;
+
+import juzu.Resource;
+import juzu.Response;
+import juzu.bridge.vertx.BatchTestCase;
+import juzu.io.AsyncStreamable;
+
+import java.util.concurrent.TimeUnit;
+
+public class A {
+
+  @Resource(id = "echo")
+  public Response.Content echo(String value) {
+    return Response.ok("pass " + value);
+  }
+
+  @Resource(id = "rendezvous")
+  public Response.Content rendezvous() throws InterruptedException {
+    BatchTestCase.latch.countDown();
+    return Response.ok(BatchTestCase.latch.await(5, TimeUnit.SECONDS) ? "pass" : "timeout");
+  }
+
+  @Resource(id = "hang")
+  public Response.Content hang() {
+    // Never completed
+    return Response.content(200, new AsyncStreamable());
+  }
+
+  @Resource(id = "fail")
+  public Response.Content fail() {
+    throw new RuntimeException("Expected");
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 eXo Platform SAS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package events;
+
+import juzu.Resource;
+import juzu.Response;
+import juzu.Route;
+import juzu.io.EventStreamable;
+
+/** @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a> */
+public class A {
+
+  @Resource
+  @Route("/")
+  public Response.Body index() {
+    final EventStreamable events = new EventStreamable();
+    new Thread() {
+      @Override
+      public void run() {
+        try {
+          events.publish("1", "foo", "pass");
+          Thread.sleep(500);
+          events.publish("bar\nbaz");
+        }
+        catch (Exception e) {
+          e.printStackTrace();
+        }
+        finally {
+          events.close();
+        }
+      }
+    }.start();
+    return Response.events(events);
+  }
+}